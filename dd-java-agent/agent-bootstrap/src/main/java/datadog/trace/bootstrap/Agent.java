@@ -137,6 +137,9 @@ public class Agent {
   private static boolean debuggerEnabled = false;
 
   public static void start(final Instrumentation inst, final URL agentJarURL, String agentArgs) {
+    if (isDebugMode()) {
+      StaticEventLogger.profilePhases();
+    }
     StaticEventLogger.begin("Agent");
     StaticEventLogger.begin("Agent.start");
 
@@ -296,6 +299,12 @@ public class Agent {
     }
 
     StaticEventLogger.end("Agent.start");
+
+    // phases deferred by the callbacks above (tracer, JMXFetch, profiling) are not profiled
+    String startupProfile = StaticEventLogger.drainProfile();
+    if (!startupProfile.isEmpty() && isFeatureEnabled(AgentFeature.STARTUP_LOGS)) {
+      log.info("DATADOG AGENT STARTUP PROFILE {}", startupProfile);
+    }
   }
 
   private static void injectAgentArgsConfig(String agentArgs) {
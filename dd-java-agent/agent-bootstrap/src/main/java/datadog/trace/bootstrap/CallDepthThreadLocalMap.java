@@ -1,54 +1,105 @@
 package datadog.trace.bootstrap;
 
 import datadog.trace.api.GenericClassValue;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * Utility to track nested instrumentation.
  *
  * <p>For example, this can be used to track nested calls to super() in constructors by calling
  * #incrementCallDepth at the beginning of each constructor.
+ *
+ * <p>Each call-depth key is assigned a stable id, and each thread keeps the depths for all keys in
+ * a single {@code int[]} indexed by that id. Calls using class-literal keys in advice are rewritten
+ * during transformation to pass the id directly, so they only need one array access.
  */
 public class CallDepthThreadLocalMap {
 
-  private static final ClassValue<ThreadLocalDepth> TLS =
-      GenericClassValue.constructing(ThreadLocalDepth.class);
+  private static final ConcurrentHashMap<String, Integer> IDS_BY_KEY = new ConcurrentHashMap<>();
+
+  private static final ClassValue<Integer> IDS_BY_CLASS =
+      GenericClassValue.of((Function<Class<?>, Integer>) k -> getCallDepthId(k.getName()));
+
+  private static volatile int idCount;
+
+  private static final ThreadLocal<int[]> DEPTHS =
+      new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+          return new int[capacityFor(idCount)];
+        }
+      };
+
+  /**
+   * Returns the stable id for the given call-depth key, assigning a new id if necessary.
+   *
+   * <p>Keys are identified by class name, so same-named key classes from different class-loaders
+   * are merged into one call-depth: a call tracked against one copy of the key counts as nested
+   * inside a call tracked against another copy on the same thread. Advice should therefore use
+   * key classes with names unique to the instrumentation, typically the instrumented type itself.
+   */
+  @SuppressFBWarnings("JLM_JSR166_UTILCONCURRENT_MONITORENTER")
+  public static int getCallDepthId(final String keyClassName) {
+    Integer id = IDS_BY_KEY.get(keyClassName);
+    if (null == id) {
+      synchronized (IDS_BY_KEY) {
+        id = IDS_BY_KEY.get(keyClassName);
+        if (null == id) {
+          id = idCount;
+          IDS_BY_KEY.put(keyClassName, id);
+          idCount = id + 1;
+        }
+      }
+    }
+    return id;
+  }
 
   public static int incrementCallDepth(final Class<?> k) {
-    return TLS.get(k).get().increment();
+    return incrementCallDepth(IDS_BY_CLASS.get(k));
   }
 
   public static int getCallDepth(final Class<?> k) {
-    return TLS.get(k).get().depth;
+    return getCallDepth(IDS_BY_CLASS.get(k));
   }
 
   public static int decrementCallDepth(final Class<?> k) {
-    return TLS.get(k).get().decrement();
+    return decrementCallDepth(IDS_BY_CLASS.get(k));
   }
 
   public static void reset(final Class<?> k) {
-    TLS.get(k).get().depth = 0;
+    reset(IDS_BY_CLASS.get(k));
   }
 
-  private static final class Depth {
-    private int depth;
+  public static int incrementCallDepth(final int id) {
+    return depths(id)[id]++;
+  }
 
-    private Depth() {
-      this.depth = 0;
-    }
+  public static int getCallDepth(final int id) {
+    return depths(id)[id];
+  }
 
-    private int increment() {
-      return this.depth++;
-    }
+  public static int decrementCallDepth(final int id) {
+    return --depths(id)[id];
+  }
 
-    private int decrement() {
-      return --this.depth;
-    }
+  public static void reset(final int id) {
+    depths(id)[id] = 0;
   }
 
-  public static final class ThreadLocalDepth extends ThreadLocal<Depth> {
-    @Override
-    protected Depth initialValue() {
-      return new Depth();
+  private static int[] depths(final int id) {
+    int[] depths = DEPTHS.get();
+    if (id >= depths.length) {
+      // ids were assigned after this thread's depths were allocated
+      depths = Arrays.copyOf(depths, capacityFor(Math.max(id + 1, idCount)));
+      DEPTHS.set(depths);
     }
+    return depths;
+  }
+
+  private static int capacityFor(final int count) {
+    return (count + 15) & ~15; // round up to reduce re-allocations as ids are assigned
   }
 }
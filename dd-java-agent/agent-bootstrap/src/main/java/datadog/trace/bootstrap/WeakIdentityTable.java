@@ -0,0 +1,324 @@
+package datadog.trace.bootstrap;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Lock-free weak-keyed table using open-addressing with linear probing. Keys are compared by
+ * identity.
+ *
+ * <p>Lookups never block and don't allocate. New keys claim empty slots with a CAS; slots are never
+ * reused within the same generation of the table, so each key can only ever occupy one slot. Values
+ * of collected keys are released as soon as the stale key is dequeued. Slots of collected keys, and
+ * of keys whose value was removed, are dropped when the table is next rebuilt. Only rebuilds are
+ * serialized; readers continue to use the old generation while the new one is being populated.
+ */
+public final class WeakIdentityTable<K, V> {
+  private static final int MIN_CAPACITY = 16;
+  private static final int MAX_CAPACITY = 1 << 30;
+
+  private static final AtomicReferenceFieldUpdater<Entry, Object> VALUE =
+      AtomicReferenceFieldUpdater.newUpdater(Entry.class, Object.class, "value");
+
+  /** Marks an empty slot that was closed off while rebuilding the table. */
+  private static final Moved MOVED_EMPTY = new Moved(null);
+
+  /** Value of an entry without value dropped by a rebuild, writers must look the key up again. */
+  private static final Object DEAD = new Object();
+
+  private final ReferenceQueue<Object> staleKeys = new ReferenceQueue<>();
+  private final AtomicInteger size = new AtomicInteger();
+  private final AtomicInteger expunged = new AtomicInteger();
+
+  private final Object rebuildLock = new Object();
+
+  private volatile Table table;
+
+  public WeakIdentityTable() {
+    this(MIN_CAPACITY);
+  }
+
+  public WeakIdentityTable(int initialCapacity) {
+    this.table = new Table(tableSizeFor(initialCapacity));
+  }
+
+  /** Number of keys with values, including collected keys that haven't been expunged yet. */
+  public int size() {
+    return size.get();
+  }
+
+  /** Number of entries released because their keys were collected. */
+  public int expungedCount() {
+    return expunged.get();
+  }
+
+  /** Number of slots in the current generation of the table. */
+  public int capacity() {
+    return table.length();
+  }
+
+  @SuppressWarnings("unchecked")
+  public V get(final Object key) {
+    Entry entry = find(key);
+    if (null == entry) {
+      return null;
+    }
+    Object value = entry.value;
+    return DEAD != value ? (V) value : null;
+  }
+
+  public boolean containsKey(final Object key) {
+    return null != get(key);
+  }
+
+  /** Associates the value with the key; a {@code null} value removes any existing association. */
+  @SuppressWarnings("unchecked")
+  public V put(final K key, final V value) {
+    if (null == value) {
+      return remove(key);
+    }
+    for (; ; ) {
+      Entry entry = findOrInsert(key);
+      if (null == entry) {
+        return null;
+      }
+      Object oldValue = entry.value;
+      while (DEAD != oldValue) {
+        if (VALUE.compareAndSet(entry, oldValue, value)) {
+          if (null == oldValue) {
+            size.incrementAndGet();
+          }
+          return (V) oldValue;
+        }
+        oldValue = entry.value;
+      }
+      // entry was dropped by a rebuild, retry with the next generation
+    }
+  }
+
+  /**
+   * Associates the value with the key, unless the key already has a value.
+   *
+   * @return the existing value, or {@code null} if the given value was associated with the key
+   */
+  @SuppressWarnings("unchecked")
+  public V putIfAbsent(final K key, final V value) {
+    if (null == value) {
+      return get(key);
+    }
+    for (; ; ) {
+      Entry entry = findOrInsert(key);
+      if (null == entry) {
+        return null;
+      }
+      Object existingValue = entry.value;
+      while (null == existingValue) {
+        if (VALUE.compareAndSet(entry, null, value)) {
+          size.incrementAndGet();
+          return null;
+        }
+        existingValue = entry.value;
+      }
+      if (DEAD != existingValue) {
+        return (V) existingValue;
+      }
+      // entry was dropped by a rebuild, retry with the next generation
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  public V remove(final Object key) {
+    Entry entry = find(key);
+    return null != entry ? (V) clear(entry) : null;
+  }
+
+  /** @return the value the entry held, if any */
+  private Object clear(Entry entry) {
+    Object oldValue = entry.value;
+    while (null != oldValue && DEAD != oldValue) {
+      if (VALUE.compareAndSet(entry, oldValue, null)) {
+        size.decrementAndGet();
+        return oldValue;
+      }
+      oldValue = entry.value;
+    }
+    return null;
+  }
+
+  /** Releases values whose keys have been collected. */
+  public void expungeStaleEntries() {
+    Object ref;
+    while (null != (ref = staleKeys.poll())) {
+      expunge((Entry) ref);
+    }
+  }
+
+  private void expunge(Entry entry) {
+    if (null != clear(entry)) {
+      expunged.incrementAndGet();
+    }
+  }
+
+  private Entry find(final Object key) {
+    if (null == key) {
+      return null;
+    }
+    int hash = hash(key);
+    Table t = table;
+    int mask = t.length() - 1;
+    for (int i = hash & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+      Object slot = t.get(i);
+      // slots being rebuilt still point to their entry, which is shared with the next generation
+      Entry entry = slot instanceof Moved ? ((Moved) slot).entry : (Entry) slot;
+      if (null == entry) {
+        return null; // reached end of probe sequence
+      }
+      if (hash == entry.hash && key == entry.get()) {
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  private Entry findOrInsert(final K key) {
+    if (null == key) {
+      return null;
+    }
+    expungeStaleEntries();
+    int hash = hash(key);
+    retry:
+    for (; ; ) {
+      Table t = table;
+      int mask = t.length() - 1;
+      for (int i = hash & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+        Object slot = t.get(i);
+        while (null == slot) {
+          if (t.occupied.get() >= t.threshold) {
+            rebuild(t);
+            continue retry;
+          }
+          Entry entry = new Entry(key, hash, staleKeys);
+          if (t.compareAndSet(i, null, entry)) {
+            t.occupied.incrementAndGet();
+            return entry;
+          }
+          slot = t.get(i); // lost race to claim this slot, check what's there now
+        }
+        if (slot instanceof Moved) {
+          awaitRebuild(t);
+          continue retry;
+        }
+        Entry entry = (Entry) slot;
+        if (hash == entry.hash && key == entry.get()) {
+          return entry;
+        }
+      }
+      rebuild(t); // no free slots left
+    }
+  }
+
+  private void awaitRebuild(Table t) {
+    synchronized (rebuildLock) {
+      if (table == t) {
+        // shouldn't happen, rebuilds are published before the lock is released
+        Thread.yield();
+      }
+    }
+  }
+
+  /**
+   * Closes off the current generation of the table by marking every slot as moved, then copies
+   * entries with live keys and values into the next generation. Entries are shared between
+   * generations so updates to their values are never lost, even if they race with the rebuild.
+   * Entries left without value are marked dead instead, so that a writer still holding one retries
+   * against the next generation.
+   */
+  private void rebuild(Table current) {
+    synchronized (rebuildLock) {
+      if (table != current) {
+        return; // another thread already rebuilt this generation
+      }
+      expungeStaleEntries();
+
+      int length = current.length();
+      Entry[] liveEntries = new Entry[length];
+      int liveCount = 0;
+      for (int i = 0; i < length; i++) {
+        for (; ; ) {
+          Object slot = current.get(i);
+          Entry entry = (Entry) slot;
+          if (current.compareAndSet(i, slot, null != entry ? new Moved(entry) : MOVED_EMPTY)) {
+            if (null != entry) {
+              if (null == entry.get()) {
+                expunge(entry);
+              } else if (!VALUE.compareAndSet(entry, null, DEAD)) {
+                liveEntries[liveCount++] = entry;
+              }
+            }
+            break;
+          }
+        }
+      }
+
+      Table next = new Table(tableSizeFor(liveCount << 1));
+      int mask = next.length() - 1;
+      for (int e = 0; e < liveCount; e++) {
+        Entry entry = liveEntries[e];
+        int i = entry.hash & mask;
+        while (null != next.get(i)) {
+          i = (i + 1) & mask;
+        }
+        next.lazySet(i, entry);
+      }
+      next.occupied.set(liveCount);
+
+      table = next;
+    }
+  }
+
+  private static int hash(Object key) {
+    int h = System.identityHashCode(key);
+    return h ^ (h >>> 16);
+  }
+
+  private static int tableSizeFor(int capacity) {
+    if (capacity <= MIN_CAPACITY) {
+      return MIN_CAPACITY;
+    }
+    if (capacity >= MAX_CAPACITY) {
+      return MAX_CAPACITY;
+    }
+    return Integer.highestOneBit(capacity - 1) << 1;
+  }
+
+  static final class Entry extends WeakReference<Object> {
+    final int hash;
+    volatile Object value;
+
+    Entry(Object key, int hash, ReferenceQueue<Object> queue) {
+      super(key, queue);
+      this.hash = hash;
+    }
+  }
+
+  static final class Moved {
+    final Entry entry;
+
+    Moved(Entry entry) {
+      this.entry = entry;
+    }
+  }
+
+  static final class Table extends AtomicReferenceArray<Object> {
+    final int threshold;
+    final AtomicInteger occupied = new AtomicInteger();
+
+    Table(int capacity) {
+      super(capacity);
+      this.threshold = capacity - (capacity >>> 2); // 75% load factor
+    }
+  }
+}
@@ -11,7 +11,8 @@ public interface WeakMap<K, V> {
 
   void put(K key, V value);
 
-  void putIfAbsent(K key, V value);
+  /** @return the previous value associated with the key, or {@code null} if there was none */
+  V putIfAbsent(K key, V value);
 
   V computeIfAbsent(K key, Function<? super K, ? extends V> supplier);
 
@@ -33,21 +33,15 @@ final class WeakMapContextStore<K, V> implements ContextStore<K, V> {
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   public V putIfAbsent(final K key, final V context) {
     V existingContext = get(key);
     if (null == existingContext) {
-      // This whole part with using synchronized is only because
-      // we want to avoid prematurely calling the factory if
-      // someone else is doing a putIfAbsent at the same time.
-      // There is still the possibility that there is a concurrent
-      // call to put that will win, but that is indistinguishable
-      // from the put happening right after the putIfAbsent.
-      synchronized (map) {
-        existingContext = get(key);
-        if (null == existingContext) {
-          existingContext = context;
-          put(key, existingContext);
-        }
+      if (map.size() < maxSize) {
+        existingContext = (V) map.putIfAbsent(key, context);
+      }
+      if (null == existingContext) {
+        existingContext = context;
       }
     }
     return existingContext;
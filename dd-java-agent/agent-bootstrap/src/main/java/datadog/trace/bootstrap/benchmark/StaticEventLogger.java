@@ -2,7 +2,10 @@ package datadog.trace.bootstrap.benchmark;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,10 +18,19 @@ public class StaticEventLogger {
 
   private static final BufferedWriter out;
 
+  // at most this many phases can be open at the same time, others are not profiled
+  private static final int MAX_OPEN_PHASES = 64;
+
+  // timing of completed phases, reported once in the startup log; guarded by phaseBegins
+  private static final Map<String, Long> phaseBegins = new HashMap<>();
+  private static final StringBuilder phaseProfile = new StringBuilder();
+  private static volatile boolean profiling;
+
   static {
     BufferedWriter writer = null;
 
-    if ("true".equalsIgnoreCase(System.getProperty("dd.benchmark.enabled"))) {
+    boolean benchmark = "true".equalsIgnoreCase(System.getProperty("dd.benchmark.enabled"));
+    if (benchmark) {
       String dir = System.getProperty("dd.benchmark.output.dir");
       dir = (dir != null ? dir + File.separator : "");
       String fileName = dir + "startup_" + System.currentTimeMillis() + ".csv";
@@ -33,6 +45,12 @@ public class StaticEventLogger {
     }
 
     out = writer;
+    profiling = benchmark;
+  }
+
+  /** Profiles startup phases even when benchmark recording is disabled, such as in debug mode. */
+  public static void profilePhases() {
+    profiling = true;
   }
 
   public static void stop() {
@@ -73,15 +91,61 @@ public class StaticEventLogger {
   }
 
   public static void begin(String event) {
+    long timestamp = System.nanoTime();
+    if (profiling) {
+      synchronized (phaseBegins) {
+        if (profiling && phaseBegins.size() < MAX_OPEN_PHASES) {
+          phaseBegins.put(event, timestamp);
+        }
+      }
+    }
+
     if (out == null) return;
 
-    writeEvent(event, EVENT_BEGIN, System.nanoTime());
+    writeEvent(event, EVENT_BEGIN, timestamp);
   }
 
   public static void end(String event) {
+    long timestamp = System.nanoTime();
+    if (profiling) {
+      synchronized (phaseBegins) {
+        Long begin = phaseBegins.remove(event);
+        if (begin != null) {
+          if (phaseProfile.length() > 0) {
+            phaseProfile.append(", ");
+          }
+          phaseProfile
+              .append(event)
+              .append('=')
+              .append(TimeUnit.NANOSECONDS.toMillis(timestamp - begin))
+              .append("ms");
+        }
+      }
+    }
+
     if (out == null) return;
 
-    writeEvent(event, EVENT_END, System.nanoTime());
+    writeEvent(event, EVENT_END, timestamp);
+  }
+
+  /**
+   * Returns the durations of phases completed so far, in the order they completed, and stops
+   * profiling phases. Phases are only profiled when benchmark recording is enabled or after a call
+   * to {@link #profilePhases()}.
+   *
+   * <p>Phases which begin or end after this call, such as those deferred until the application
+   * has installed its own log manager, are not included in the profile. They are still written to
+   * the benchmark recording, if enabled.
+   */
+  public static String drainProfile() {
+    synchronized (phaseBegins) {
+      profiling = false;
+      String profile = phaseProfile.toString();
+      phaseBegins.clear();
+      phaseProfile.setLength(0);
+      phaseProfile.trimToSize();
+      return profile;
+    }
   }
 
   private static String getAgentVersion() {
@@ -32,4 +32,42 @@ class CallDepthThreadLocalMapTest extends DDSpecification {
     CallDepthThreadLocalMap.incrementCallDepth(k1) == 1
     CallDepthThreadLocalMap.incrementCallDepth(k2) == 1
   }
+
+  def "test call-depth ids are shared with class keys"() {
+    setup:
+    Class<?> k = Long
+    int id = CallDepthThreadLocalMap.getCallDepthId(k.getName())
+
+    expect:
+    CallDepthThreadLocalMap.getCallDepthId(k.getName()) == id
+    CallDepthThreadLocalMap.getCallDepthId(Short.getName()) != id
+
+    CallDepthThreadLocalMap.incrementCallDepth(k) == 0
+    CallDepthThreadLocalMap.incrementCallDepth(id) == 1
+    CallDepthThreadLocalMap.getCallDepth(k) == 2
+    CallDepthThreadLocalMap.decrementCallDepth(id) == 1
+    CallDepthThreadLocalMap.getCallDepth(id) == 1
+
+    when:
+    CallDepthThreadLocalMap.reset(id)
+
+    then:
+    CallDepthThreadLocalMap.getCallDepth(k) == 0
+  }
+
+  def "test ids assigned after first use on a thread"() {
+    setup:
+    CallDepthThreadLocalMap.incrementCallDepth(Byte)
+    // assign enough new ids to force this thread's depths to grow
+    def ids = (0..<100).collect { CallDepthThreadLocalMap.getCallDepthId("test.Key" + it) }
+
+    expect:
+    ids.every { CallDepthThreadLocalMap.incrementCallDepth(it) == 0 }
+    ids.every { CallDepthThreadLocalMap.getCallDepth(it) == 1 }
+    CallDepthThreadLocalMap.getCallDepth(Byte) == 1
+
+    cleanup:
+    ids.each { CallDepthThreadLocalMap.reset(it) }
+    CallDepthThreadLocalMap.reset(Byte)
+  }
 }
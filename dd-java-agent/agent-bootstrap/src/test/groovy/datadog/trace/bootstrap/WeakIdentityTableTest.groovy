@@ -0,0 +1,168 @@
+package datadog.trace.bootstrap
+
+import datadog.trace.agent.test.utils.ThreadUtils
+import datadog.trace.test.util.DDSpecification
+import datadog.trace.test.util.GCUtils
+
+import java.lang.ref.WeakReference
+import java.util.concurrent.atomic.AtomicInteger
+
+class WeakIdentityTableTest extends DDSpecification {
+
+  def "test put, get and remove"() {
+    setup:
+    def table = new WeakIdentityTable<Object, String>()
+    def key = new Object()
+
+    expect:
+    table.get(key) == null
+    !table.containsKey(key)
+    table.size() == 0
+
+    when:
+    table.put(key, "value1")
+
+    then:
+    table.get(key) == "value1"
+    table.containsKey(key)
+    table.size() == 1
+
+    when:
+    def previous = table.put(key, "value2")
+
+    then:
+    previous == "value1"
+    table.get(key) == "value2"
+    table.size() == 1
+
+    when:
+    def removed = table.remove(key)
+
+    then:
+    removed == "value2"
+    table.get(key) == null
+    table.size() == 0
+  }
+
+  def "test keys are compared by identity"() {
+    setup:
+    def table = new WeakIdentityTable<String, String>()
+    def key1 = new String("key")
+    def key2 = new String("key")
+
+    when:
+    table.put(key1, "value1")
+
+    then:
+    table.get(key1) == "value1"
+    table.get(key2) == null
+  }
+
+  def "test putIfAbsent keeps existing value"() {
+    setup:
+    def table = new WeakIdentityTable<Object, String>()
+    def key = new Object()
+
+    expect:
+    table.putIfAbsent(key, "value1") == null
+    table.putIfAbsent(key, "value2") == "value1"
+    table.get(key) == "value1"
+    table.size() == 1
+  }
+
+  def "test null keys and values"() {
+    setup:
+    def table = new WeakIdentityTable<Object, String>()
+    def key = new Object()
+    table.put(key, "value")
+
+    when:
+    table.put(null, "value")
+    table.put(key, null)
+
+    then:
+    table.get(null) == null
+    table.get(key) == null
+    table.size() == 0
+  }
+
+  def "test table grows while keeping existing entries"() {
+    setup:
+    def table = new WeakIdentityTable<Object, Integer>()
+    def keys = (0..<1000).collect { new Object() }
+
+    when:
+    keys.eachWithIndex { key, i -> table.put(key, i) }
+
+    then:
+    table.size() == 1000
+    table.capacity() >= 1000
+    keys.withIndex().every { key, i -> table.get(key) == i }
+  }
+
+  def "test removed entries are dropped when the table grows"() {
+    setup:
+    def table = new WeakIdentityTable<Object, Integer>()
+    // keys stay reachable, only their values are removed
+    def keys = (0..<5000).collect { new Object() }
+
+    when:
+    keys.eachWithIndex { key, i ->
+      table.put(key, i)
+      table.remove(key)
+    }
+    table.put(keys[0], 0)
+
+    then:
+    table.size() == 1
+    table.capacity() < 1000
+    table.get(keys[0]) == 0
+    keys.drop(1).every { key -> table.get(key) == null }
+  }
+
+  def "test concurrent puts of the same keys"() {
+    setup:
+    def table = new WeakIdentityTable<Object, Integer>()
+    def keys = (0..<500).collect { new Object() }
+    def nextKey = new AtomicInteger()
+
+    when:
+    ThreadUtils.runConcurrently(8, 4000, {
+      int k = nextKey.getAndIncrement() % keys.size()
+      table.putIfAbsent(keys[k], k)
+      assert table.get(keys[k]) == k
+    })
+
+    then:
+    table.size() == keys.size()
+    keys.withIndex().every { key, i -> table.get(key) == i }
+  }
+
+  def "test values of collected keys are released"() {
+    setup:
+    def table = new WeakIdentityTable<Object, Object>()
+    def key = new Object()
+    def value = new Object()
+    table.put(key, value)
+
+    when:
+    def keyRef = new WeakReference(key)
+    def valueRef = new WeakReference(value)
+    key = null
+    value = null
+    GCUtils.awaitGC(keyRef)
+    // stale keys are enqueued asynchronously, so allow a few attempts to expunge them
+    int count = 0
+    while (table.size() != 0 && count < 10) {
+      Thread.sleep(100)
+      table.expungeStaleEntries()
+      count++
+    }
+    GCUtils.awaitGC(valueRef)
+
+    then:
+    table.size() == 0
+    table.expungedCount() == 1
+    valueRef.get() == null
+  }
+}
@@ -7,6 +7,7 @@ import static datadog.trace.agent.tooling.bytebuddy.matcher.HierarchyMatchers.de
 import static datadog.trace.agent.tooling.bytebuddy.matcher.NameMatchers.namedOneOf;
 import static net.bytebuddy.matcher.ElementMatchers.not;
 
+import datadog.trace.agent.tooling.bytebuddy.CallDepthRewritingVisitor;
 import java.security.ProtectionDomain;
 import java.util.HashMap;
 import java.util.Map;
@@ -64,6 +65,32 @@ abstract class AbstractTransformerBuilder
     }
   }
 
+  /** Rewrites call-depth keys, but only when the instrumentation's advice uses them. */
+  protected static final class CallDepthTransformer implements AgentBuilder.Transformer {
+    private final String instrumentationClass;
+
+    // resolved on first transformation, by which time muzzle has loaded the side-class
+    private Boolean usesCallDepth;
+
+    CallDepthTransformer(Instrumenter.Default instrumenter) {
+      this.instrumentationClass = instrumenter.getClass().getName();
+    }
+
+    @Override
+    public DynamicType.Builder<?> transform(
+        DynamicType.Builder<?> builder,
+        TypeDescription typeDescription,
+        ClassLoader classLoader,
+        JavaModule module,
+        ProtectionDomain pd) {
+      if (null == usesCallDepth) {
+        usesCallDepth =
+            Instrumenter.Default.usesCallDepth(getClass().getClassLoader(), instrumentationClass);
+      }
+      return usesCallDepth ? builder.visit(CallDepthRewritingVisitor.INSTANCE) : builder;
+    }
+  }
+
   protected static final class HelperTransformer extends HelperInjector
       implements AgentBuilder.Transformer {
     HelperTransformer(String requestingName, String... helperClassNames) {
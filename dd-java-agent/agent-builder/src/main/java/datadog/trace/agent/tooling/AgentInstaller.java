@@ -11,6 +11,7 @@ import datadog.trace.api.InstrumenterConfig;
 import datadog.trace.api.IntegrationsCollector;
 import datadog.trace.api.ProductActivation;
 import datadog.trace.bootstrap.FieldBackedContextAccessor;
+import datadog.trace.bootstrap.benchmark.StaticEventLogger;
 import datadog.trace.bootstrap.instrumentation.java.concurrent.ExcludeFilter;
 import datadog.trace.util.AgentTaskScheduler;
 import de.thetaphi.forbiddenapis.SuppressForbidden;
@@ -136,6 +137,8 @@ public class AgentInstaller {
       agentBuilder = agentBuilder.with(listener);
     }
 
+    StaticEventLogger.begin("Instrumenters.load");
+
     Instrumenters instrumenters = Instrumenters.load(AgentInstaller.class.getClassLoader());
     int maxInstrumentationId = instrumenters.maxInstrumentationId();
 
@@ -158,6 +161,9 @@ public class AgentInstaller {
       }
     }
 
+    StaticEventLogger.end("Instrumenters.load");
+    StaticEventLogger.begin("Instrumenters.build");
+
     Instrumenter.TransformerBuilder transformerBuilder;
     if (InstrumenterConfig.get().isLegacyInstallerEnabled()) {
       transformerBuilder = new LegacyTransformerBuilder(agentBuilder);
@@ -188,6 +194,8 @@ public class AgentInstaller {
       log.debug("Installed {} instrumenter(s)", installedCount);
     }
 
+    StaticEventLogger.end("Instrumenters.build");
+
     if (InstrumenterConfig.get().isTelemetryEnabled()) {
       InstrumenterState.setObserver(
           new InstrumenterState.Observer() {
@@ -199,10 +207,12 @@ public class AgentInstaller {
     }
 
     InstrumenterState.resetDefaultState();
+    StaticEventLogger.begin("Instrumenters.install");
     try {
       return transformerBuilder.installOn(inst);
     } finally {
       SharedTypePools.endInstall();
+      StaticEventLogger.end("Instrumenters.install");
     }
   }
 
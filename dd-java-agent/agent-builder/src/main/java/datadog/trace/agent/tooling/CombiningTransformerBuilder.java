@@ -26,6 +26,7 @@ import net.bytebuddy.matcher.ElementMatcher;
 /** Builds multiple instrumentations into a single combining-matcher and splitting-transformer. */
 public final class CombiningTransformerBuilder extends AbstractTransformerBuilder {
   private final AgentBuilder agentBuilder;
+  private final boolean lazyMatchers = InstrumenterConfig.get().isLazyMatchersEnabled();
 
   private final List<MatchRecorder> matchers = new ArrayList<>();
   private final BitSet knownTypesMask;
@@ -70,7 +71,8 @@ public final class CombiningTransformerBuilder extends AbstractTransformerBuilde
       knownTypesMask.set(id);
     } else if (instrumenter instanceof Instrumenter.ForTypeHierarchy) {
       matchers.add(
-          new MatchRecorder.ForHierarchy(id, (Instrumenter.ForTypeHierarchy) instrumenter));
+          new MatchRecorder.ForHierarchy(
+              id, (Instrumenter.ForTypeHierarchy) instrumenter, lazyMatchers));
     } else if (instrumenter instanceof Instrumenter.ForCallSite) {
       matchers.add(
           new MatchRecorder.ForType(id, ((Instrumenter.ForCallSite) instrumenter).callerType()));
@@ -86,7 +88,8 @@ public final class CombiningTransformerBuilder extends AbstractTransformerBuilde
     if (instrumenter instanceof Instrumenter.CanShortcutTypeMatching
         && !((Instrumenter.CanShortcutTypeMatching) instrumenter).onlyMatchKnownTypes()) {
       matchers.add(
-          new MatchRecorder.ForHierarchy(id, (Instrumenter.ForTypeHierarchy) instrumenter));
+          new MatchRecorder.ForHierarchy(
+              id, (Instrumenter.ForTypeHierarchy) instrumenter, lazyMatchers));
     }
 
     ElementMatcher<ClassLoader> classLoaderMatcher = instrumenter.classLoaderMatcher();
@@ -95,9 +98,15 @@ public final class CombiningTransformerBuilder extends AbstractTransformerBuilde
     }
 
     if (instrumenter instanceof Instrumenter.WithTypeStructure) {
+      Instrumenter.WithTypeStructure withTypeStructure =
+          (Instrumenter.WithTypeStructure) instrumenter;
+      // when lazy the structure matcher is only built once something else has matched
       matchers.add(
           new MatchRecorder.NarrowType(
-              id, ((Instrumenter.WithTypeStructure) instrumenter).structureMatcher()));
+              id,
+              lazyMatchers
+                  ? new LazyMatcher<>(withTypeStructure::structureMatcher)
+                  : withTypeStructure.structureMatcher()));
     }
 
     matchers.add(new MatchRecorder.NarrowLocation(id, new MuzzleCheck(instrumenter)));
@@ -113,6 +122,9 @@ public final class CombiningTransformerBuilder extends AbstractTransformerBuilde
       advice.add(new HelperTransformer(instrumenter.getClass().getSimpleName(), helperClassNames));
     }
 
+    // rewrite call-depth tracking to use the id assigned to each class-literal key
+    advice.add(new CallDepthTransformer(instrumenter));
+
     Map<String, String> contextStore = instrumenter.contextStore();
     if (!contextStore.isEmpty()) {
       // rewrite context store access to call FieldBackedContextStores with assigned store-id
@@ -0,0 +1,50 @@
+package datadog.trace.agent.tooling;
+
+import java.util.function.Supplier;
+import net.bytebuddy.matcher.ElementMatcher;
+
+/**
+ * Defers building an instrumentation's matcher until it is first needed.
+ *
+ * <p>Matchers guarded by a class-loader hint or known-type are only consulted once the hint class
+ * or known-type is seen, so integrations whose libraries are missing never build their matchers.
+ */
+final class LazyMatcher<T> implements ElementMatcher<T> {
+  private Supplier<ElementMatcher<T>> supplier;
+  private volatile ElementMatcher<T> matcher;
+
+  LazyMatcher(Supplier<ElementMatcher<T>> supplier) {
+    this.supplier = supplier;
+  }
+
+  @Override
+  public boolean matches(T target) {
+    return matcher().matches(target);
+  }
+
+  /** Returns {@code true} once the underlying matcher has been built. */
+  boolean isActivated() {
+    return null != matcher;
+  }
+
+  private ElementMatcher<T> matcher() {
+    ElementMatcher<T> result = matcher;
+    if (null == result) {
+      synchronized (this) {
+        result = matcher;
+        if (null == result) {
+          result = supplier.get();
+          matcher = result;
+          supplier = null; // release reference to instrumenter
+        }
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    ElementMatcher<T> result = matcher;
+    return null != result ? result.toString() : "lazy()";
+  }
+}
@@ -65,6 +65,9 @@ public final class LegacyTransformerBuilder extends AbstractTransformerBuilder {
               new HelperTransformer(instrumenter.getClass().getSimpleName(), helperClassNames));
     }
 
+    // rewrite call-depth tracking to use the id assigned to each class-literal key
+    adviceBuilder = adviceBuilder.transform(new CallDepthTransformer(instrumenter));
+
     Map<String, String> contextStore = instrumenter.contextStore();
     if (!contextStore.isEmpty()) {
       // rewrite context store access to call FieldBackedContextStores with assigned store-id
@@ -49,11 +49,15 @@ abstract class MatchRecorder {
     private final ElementMatcher<ClassLoader> hintMatcher;
     private final ElementMatcher<TypeDescription> typeMatcher;
 
-    ForHierarchy(int id, Instrumenter.ForTypeHierarchy instrumenter) {
+    ForHierarchy(int id, Instrumenter.ForTypeHierarchy instrumenter, boolean lazy) {
       super(id);
       String hint = instrumenter.hierarchyMarkerType();
       this.hintMatcher = null != hint ? hasClassNamed(hint) : ANY_CLASS_LOADER;
-      this.typeMatcher = instrumenter.hierarchyMatcher();
+      // when lazy the hierarchy matcher is only built once the hint class has been seen
+      this.typeMatcher =
+          lazy
+              ? new LazyMatcher<>(instrumenter::hierarchyMatcher)
+              : instrumenter.hierarchyMatcher();
     }
 
     @Override
@@ -0,0 +1,30 @@
+package datadog.trace.agent.tooling
+
+import datadog.trace.test.util.DDSpecification
+import net.bytebuddy.matcher.ElementMatcher
+import net.bytebuddy.matcher.ElementMatchers
+
+import java.util.function.Supplier
+
+class LazyMatcherTest extends DDSpecification {
+
+  def "matcher is only built when first used"() {
+    setup:
+    def supplier = Mock(Supplier)
+    def lazyMatcher = new LazyMatcher<String>(supplier)
+
+    expect:
+    !lazyMatcher.isActivated()
+
+    when:
+    def firstMatch = lazyMatcher.matches("foo")
+    def secondMatch = lazyMatcher.matches("bar")
+
+    then:
+    1 * supplier.get() >> (ElementMatchers.is("foo") as ElementMatcher)
+    0 * _
+    firstMatch
+    !secondMatch
+    lazyMatcher.isActivated()
+  }
+}
@@ -0,0 +1,77 @@
+package datadog.trace.agent.tooling.bytebuddy
+
+import datadog.trace.bootstrap.CallDepthThreadLocalMap
+import datadog.trace.test.util.DDSpecification
+import net.bytebuddy.ByteBuddy
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy
+import net.bytebuddy.jar.asm.ClassReader
+import net.bytebuddy.jar.asm.ClassVisitor
+import net.bytebuddy.jar.asm.MethodVisitor
+import net.bytebuddy.jar.asm.Opcodes
+
+class CallDepthRewritingVisitorTest extends DDSpecification {
+
+  def "class-literal keys are rewritten to use their id"() {
+    when:
+    def calls = callDepthCalls(rewrite().bytes)
+
+    then:
+    calls['enterWithLiteral'] == ['incrementCallDepth(I)I']
+    calls['exitWithLiteral'] == ['reset(I)V']
+  }
+
+  def "non-literal keys are left as-is"() {
+    when:
+    def calls = callDepthCalls(rewrite().bytes)
+
+    then:
+    calls['enterWithArgument'] == ['incrementCallDepth(Ljava/lang/Class;)I']
+  }
+
+  def "rewritten calls keep the same call-depth semantics"() {
+    setup:
+    // child-first, so the rewritten copy is loaded instead of the original class
+    def rewritten = rewrite().load(CallDepthKeys.classLoader, ClassLoadingStrategy.Default.CHILD_FIRST).loaded
+
+    expect:
+    rewritten != CallDepthKeys
+    rewritten.enterWithLiteral() == 0
+    rewritten.enterWithLiteral() == 1
+    rewritten.enterWithArgument(rewritten) == 2
+    // ids are assigned by class name, so same-named keys from different loaders share depth
+    CallDepthThreadLocalMap.getCallDepth(CallDepthKeys) == 3
+
+    when:
+    rewritten.exitWithLiteral()
+
+    then:
+    CallDepthThreadLocalMap.getCallDepth(CallDepthKeys) == 0
+    CallDepthThreadLocalMap.getCallDepth(rewritten) == 0
+  }
+
+  def rewrite() {
+    return new ByteBuddy()
+      .redefine(CallDepthKeys)
+      .visit(CallDepthRewritingVisitor.INSTANCE)
+      .make()
+  }
+
+  /** Collects calls to CallDepthThreadLocalMap, grouped by calling method. */
+  static Map<String, List<String>> callDepthCalls(byte[] bytes) {
+    Map<String, List<String>> calls = [:]
+    new ClassReader(bytes).accept(new ClassVisitor(Opcodes.ASM7) {
+        @Override
+        MethodVisitor visitMethod(int access, String method, String descriptor, String signature, String[] exceptions) {
+          return new MethodVisitor(Opcodes.ASM7) {
+              @Override
+              void visitMethodInsn(int opcode, String owner, String name, String desc, boolean isInterface) {
+                if (owner == 'datadog/trace/bootstrap/CallDepthThreadLocalMap') {
+                  calls.computeIfAbsent(method, { [] }).add(name + desc)
+                }
+              }
+            }
+        }
+      }, 0)
+    return calls
+  }
+}
@@ -0,0 +1,17 @@
+package datadog.trace.agent.tooling.bytebuddy;
+
+import datadog.trace.bootstrap.CallDepthThreadLocalMap;
+
+public class CallDepthKeys {
+  public static int enterWithLiteral() {
+    return CallDepthThreadLocalMap.incrementCallDepth(CallDepthKeys.class);
+  }
+
+  public static void exitWithLiteral() {
+    CallDepthThreadLocalMap.reset(CallDepthKeys.class);
+  }
+
+  public static int enterWithArgument(Class<?> key) {
+    return CallDepthThreadLocalMap.incrementCallDepth(key);
+  }
+}
@@ -1,7 +1,14 @@
 package datadog.trace.bootstrap.debugger;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /** Stores information of a stacktrace's frame */
 public class CapturedStackFrame {
+  private static final int MAX_INTERNED_FRAMES = 4096;
+  private static final ConcurrentMap<StackTraceElement, CapturedStackFrame> INTERNED_FRAMES =
+      new ConcurrentHashMap<>();
+
   private final String fileName;
   private final String function;
   private final int lineNumber;
@@ -21,6 +28,26 @@ public class CapturedStackFrame {
         element.getFileName(), getFunction(element), element.getLineNumber());
   }
 
+  /**
+   * Same as {@link #from(StackTraceElement)}, but returns a shared instance for a frame already
+   * captured, as snapshots of the same probe mostly capture the same (class, method, line) frames
+   */
+  public static CapturedStackFrame intern(StackTraceElement element) {
+    CapturedStackFrame frame = INTERNED_FRAMES.get(element);
+    if (frame == null) {
+      frame = from(element);
+      if (INTERNED_FRAMES.size() >= MAX_INTERNED_FRAMES) {
+        // start over rather than tracking usage, frames still in use get interned again
+        INTERNED_FRAMES.clear();
+      }
+      CapturedStackFrame previous = INTERNED_FRAMES.putIfAbsent(element, frame);
+      if (previous != null) {
+        frame = previous;
+      }
+    }
+    return frame;
+  }
+
   private static String getFunction(StackTraceElement element) {
     return element.getClassName() + "." + element.getMethodName();
   }
@@ -15,7 +15,8 @@ public class DebuggerContext {
 
   public enum SkipCause {
     RATE,
-    CONDITION
+    CONDITION,
+    BUDGET
   }
 
   public interface Sink {
@@ -89,6 +90,24 @@ public class DebuggerContext {
     localSink.skipSnapshot(probeId, cause);
   }
 
+  /**
+   * Checks the time budget then the rate limit of the probe, notifying the sink of the snapshot
+   * skipped if one of them is exceeded
+   *
+   * @return true if the probe can proceed
+   */
+  static boolean tryProbe(String probeId) {
+    if (!ProbeRateLimiter.tryBudget(probeId)) {
+      skipSnapshot(probeId, SkipCause.BUDGET);
+      return false;
+    }
+    if (!ProbeRateLimiter.tryProbe(probeId)) {
+      skipSnapshot(probeId, SkipCause.RATE);
+      return false;
+    }
+    return true;
+  }
+
   /** Adds a snapshot to the underlying sink No-op if no implementation available */
   public static void addSnapshot(Snapshot snapshot) {
     Sink localSink = sink;
@@ -200,7 +219,11 @@ public class DebuggerContext {
     }
     boolean result = false;
     for (String probeId : probeIds) {
-      // if all probes are rate limited, we don't capture
+      if (!ProbeRateLimiter.tryBudget(probeId)) {
+        skipSnapshot(probeId, SkipCause.BUDGET);
+        continue;
+      }
+      // if all probes are rate limited or over budget, we don't capture
       result |= ProbeRateLimiter.tryProbe(probeId);
     }
     return result;
@@ -221,8 +244,13 @@ public class DebuggerContext {
       if (probeDetails == null) {
         continue;
       }
+      boolean timed = ProbeRateLimiter.hasTimeBudget();
+      long startTs = timed ? System.nanoTime() : 0;
       context.evaluate(
           probeId, probeDetails, callingClass.getTypeName(), startTimestamp, methodLocation);
+      if (timed) {
+        ProbeRateLimiter.recordCost(probeId, System.nanoTime() - startTs);
+      }
     }
   }
 
@@ -237,12 +265,17 @@ public class DebuggerContext {
       if (probeDetails == null) {
         continue;
       }
+      boolean timed = ProbeRateLimiter.hasTimeBudget();
+      long startTs = timed ? System.nanoTime() : 0;
       context.evaluate(
           probeId, probeDetails, callingClass.getTypeName(), -1, Snapshot.MethodLocation.DEFAULT);
       Snapshot snapshot = prepareForCommit(context, line, probeDetails);
       if (snapshot != null) {
         snapshot.commit();
       }
+      if (timed) {
+        ProbeRateLimiter.recordCost(probeId, System.nanoTime() - startTs);
+      }
     }
   }
 
@@ -278,8 +311,7 @@ public class DebuggerContext {
       if (entryStatus.shouldSend() && exitStatus.shouldSend()) {
         // only rate limit if a condition is defined
         if (probeDetails.getScript() != null) {
-          if (!ProbeRateLimiter.tryProbe(probeId)) {
-            DebuggerContext.skipSnapshot(probeId, DebuggerContext.SkipCause.RATE);
+          if (!tryProbe(probeId)) {
             continue;
           }
         }
@@ -300,7 +332,13 @@ public class DebuggerContext {
         shouldCommit = true;
       }
       if (shouldCommit) {
-        snapshot.commit();
+        if (ProbeRateLimiter.hasTimeBudget()) {
+          long startTs = System.nanoTime();
+          snapshot.commit();
+          ProbeRateLimiter.recordCost(probeId, System.nanoTime() - startTs);
+        } else {
+          snapshot.commit();
+        }
       } else {
         DebuggerContext.skipSnapshot(probeId, DebuggerContext.SkipCause.CONDITION);
       }
@@ -319,8 +357,7 @@ public class DebuggerContext {
     if (status.shouldSend()) {
       // only rate limit if a condition is defined
       if (probeDetails.getScript() != null) {
-        if (!ProbeRateLimiter.tryProbe(probeDetails.getId())) {
-          DebuggerContext.skipSnapshot(probeDetails.getId(), DebuggerContext.SkipCause.RATE);
+        if (!tryProbe(probeDetails.getId())) {
           return null;
         }
       }
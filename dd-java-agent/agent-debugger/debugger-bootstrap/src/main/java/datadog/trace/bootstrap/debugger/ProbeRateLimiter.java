@@ -1,21 +1,60 @@
 package datadog.trace.bootstrap.debugger;
 
 import datadog.trace.api.sampling.AdaptiveSampler;
+import datadog.trace.api.time.SystemTimeSource;
+import datadog.trace.api.time.TimeSource;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
-/** Rate limiter for sending snapshot to backend Use a global rate limiter and one per probe */
+/**
+ * Rate limiter for sending snapshot to backend Use a global rate limiter and one per probe
+ *
+ * <p>On top of the rate limits, the time spent by probes capturing and evaluating can be accounted
+ * against a global time budget per second. This is wall-clock time, as reading the thread cpu time
+ * costs more than most probes, and it is disabled by default. Once the budget is spent, probes are
+ * skipped before any capture happens until the next second. Once half of the budget is spent,
+ * probes which already spent more than their fair share of it are skipped as well, which lowers the
+ * effective sampling rate of expensive probes while cheap probes keep being sampled.
+ */
 public final class ProbeRateLimiter {
   private static final Duration ONE_SECOND_WINDOW = Duration.of(1, ChronoUnit.SECONDS);
   private static final Duration TEN_SECONDS_WINDOW = Duration.of(10, ChronoUnit.SECONDS);
   private static final double DEFAULT_RATE = 1.0;
   private static final double DEFAULT_GLOBAL_RATE = DEFAULT_RATE * 100;
+  private static final long DEFAULT_TIME_BUDGET = 0;
+  private static final long BUDGET_WINDOW = TimeUnit.SECONDS.toNanos(1);
   private static final ConcurrentMap<String, AdaptiveSampler> PROBE_SAMPLERS =
       new ConcurrentHashMap<>();
+  private static final ConcurrentMap<String, ProbeCost> PROBE_COSTS = new ConcurrentHashMap<>();
+  private static final BudgetWindow GLOBAL_BUDGET_WINDOW = new BudgetWindow();
 
   private static AdaptiveSampler GLOBAL_SAMPLER = createSampler(DEFAULT_GLOBAL_RATE);
+  private static volatile long timeBudget = DEFAULT_TIME_BUDGET;
+  private static volatile TimeSource timeSource = SystemTimeSource.INSTANCE;
+
+  public interface CostReporter {
+    void report(String probeId, long costNanos);
+  }
+
+  /** @return false if the time budget is spent and the probe must be skipped */
+  public static boolean tryBudget(String probeId) {
+    long budget = timeBudget;
+    if (budget <= 0) {
+      return true;
+    }
+    return withinBudget(budget, probeCost(probeId));
+  }
+
+  /** @return true if time spent by probes must be measured and passed to {@link #recordCost} */
+  public static boolean hasTimeBudget() {
+    return timeBudget > 0;
+  }
 
   public static boolean tryProbe(String probeId) {
     // rate limiter engaged at ~1 probe per second (1 probes per 1s time window)
@@ -25,6 +64,28 @@ public final class ProbeRateLimiter {
     return result;
   }
 
+  /** Accounts time spent by the probe capturing and evaluating against the time budget */
+  public static void recordCost(String probeId, long costNanos) {
+    if (timeBudget <= 0) {
+      return;
+    }
+    ProbeCost probeCost = probeCost(probeId);
+    long window = timeSource.getNanoTicks() / BUDGET_WINDOW;
+    GLOBAL_BUDGET_WINDOW.add(window, costNanos);
+    probeCost.window.add(window, costNanos);
+    probeCost.cost.add(costNanos);
+  }
+
+  /** Reports, then resets, the cost accumulated by each probe since the last report */
+  public static void reportCosts(CostReporter reporter) {
+    for (Map.Entry<String, ProbeCost> entry : PROBE_COSTS.entrySet()) {
+      long cost = entry.getValue().cost.sumThenReset();
+      if (cost != 0) {
+        reporter.report(entry.getKey(), cost);
+      }
+    }
+  }
+
   public static void setRate(String probeId, double rate) {
     PROBE_SAMPLERS.put(probeId, createSampler(rate));
   }
@@ -33,14 +94,55 @@ public final class ProbeRateLimiter {
     GLOBAL_SAMPLER = createSampler(rate);
   }
 
+  /** @param budget time, in nanoseconds per second, probes may spend, 0 means unlimited */
+  public static void setTimeBudget(long budget) {
+    timeBudget = budget;
+    GLOBAL_BUDGET_WINDOW.reset();
+  }
+
+  /** Replaces the source of the budget windows, for testing */
+  public static void setTimeSource(TimeSource source) {
+    timeSource = source;
+  }
+
   public static void resetRate(String probeId) {
     PROBE_SAMPLERS.remove(probeId);
+    PROBE_COSTS.remove(probeId);
   }
 
   public static void resetGlobalRate() {
     setGlobalRate(DEFAULT_GLOBAL_RATE);
   }
 
+  public static void resetTimeBudget() {
+    setTimeBudget(DEFAULT_TIME_BUDGET);
+  }
+
+  public static void resetTimeSource() {
+    setTimeSource(SystemTimeSource.INSTANCE);
+  }
+
+  private static ProbeCost probeCost(String probeId) {
+    ProbeCost probeCost = PROBE_COSTS.get(probeId);
+    if (probeCost == null) {
+      probeCost = PROBE_COSTS.computeIfAbsent(probeId, k -> new ProbeCost());
+    }
+    return probeCost;
+  }
+
+  private static boolean withinBudget(long budget, ProbeCost probeCost) {
+    long window = timeSource.getNanoTicks() / BUDGET_WINDOW;
+    long spent = GLOBAL_BUDGET_WINDOW.spent(window);
+    if (spent < budget / 2) {
+      return true;
+    }
+    if (spent >= budget) {
+      return false;
+    }
+    long fairShare = budget / Math.max(1, PROBE_COSTS.size());
+    return probeCost.window.spent(window) < fairShare;
+  }
+
   private static AdaptiveSampler createSampler(double rate) {
     if (rate < 1) {
       int intRate = (int) Math.round(rate * 10);
@@ -48,4 +150,37 @@ public final class ProbeRateLimiter {
     }
     return new AdaptiveSampler(ONE_SECOND_WINDOW, (int) Math.round(rate), 180, 16);
   }
+
+  private static final class ProbeCost {
+    final BudgetWindow window = new BudgetWindow();
+    // accumulated between two reports
+    final LongAdder cost = new LongAdder();
+  }
+
+  /** Time spent during the current budget window, reset when a new window starts */
+  private static final class BudgetWindow {
+    private final AtomicLong current = new AtomicLong();
+    private final AtomicLong spent = new AtomicLong();
+
+    long spent(long window) {
+      roll(window);
+      return spent.get();
+    }
+
+    void add(long window, long costNanos) {
+      roll(window);
+      spent.addAndGet(costNanos);
+    }
+
+    void reset() {
+      spent.set(0);
+    }
+
+    private void roll(long window) {
+      long previous = current.get();
+      if (previous != window && current.compareAndSet(previous, window)) {
+        spent.set(0);
+      }
+    }
+  }
 }
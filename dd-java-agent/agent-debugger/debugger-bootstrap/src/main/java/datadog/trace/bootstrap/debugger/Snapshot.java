@@ -5,6 +5,7 @@ import datadog.trace.bootstrap.debugger.el.ReflectiveFieldValueResolver;
 import datadog.trace.bootstrap.debugger.el.ValueReferenceResolver;
 import datadog.trace.bootstrap.debugger.el.ValueReferences;
 import datadog.trace.bootstrap.debugger.el.Values;
+import datadog.trace.util.stacktrace.StackWalkerFactory;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -21,6 +22,7 @@ public class Snapshot {
   private static final Logger LOG = LoggerFactory.getLogger(Snapshot.class);
   private static final String LANGUAGE = "java";
   private static final int VERSION = 2;
+  private static final int MAX_STACK_DEPTH = 128;
 
   private String id;
   private final transient int version;
@@ -185,27 +187,22 @@ public class Snapshot {
   }
 
   public void commit() {
-    /*
-     * Record stack trace having the caller of this method as 'top' frame.
-     * For this it is necessary to discard:
-     * - Thread.currentThread().getStackTrace()
-     * - Snapshot.recordStackTrace()
-     * - Snapshot.commit()
-     * - DebuggerContext.commit() or DebuggerContext.evalAndCommit()
-     */
-    recordStackTrace(4);
+    recordStackTrace();
     DebuggerContext.addSnapshot(this);
   }
 
-  private void recordStackTrace(int offset) {
+  private void recordStackTrace() {
     stack.clear();
-    int cntr = 0;
-    for (StackTraceElement ste : Thread.currentThread().getStackTrace()) {
-      if (cntr++ < offset) {
-        continue;
-      }
-      stack.add(CapturedStackFrame.from(ste));
-    }
+    /*
+     * Record stack trace having the instrumented method as 'top' frame. The stack walker skips the
+     * leading frames of the debugger itself (Snapshot.commit(), DebuggerContext.commit() or
+     * DebuggerContext.evalContextAndCommit()) and only materializes frames up to the depth limit.
+     */
+    StackWalkerFactory.INSTANCE.walkFromFirstNonAgentFrame(
+        frames -> {
+          frames.limit(MAX_STACK_DEPTH).map(CapturedStackFrame::intern).forEach(stack::add);
+          return null;
+        });
     summaryBuilder.addStack(stack);
     for (ProbeDetails additionalProbe : this.probe.additionalProbes) {
       additionalProbe.summaryBuilder.addStack(stack);
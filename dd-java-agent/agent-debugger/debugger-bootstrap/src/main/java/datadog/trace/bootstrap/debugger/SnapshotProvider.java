@@ -18,8 +18,7 @@ public final class SnapshotProvider {
     }
     // only rate limit if no condition are defined
     if (probeDetails.getScript() == null && probeDetails.isSnapshotProbe()) {
-      if (!ProbeRateLimiter.tryProbe(probeDetails.getId())) {
-        DebuggerContext.skipSnapshot(probeDetails.getId(), DebuggerContext.SkipCause.RATE);
+      if (!DebuggerContext.tryProbe(probeDetails.getId())) {
         return null;
       }
     }
@@ -1,12 +1,22 @@
 package datadog.trace.bootstrap.debugger.el;
 
+import datadog.trace.api.GenericClassValue;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
-/** A helper class to resolve a reference path using reflection. */
+/**
+ * A helper class to resolve a reference path using reflection. Field lookups, including the ones
+ * that fail, are cached per class since the same members are resolved on every probe hit.
+ */
 public final class ReflectiveFieldValueResolver {
+  private static final ClassValue<Map<String, Optional<Field>>> FIELDS =
+      GenericClassValue.of(type -> new ConcurrentHashMap<>());
+
   public static Object resolve(Object target, Class<?> targetType, String fldName) {
-    Field fld = getField(targetType, fldName);
+    Field fld = getCachedField(targetType, fldName);
     if (fld == null) {
       return Values.UNDEFINED_OBJECT;
     }
@@ -17,6 +27,16 @@ public final class ReflectiveFieldValueResolver {
     }
   }
 
+  private static Field getCachedField(Class<?> container, String name) {
+    Map<String, Optional<Field>> fields = FIELDS.get(container);
+    Optional<Field> fld = fields.get(name);
+    if (fld == null) {
+      fld = Optional.ofNullable(getField(container, name));
+      fields.put(name, fld);
+    }
+    return fld.orElse(null);
+  }
+
   private static Field getField(Class<?> container, String name) {
     while (container != null) {
       try {
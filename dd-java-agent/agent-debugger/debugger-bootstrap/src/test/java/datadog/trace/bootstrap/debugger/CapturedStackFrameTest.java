@@ -0,0 +1,71 @@
+package datadog.trace.bootstrap.debugger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import datadog.trace.bootstrap.debugger.Snapshot.ProbeDetails;
+import datadog.trace.bootstrap.debugger.Snapshot.ProbeLocation;
+import java.util.Collections;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class CapturedStackFrameTest {
+  private static final ProbeLocation PROBE_LOCATION =
+      new ProbeLocation("com.datadog.debugger.SomeClass", "someMethod", null, null);
+
+  @BeforeAll
+  public static void staticSetup() {
+    DebuggerContext.initSnapshotSerializer(null);
+  }
+
+  @Test
+  public void internSharesFrames() {
+    StackTraceElement element =
+        new StackTraceElement("com.datadog.debugger.SomeClass", "someMethod", "SomeClass.java", 42);
+    CapturedStackFrame frame =
+        CapturedStackFrame.intern(
+            new StackTraceElement(
+                "com.datadog.debugger.SomeClass", "someMethod", "SomeClass.java", 42));
+    assertEquals(CapturedStackFrame.from(element), frame);
+    assertSame(frame, CapturedStackFrame.intern(element));
+    assertEquals("com.datadog.debugger.SomeClass.someMethod", frame.getFunction());
+  }
+
+  @Test
+  public void commitSkipsDebuggerFrames() {
+    Snapshot snapshot = newSnapshot();
+    snapshot.commit();
+    assertFalse(snapshot.getStack().isEmpty());
+    for (CapturedStackFrame frame : snapshot.getStack()) {
+      assertFalse(frame.getFunction().startsWith("datadog.trace."), frame.getFunction());
+    }
+  }
+
+  @Test
+  public void commitLimitsStackDepth() {
+    Snapshot snapshot = newSnapshot();
+    recurse(500, snapshot);
+    assertTrue(snapshot.getStack().size() <= 128, "depth: " + snapshot.getStack().size());
+    // frames of the same location captured again are shared
+    Snapshot other = newSnapshot();
+    recurse(500, other);
+    assertSame(snapshot.getStack().get(0), other.getStack().get(0));
+  }
+
+  private static Snapshot newSnapshot() {
+    return new Snapshot(
+        Thread.currentThread(), new ProbeDetails(UUID.randomUUID().toString(), PROBE_LOCATION));
+  }
+
+  // goes through a jdk method at each level, frames of this class are filtered out from the stack
+  private static void recurse(int depth, Snapshot snapshot) {
+    if (depth == 0) {
+      snapshot.commit();
+      return;
+    }
+    Collections.singletonList(depth - 1).forEach(d -> recurse(d, snapshot));
+  }
+}
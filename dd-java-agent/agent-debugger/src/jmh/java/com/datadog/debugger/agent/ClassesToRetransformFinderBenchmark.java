@@ -0,0 +1,91 @@
+package com.datadog.debugger.agent;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.datadog.debugger.probe.LogProbe;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Finds the classes to re-transform for 500 new probes among 10k loaded classes. */
+@State(Scope.Benchmark)
+@Warmup(iterations = 1, time = 1000, timeUnit = MILLISECONDS)
+@Measurement(iterations = 3, time = 1000, timeUnit = MILLISECONDS)
+@Fork(3)
+@OutputTimeUnit(MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class ClassesToRetransformFinderBenchmark {
+
+  private static final int LOADED_CLASSES = 10_000;
+  private static final int PROBES = 500;
+
+  Class<?>[] allLoadedClasses;
+  ClassesToRetransformFinder finder;
+  ConfigurationComparer comparer;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    GeneratedClassLoader classLoader = new GeneratedClassLoader();
+    allLoadedClasses = new Class<?>[LOADED_CLASSES];
+    for (int i = 0; i < LOADED_CLASSES; i++) {
+      allLoadedClasses[i] =
+          classLoader.define("com.datadog.debugger.benchmark.p" + (i % 100) + ".Generated" + i);
+    }
+    finder = new ClassesToRetransformFinder();
+    finder.indexLoadedClasses(() -> allLoadedClasses);
+    List<LogProbe> probes = new ArrayList<>();
+    for (int i = 0; i < PROBES; i++) {
+      String typeName = allLoadedClasses[i * (LOADED_CLASSES / PROBES)].getName();
+      probes.add(LogProbe.builder().probeId("probe-" + i).where(typeName, "process").build());
+    }
+    comparer =
+        new ConfigurationComparer(
+            new Configuration("service", Collections.emptyList()),
+            new Configuration("service", probes),
+            Collections.emptyMap());
+  }
+
+  @Benchmark
+  public List<Class<?>> scanAllLoadedClasses() {
+    return finder.getAllLoadedChangedClasses(allLoadedClasses, comparer);
+  }
+
+  @Benchmark
+  public List<Class<?>> lookupIndexedClasses() {
+    return finder.getLoadedChangedClasses(comparer, () -> allLoadedClasses);
+  }
+
+  private static class GeneratedClassLoader extends ClassLoader {
+    GeneratedClassLoader() {
+      super(GeneratedClassLoader.class.getClassLoader());
+    }
+
+    Class<?> define(String className) {
+      ClassWriter writer = new ClassWriter(0);
+      writer.visit(
+          Opcodes.V1_8,
+          Opcodes.ACC_PUBLIC,
+          className.replace('.', '/'),
+          null,
+          "java/lang/Object",
+          null);
+      writer.visitEnd();
+      byte[] bytes = writer.toByteArray();
+      return defineClass(className, bytes, 0, bytes.length);
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package com.datadog.debugger.agent;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.datadog.debugger.el.ValueScript;
+import com.datadog.debugger.probe.LogProbe;
+import datadog.trace.bootstrap.debugger.Snapshot;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Renders typical log probe messages, either compiling the template on each hit or rendering the
+ * template compiled when the probe was installed.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 1, time = 1000, timeUnit = MILLISECONDS)
+@Measurement(iterations = 3, time = 1000, timeUnit = MILLISECONDS)
+@Fork(3)
+@OutputTimeUnit(NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class LogMessageTemplateBenchmark {
+
+  static class Order {
+    private final long id = 1234L;
+    private final double amount = 42.5;
+  }
+
+  @Param({
+    "Request processed",
+    "user={user} id={id} status={status}",
+    "Processing order {order.id} for {user}: total={order.amount}"
+  })
+  String template;
+
+  LogProbe probe;
+  LogMessageTemplate compiledTemplate;
+  Snapshot.CapturedContext context;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    probe = LogProbe.builder().template(template, parseTemplate(template)).build();
+    compiledTemplate = LogMessageTemplate.compile(probe.getSegments());
+    context = new Snapshot.CapturedContext();
+    context.addArguments(
+        new Snapshot.CapturedValue[] {
+          Snapshot.CapturedValue.of("user", String.class.getTypeName(), "john.doe"),
+          Snapshot.CapturedValue.of("id", long.class.getTypeName(), 1234L),
+          Snapshot.CapturedValue.of("status", int.class.getTypeName(), 200),
+          Snapshot.CapturedValue.of("order", Order.class.getTypeName(), new Order())
+        });
+  }
+
+  @Benchmark
+  public String compileOnHit() {
+    LogMessageTemplateSummaryBuilder summaryBuilder = new LogMessageTemplateSummaryBuilder(probe);
+    summaryBuilder.addEntry(context);
+    return summaryBuilder.build();
+  }
+
+  @Benchmark
+  public String compiled() {
+    LogMessageTemplateSummaryBuilder summaryBuilder =
+        new LogMessageTemplateSummaryBuilder(compiledTemplate);
+    summaryBuilder.addEntry(context);
+    return summaryBuilder.build();
+  }
+
+  // templates used here have no escaped braces
+  private static List<LogProbe.Segment> parseTemplate(String template) {
+    List<LogProbe.Segment> segments = new ArrayList<>();
+    int currentIdx = 0;
+    int startIdx;
+    while ((startIdx = template.indexOf('{', currentIdx)) != -1) {
+      int endIdx = template.indexOf('}', startIdx);
+      if (startIdx > currentIdx) {
+        segments.add(new LogProbe.Segment(template.substring(currentIdx, startIdx)));
+      }
+      String expr = template.substring(startIdx + 1, endIdx);
+      segments.add(new LogProbe.Segment(new ValueScript(ValueScript.parseRefPath(expr), expr)));
+      currentIdx = endIdx + 1;
+    }
+    if (currentIdx < template.length()) {
+      segments.add(new LogProbe.Segment(template.substring(currentIdx)));
+    }
+    return segments;
+  }
+}
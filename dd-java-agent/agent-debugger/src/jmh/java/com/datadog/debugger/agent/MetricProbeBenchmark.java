@@ -0,0 +1,73 @@
+package com.datadog.debugger.agent;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import datadog.communication.monitor.DDAgentStatsDClientManager;
+import datadog.trace.api.StatsDClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of a metric probe hit, sending each sample to DogStatsD or accumulating it in process to be
+ * flushed later. Tags are allocated on each hit, as the instrumented code does.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 1, time = 1000, timeUnit = MILLISECONDS)
+@Measurement(iterations = 3, time = 1000, timeUnit = MILLISECONDS)
+@Fork(3)
+@Threads(4)
+@OutputTimeUnit(NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class MetricProbeBenchmark {
+  private static final String PROBE_ID = "beae1807-f3b0-4ea8-a74f-826790c5e6f8";
+
+  private StatsDClient statsd;
+  private MetricProbeAggregator aggregator;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    // nothing listens, samples are sent and lost
+    statsd =
+        DDAgentStatsDClientManager.statsDClientManager()
+            .statsDClient("localhost", 8125, null, "benchmark", new String[0]);
+    aggregator = new MetricProbeAggregator();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    aggregator.flush(statsd);
+    statsd.close();
+  }
+
+  @Benchmark
+  public void statsdCount() {
+    statsd.count("count", 1, new String[] {"probe_id:" + PROBE_ID});
+  }
+
+  @Benchmark
+  public void aggregatedCount() {
+    aggregator.count("count", 1, new String[] {"probe_id:" + PROBE_ID});
+  }
+
+  @Benchmark
+  public void statsdGauge() {
+    statsd.gauge("gauge", 42, new String[] {"probe_id:" + PROBE_ID});
+  }
+
+  @Benchmark
+  public void aggregatedGauge() {
+    aggregator.gauge("gauge", 42, new String[] {"probe_id:" + PROBE_ID});
+  }
+}
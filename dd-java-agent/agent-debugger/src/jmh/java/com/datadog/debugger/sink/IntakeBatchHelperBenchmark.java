@@ -0,0 +1,55 @@
+package com.datadog.debugger.sink;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Batches serialized snapshots for upload, reported as snapshots per second. */
+@State(Scope.Benchmark)
+@Warmup(iterations = 1, time = 1000, timeUnit = MILLISECONDS)
+@Measurement(iterations = 3, time = 1000, timeUnit = MILLISECONDS)
+@Fork(3)
+@OutputTimeUnit(SECONDS)
+@BenchmarkMode(Mode.Throughput)
+public class IntakeBatchHelperBenchmark {
+
+  private static final int SNAPSHOTS = 100;
+
+  @Param({"1024", "65536"})
+  int snapshotSize;
+
+  List<String> payloads;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    char[] chars = new char[snapshotSize - 10];
+    Arrays.fill(chars, 'a');
+    String payload = "{\"msg\":\"" + new String(chars) + "\"}";
+    payloads = new ArrayList<>(SNAPSHOTS);
+    for (int i = 0; i < SNAPSHOTS; i++) {
+      payloads.add(payload);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SNAPSHOTS)
+  public List<byte[]> createBatches() {
+    return IntakeBatchHelper.createBatches(payloads);
+  }
+}
@@ -0,0 +1,62 @@
+package com.datadog.debugger.util;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import datadog.trace.bootstrap.debugger.Limits;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Serializes a captured domain object with nested references 3 levels deep. */
+@State(Scope.Benchmark)
+@Warmup(iterations = 1, time = 1000, timeUnit = MILLISECONDS)
+@Measurement(iterations = 3, time = 1000, timeUnit = MILLISECONDS)
+@Fork(3)
+@OutputTimeUnit(NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class SerializerWithLimitsBenchmark {
+
+  static class Entity {
+    private final long id = 1234L;
+    private final long version = 3L;
+  }
+
+  static class Address extends Entity {
+    private final String street = "1 Main St";
+    private final String city = "Springfield";
+    private final int zipCode = 12345;
+  }
+
+  static class Customer extends Entity {
+    private final String name = "John Doe";
+    private final boolean active = true;
+    private final Address address = new Address();
+  }
+
+  static class Order extends Entity {
+    private final double amount = 42.5;
+    private final Customer customer = new Customer();
+    private final List<String> items = new ArrayList<>(Arrays.asList("foo", "bar"));
+  }
+
+  final Order order = new Order();
+
+  @Benchmark
+  public String serializeNested() throws Exception {
+    StringBuilder sb = new StringBuilder();
+    SerializerWithLimits serializer =
+        new SerializerWithLimits(new StringTokenWriter(sb, new ArrayList<>()));
+    serializer.serialize(order, Order.class.getTypeName(), Limits.DEFAULT); // reference depth of 3
+    return sb.toString();
+  }
+}
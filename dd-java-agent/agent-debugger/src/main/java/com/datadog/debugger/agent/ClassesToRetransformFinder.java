@@ -2,16 +2,30 @@ package com.datadog.debugger.agent;
 
 import static com.datadog.debugger.agent.Trie.reverseStr;
 import static com.datadog.debugger.agent.TypeNameHelper.extractSimpleName;
+import static com.datadog.debugger.agent.TypeNameHelper.extractSimpleNameFromName;
 import static com.datadog.debugger.util.ClassFileHelper.normalizeFilePath;
 import static com.datadog.debugger.util.ClassFileHelper.removeExtension;
 import static com.datadog.debugger.util.ClassFileHelper.stripPackagePath;
 
 import com.datadog.debugger.instrumentation.InstrumentationResult;
 import com.datadog.debugger.probe.ProbeDefinition;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.slf4j.Logger;
@@ -22,6 +36,14 @@ public class ClassesToRetransformFinder {
 
   private final ConcurrentMap<String, List<String>> classNamesBySourceFile =
       new ConcurrentHashMap<>();
+  // loaded classes indexed by their name without package and by their simple name
+  private final ConcurrentMap<String, LoadedClass[]> loadedClassesByName =
+      new ConcurrentHashMap<>();
+  // loaders of indexed classes once collected, their classes are removed from the index
+  private final ReferenceQueue<ClassLoader> collectedLoaders = new ReferenceQueue<>();
+  private final AtomicLong loadedClassesSequence = new AtomicLong();
+  // loaded classes are only tracked while probes are defined
+  private volatile boolean loadedClassesIndexed;
 
   public void register(String sourceFile, String className) {
     // store only the class name that are different from SourceFile name
@@ -37,6 +59,81 @@ public class ClassesToRetransformFinder {
         });
   }
 
+  /**
+   * Adds a loaded class to the index used by {@link #getLoadedChangedClasses}, ignored until the
+   * index is built by {@link #indexLoadedClasses}
+   *
+   * @param className class name with '.' as separator
+   * @param loader defining class loader, null for the bootstrap class loader
+   */
+  public void registerLoadedClass(String className, ClassLoader loader) {
+    if (!loadedClassesIndexed) {
+      return;
+    }
+    pruneCollectedLoaders();
+    addLoadedClass(newLoadedClass(className, null, loader));
+  }
+
+  /**
+   * Indexes the classes already loaded, then tracks classes as they are loaded until {@link
+   * #clearLoadedClasses} is called
+   */
+  public void indexLoadedClasses(Supplier<Class<?>[]> allLoadedClasses) {
+    // set first so that classes loaded while indexing are not missed
+    loadedClassesIndexed = true;
+    for (Class<?> clazz : allLoadedClasses.get()) {
+      String className = clazz.getName();
+      // hidden classes cannot be looked up by name
+      if (clazz.isArray() || clazz.isPrimitive() || className.indexOf('/') != -1) {
+        continue;
+      }
+      addLoadedClass(newLoadedClass(className, clazz, clazz.getClassLoader()));
+    }
+  }
+
+  public boolean isLoadedClassesIndexed() {
+    return loadedClassesIndexed;
+  }
+
+  /** Stops tracking loaded classes and drops the index, built again by the next probe change */
+  public void clearLoadedClasses() {
+    loadedClassesIndexed = false;
+    loadedClassesByName.clear();
+    // references of dropped classes are still enqueued, there is nothing left to prune for them
+    while (collectedLoaders.poll() != null) {}
+  }
+
+  /**
+   * Looks up, through the index of loaded classes, the classes affected by the changes. The cost
+   * depends on the number of changed probes instead of the number of loaded classes.
+   *
+   * @param allLoadedClasses only called if an indexed class cannot be resolved by name from its
+   *     defining class loader
+   */
+  public List<Class<?>> getLoadedChangedClasses(
+      ConfigurationComparer comparer, Supplier<Class<?>[]> allLoadedClasses) {
+    pruneCollectedLoaders();
+    List<String> changedTypeNames = getChangedTypeNames(comparer);
+    Trie changedClasses = toTrie(changedTypeNames);
+    // sorted in loading order, as returned by getAllLoadedClasses
+    SortedMap<Long, Class<?>> classesToBeTransformed = new TreeMap<>();
+    Map<String, List<LoadedClass>> unresolvedClasses = new HashMap<>();
+    for (String typeName : changedTypeNames) {
+      // candidates matching on FQN, then on SimpleName, are filtered as for all loaded classes
+      String name = typeName.substring(typeName.lastIndexOf('.') + 1);
+      addLoadedClasses(name, changedClasses, classesToBeTransformed, unresolvedClasses);
+      if (!name.equals(typeName)) {
+        addLoadedClasses(typeName, changedClasses, classesToBeTransformed, unresolvedClasses);
+      }
+    }
+    if (!unresolvedClasses.isEmpty()) {
+      resolveFromLoadedClasses(
+          allLoadedClasses.get(), unresolvedClasses, changedClasses, classesToBeTransformed);
+    }
+    Set<Class<?>> uniqueClasses = new LinkedHashSet<>(classesToBeTransformed.values());
+    return new ArrayList<>(uniqueClasses);
+  }
+
   public List<Class<?>> getAllLoadedChangedClasses(
       Class<?>[] allLoadedClasses, ConfigurationComparer comparer) {
     List<Class<?>> classesToBeTransformed = new ArrayList<>();
@@ -54,11 +151,23 @@ public class ClassesToRetransformFinder {
   }
 
   Trie getAllChangedClasses(ConfigurationComparer comparer) {
+    return toTrie(getChangedTypeNames(comparer));
+  }
+
+  private static Trie toTrie(List<String> typeNames) {
+    Trie trie = new Trie();
+    for (String typeName : typeNames) {
+      trie.insert(reverseStr(typeName));
+    }
+    return trie;
+  }
+
+  private List<String> getChangedTypeNames(ConfigurationComparer comparer) {
     List<ProbeDefinition> changedDefinitions =
         Stream.concat(
                 comparer.getRemovedDefinitions().stream(), comparer.getAddedDefinitions().stream())
             .collect(Collectors.toList());
-    Trie changedClasses = new Trie();
+    List<String> changedClasses = new ArrayList<>();
     for (ProbeDefinition definition : changedDefinitions) {
       InstrumentationResult instrumentationResult =
           comparer.getInstrumentationResults().get(definition.getId());
@@ -81,16 +190,16 @@ public class ClassesToRetransformFinder {
           "instrumented class changed: {} for probe ids: {}",
           key,
           definition.getAllProbeIds().collect(Collectors.toList()));
-      changedClasses.insert(reverseStr(key));
+      changedClasses.add(key);
     }
     for (String typeName : comparer.getChangedBlockedTypes()) {
       LOGGER.debug("blocked class found: {}", typeName);
-      changedClasses.insert(reverseStr(typeName));
+      changedClasses.add(typeName);
     }
     return changedClasses;
   }
 
-  private void processAdditionalClasses(String sourceFile, Trie changedClasses) {
+  private void processAdditionalClasses(String sourceFile, List<String> changedClasses) {
     sourceFile = stripPackagePath(sourceFile);
     List<String> additionalClasses = classNamesBySourceFile.get(sourceFile);
     if (additionalClasses == null) {
@@ -98,7 +207,130 @@ public class ClassesToRetransformFinder {
     }
     for (String additionalClass : additionalClasses) {
       additionalClass = normalizeFilePath(additionalClass);
-      changedClasses.insert(reverseStr(additionalClass));
+      changedClasses.add(additionalClass);
+    }
+  }
+
+  private LoadedClass newLoadedClass(String className, Class<?> clazz, ClassLoader loader) {
+    return new LoadedClass(
+        className, clazz, loader, collectedLoaders, loadedClassesSequence.getAndIncrement());
+  }
+
+  private void addLoadedClass(LoadedClass loadedClass) {
+    String className = loadedClass.className;
+    String typeName = className.substring(className.lastIndexOf('.') + 1);
+    addLoadedClass(typeName, loadedClass);
+    String simpleName = extractSimpleNameFromName(className);
+    if (!simpleName.equals(typeName)) {
+      addLoadedClass(simpleName, loadedClass);
+    }
+  }
+
+  private void addLoadedClass(String name, LoadedClass loadedClass) {
+    loadedClassesByName.compute(
+        name,
+        (key, loadedClasses) -> {
+          if (loadedClasses == null) {
+            return new LoadedClass[] {loadedClass};
+          }
+          for (LoadedClass existing : loadedClasses) {
+            if (existing.is(loadedClass)) {
+              existing.setDefinedClass(loadedClass);
+              return loadedClasses;
+            }
+          }
+          LoadedClass[] newLoadedClasses = Arrays.copyOf(loadedClasses, loadedClasses.length + 1);
+          newLoadedClasses[loadedClasses.length] = loadedClass;
+          return newLoadedClasses;
+        });
+  }
+
+  private void removeLoadedClasses(String className, Predicate<LoadedClass> filter) {
+    String typeName = className.substring(className.lastIndexOf('.') + 1);
+    removeLoadedClasses(typeName, className, filter);
+    String simpleName = extractSimpleNameFromName(className);
+    if (!simpleName.equals(typeName)) {
+      removeLoadedClasses(simpleName, className, filter);
+    }
+  }
+
+  private void removeLoadedClasses(String name, String className, Predicate<LoadedClass> filter) {
+    loadedClassesByName.computeIfPresent(
+        name,
+        (key, current) -> {
+          LoadedClass[] kept =
+              Arrays.stream(current)
+                  .filter(
+                      loadedClass ->
+                          !loadedClass.className.equals(className) || !filter.test(loadedClass))
+                  .toArray(LoadedClass[]::new);
+          return kept.length > 0 ? kept : null;
+        });
+  }
+
+  private void pruneCollectedLoaders() {
+    Reference<? extends ClassLoader> collectedLoader;
+    while ((collectedLoader = collectedLoaders.poll()) != null) {
+      removeLoadedClasses(((LoaderReference) collectedLoader).className, LoadedClass::isUnloaded);
+    }
+  }
+
+  private void addLoadedClasses(
+      String name,
+      Trie changedClasses,
+      SortedMap<Long, Class<?>> classesToBeTransformed,
+      Map<String, List<LoadedClass>> unresolvedClasses) {
+    LoadedClass[] loadedClasses = loadedClassesByName.get(name);
+    if (loadedClasses == null) {
+      return;
+    }
+    for (LoadedClass loadedClass : loadedClasses) {
+      if (loadedClass.isUnloaded()) {
+        continue;
+      }
+      Class<?> clazz = loadedClass.resolve();
+      if (clazz != null) {
+        if (lookupClass(changedClasses, clazz)) {
+          classesToBeTransformed.put(loadedClass.sequence, clazz);
+        }
+      } else if (!loadedClass.isResolved()) {
+        unresolvedClasses
+            .computeIfAbsent(loadedClass.className, k -> new ArrayList<>())
+            .add(loadedClass);
+      }
+    }
+  }
+
+  /**
+   * Finds among all loaded classes the classes defined by a loader which resolves their name to
+   * another class. Classes still not found, like hidden classes, are removed from the index.
+   */
+  private void resolveFromLoadedClasses(
+      Class<?>[] allLoadedClasses,
+      Map<String, List<LoadedClass>> unresolvedClasses,
+      Trie changedClasses,
+      SortedMap<Long, Class<?>> classesToBeTransformed) {
+    for (Class<?> clazz : allLoadedClasses) {
+      List<LoadedClass> loadedClasses = unresolvedClasses.get(clazz.getName());
+      if (loadedClasses == null) {
+        continue;
+      }
+      for (LoadedClass loadedClass : loadedClasses) {
+        if (loadedClass.isDefinedBy(clazz.getClassLoader())) {
+          loadedClass.setDefinedClass(clazz);
+          if (lookupClass(changedClasses, clazz)) {
+            classesToBeTransformed.put(loadedClass.sequence, clazz);
+          }
+        }
+      }
+    }
+    for (List<LoadedClass> loadedClasses : unresolvedClasses.values()) {
+      for (LoadedClass loadedClass : loadedClasses) {
+        if (!loadedClass.isResolved()) {
+          LOGGER.debug("Cannot find loaded class {}", loadedClass.className);
+          removeLoadedClasses(loadedClass.className, other -> other == loadedClass);
+        }
+      }
     }
   }
 
@@ -112,4 +344,92 @@ public class ClassesToRetransformFinder {
     String simpleName = extractSimpleName(clazz);
     return changedClasses.contains(reverseStr(simpleName));
   }
+
+  private static final class LoaderReference extends WeakReference<ClassLoader> {
+    final String className;
+
+    LoaderReference(
+        ClassLoader loader, String className, ReferenceQueue<ClassLoader> collectedLoaders) {
+      super(loader, collectedLoaders);
+      this.className = className;
+    }
+  }
+
+  private static final class LoadedClass {
+    private static final WeakReference<ClassLoader> BOOTSTRAP = new WeakReference<>(null);
+
+    final String className;
+    private final WeakReference<ClassLoader> loader;
+    final long sequence;
+    // the class defined by the loader, once known
+    private volatile WeakReference<Class<?>> definedClass;
+
+    LoadedClass(
+        String className,
+        Class<?> definedClass,
+        ClassLoader loader,
+        ReferenceQueue<ClassLoader> collectedLoaders,
+        long sequence) {
+      this.className = className;
+      this.loader =
+          loader != null ? new LoaderReference(loader, className, collectedLoaders) : BOOTSTRAP;
+      this.sequence = sequence;
+      if (definedClass != null) {
+        this.definedClass = new WeakReference<>(definedClass);
+      }
+    }
+
+    boolean is(LoadedClass other) {
+      return className.equals(other.className) && loader.get() == other.loader.get();
+    }
+
+    boolean isUnloaded() {
+      return loader != BOOTSTRAP && loader.get() == null;
+    }
+
+    boolean isDefinedBy(ClassLoader classLoader) {
+      return !isUnloaded() && loader.get() == classLoader;
+    }
+
+    boolean isResolved() {
+      return definedClass != null;
+    }
+
+    void setDefinedClass(Class<?> clazz) {
+      definedClass = new WeakReference<>(clazz);
+    }
+
+    void setDefinedClass(LoadedClass other) {
+      if (definedClass == null && other.definedClass != null) {
+        definedClass = other.definedClass;
+      }
+    }
+
+    /**
+     * @return the class defined by the loader, null if unloaded or if the loader resolves the name
+     *     to a class defined by another loader
+     */
+    Class<?> resolve() {
+      WeakReference<Class<?>> resolved = definedClass;
+      if (resolved != null) {
+        return resolved.get();
+      }
+      ClassLoader classLoader = loader.get();
+      if (classLoader == null && loader != BOOTSTRAP) {
+        return null;
+      }
+      Class<?> clazz;
+      try {
+        clazz = Class.forName(className, false, classLoader);
+      } catch (ClassNotFoundException | LinkageError e) {
+        LOGGER.debug("Cannot resolve loaded class {}: {}", className, e.toString());
+        return null;
+      }
+      if (clazz.getClassLoader() != classLoader) {
+        return null;
+      }
+      setDefinedClass(clazz);
+      return clazz;
+    }
+  }
 }
@@ -12,6 +12,7 @@ import datadog.trace.api.Config;
 import datadog.trace.bootstrap.debugger.DebuggerContext;
 import datadog.trace.bootstrap.debugger.ProbeRateLimiter;
 import datadog.trace.bootstrap.debugger.Snapshot;
+import datadog.trace.util.AgentTaskScheduler;
 import datadog.trace.util.TagsHelper;
 import java.lang.instrument.Instrumentation;
 import java.util.ArrayList;
@@ -22,6 +23,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -40,6 +42,8 @@ public class ConfigurationUpdater
   private static final int MAX_ALLOWED_SPAN_PROBES = 100;
   private static final double RATE_LIMIT_PER_SNAPSHOT_PROBE = 1.0;
   private static final double RATE_LIMIT_PER_LOG_PROBE = 5000.0;
+  private static final int RETRANSFORM_BATCH_SIZE = 100;
+  private static final long RETRANSFORM_BATCH_DELAY = 10; // ms
 
   public interface TransformerSupplier {
     DebuggerTransformer supply(
@@ -54,6 +58,8 @@ public class ConfigurationUpdater
   private final TransformerSupplier transformerSupplier;
   private DebuggerTransformer currentTransformer;
   private final Map<String, ProbeDefinition> appliedDefinitions = new ConcurrentHashMap<>();
+  // log message templates are compiled once, when storing probe definitions
+  private final Map<String, LogMessageTemplate> logMessageTemplates = new ConcurrentHashMap<>();
   private final EnvironmentAndVersionChecker envAndVersionCheck;
   private final DebuggerSink sink;
   private final ClassesToRetransformFinder finder;
@@ -167,14 +173,36 @@ public class ConfigurationUpdater
     storeDebuggerDefinitions(changes);
     installNewDefinitions();
     reportReceived(changes);
-    if (!finder.hasChangedClasses(changes)) {
-      return;
+    if (finder.hasChangedClasses(changes)) {
+      if (!finder.isLoadedClassesIndexed()) {
+        // classes loaded afterwards are indexed by SourceFileTrackingTransformer
+        finder.indexLoadedClasses(instrumentation::getAllLoadedClasses);
+      }
+      List<Class<?>> changedClasses =
+          finder.getLoadedChangedClasses(changes, instrumentation::getAllLoadedClasses);
+      retransformClassesInBatches(changedClasses);
+    }
+    if (appliedDefinitions.isEmpty()) {
+      // class loads are not tracked until probes are defined again
+      finder.clearLoadedClasses();
     }
-    List<Class<?>> changedClasses =
-        finder.getAllLoadedChangedClasses(instrumentation.getAllLoadedClasses(), changes);
-    retransformClasses(changedClasses);
-    // ensures that we have at least re-transformed 1 class
-    if (changedClasses.size() > 0) {
+  }
+
+  /**
+   * Re-transforms the first batch of classes right away, and the following ones from the agent
+   * task scheduler so that application threads are never stopped for a large number of classes at
+   * once
+   */
+  private void retransformClassesInBatches(List<Class<?>> classesToBeTransformed) {
+    int batchEnd = Math.min(classesToBeTransformed.size(), RETRANSFORM_BATCH_SIZE);
+    retransformClasses(classesToBeTransformed.subList(0, batchEnd));
+    if (batchEnd < classesToBeTransformed.size()) {
+      AgentTaskScheduler.INSTANCE.schedule(
+          this::retransformClassesInBatches,
+          new ArrayList<>(classesToBeTransformed.subList(batchEnd, classesToBeTransformed.size())),
+          RETRANSFORM_BATCH_DELAY,
+          TimeUnit.MILLISECONDS);
+    } else if (batchEnd > 0) {
       LOGGER.debug("Re-transformation done");
     }
   }
@@ -239,16 +267,29 @@ public class ConfigurationUpdater
   private void storeDebuggerDefinitions(ConfigurationComparer changes) {
     for (ProbeDefinition definition : changes.getRemovedDefinitions()) {
       appliedDefinitions.remove(definition.getId());
+      logMessageTemplates.remove(definition.getId());
     }
     for (ProbeDefinition definition : changes.getAddedDefinitions()) {
       appliedDefinitions.put(definition.getId(), definition);
+      compileLogMessageTemplate(definition);
       for (ProbeDefinition additionalDef : definition.getAdditionalProbes()) {
         appliedDefinitions.put(additionalDef.getId(), additionalDef);
+        compileLogMessageTemplate(additionalDef);
       }
     }
     LOGGER.debug("Stored appliedDefinitions: {}", appliedDefinitions.values());
   }
 
+  private void compileLogMessageTemplate(ProbeDefinition definition) {
+    if (!(definition instanceof LogProbe)) {
+      return;
+    }
+    LogMessageTemplate template = LogMessageTemplate.compile(((LogProbe) definition).getSegments());
+    if (template != null) {
+      logMessageTemplates.put(definition.getId(), template);
+    }
+  }
+
   // /!\ This is called potentially by multiple threads from the instrumented code /!\
   @Override
   public Snapshot.ProbeDetails resolve(String id, Class<?> callingClass) {
@@ -289,7 +330,7 @@ public class ConfigurationUpdater
         logProbe.isCaptureSnapshot(),
         logProbe.getProbeCondition(),
         probe.concatTags(),
-        new LogMessageTemplateSummaryBuilder(logProbe),
+        new LogMessageTemplateSummaryBuilder(logMessageTemplates.get(probe.getId())),
         probe.getAdditionalProbes().stream()
             .map(relatedProbe -> convertToProbeDetails(relatedProbe, location))
             .collect(Collectors.toList()));
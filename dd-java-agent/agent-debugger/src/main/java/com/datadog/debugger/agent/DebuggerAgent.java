@@ -11,6 +11,7 @@ import datadog.remoteconfig.Product;
 import datadog.remoteconfig.SizeCheckedInputStream;
 import datadog.trace.api.Config;
 import datadog.trace.bootstrap.debugger.DebuggerContext;
+import datadog.trace.bootstrap.debugger.ProbeRateLimiter;
 import datadog.trace.bootstrap.debugger.Snapshot;
 import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
@@ -22,6 +23,7 @@ import java.lang.ref.WeakReference;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,6 +32,7 @@ public class DebuggerAgent {
   private static final Logger log = LoggerFactory.getLogger(DebuggerAgent.class);
   private static ConfigurationPoller configurationPoller;
   private static DebuggerSink sink;
+  private static StatsdMetricForwarder statsdMetricForwarder;
   private static String agentVersion;
 
   public static synchronized void run(
@@ -59,7 +62,9 @@ public class DebuggerAgent {
             config,
             sink,
             classesToRetransformFinder);
-    StatsdMetricForwarder statsdMetricForwarder = new StatsdMetricForwarder(config);
+    statsdMetricForwarder = new StatsdMetricForwarder(config);
+    statsdMetricForwarder.start();
+    ProbeRateLimiter.setTimeBudget(TimeUnit.MILLISECONDS.toNanos(config.getDebuggerTimeBudget()));
     DebuggerContext.init(sink, configurationUpdater, statsdMetricForwarder);
     DebuggerContext.initClassFilter(new DenyListHelper(null)); // default hard coded deny list
     DebuggerContext.initSnapshotSerializer(new JsonSnapshotSerializer());
@@ -73,25 +78,26 @@ public class DebuggerAgent {
     if (probeFileLocation != null) {
       Path probeFilePath = Paths.get(probeFileLocation);
       loadFromFile(probeFilePath, configurationUpdater, config.getDebuggerMaxPayloadSize());
-      return;
+    } else {
+      configurationPoller = sco.configurationPoller(config);
+      if (configurationPoller != null) {
+        subscribeConfigurationPoller(config, configurationUpdater);
+      } else {
+        log.debug("No configuration poller available from SharedCommunicationObjects");
+      }
     }
 
-    configurationPoller = sco.configurationPoller(config);
-    if (configurationPoller != null) {
-      subscribeConfigurationPoller(config, configurationUpdater);
-
-      try {
-        /*
-        Note: shutdown hooks are tricky because JVM holds reference for them forever preventing
-        GC for anything that is reachable from it.
-         */
-        Runtime.getRuntime()
-            .addShutdownHook(new ShutdownHook(configurationPoller, sink.getSnapshotUploader()));
-      } catch (final IllegalStateException ex) {
-        // The JVM is already shutting down.
-      }
-    } else {
-      log.debug("No configuration poller available from SharedCommunicationObjects");
+    try {
+      /*
+      Note: shutdown hooks are tricky because JVM holds reference for them forever preventing
+      GC for anything that is reachable from it.
+       */
+      Runtime.getRuntime()
+          .addShutdownHook(
+              new ShutdownHook(
+                  configurationPoller, sink.getSnapshotUploader(), statsdMetricForwarder));
+    } catch (final IllegalStateException ex) {
+      // The JVM is already shutting down.
     }
   }
 
@@ -166,17 +172,25 @@ public class DebuggerAgent {
     if (sink != null) {
       sink.stop();
     }
+    if (statsdMetricForwarder != null) {
+      statsdMetricForwarder.stop();
+    }
   }
 
   private static class ShutdownHook extends Thread {
 
     private final WeakReference<ConfigurationPoller> pollerRef;
     private final WeakReference<BatchUploader> uploaderRef;
+    private final WeakReference<StatsdMetricForwarder> metricForwarderRef;
 
-    private ShutdownHook(ConfigurationPoller poller, BatchUploader uploader) {
+    private ShutdownHook(
+        ConfigurationPoller poller,
+        BatchUploader uploader,
+        StatsdMetricForwarder metricForwarder) {
       super(AGENT_THREAD_GROUP, "dd-debugger-shutdown-hook");
       pollerRef = new WeakReference<>(poller);
       uploaderRef = new WeakReference<>(uploader);
+      metricForwarderRef = new WeakReference<>(metricForwarder);
     }
 
     @Override
@@ -198,6 +212,15 @@ public class DebuggerAgent {
           log.warn("Failed to shutdown SnapshotUploader", ex);
         }
       }
+
+      final StatsdMetricForwarder metricForwarder = metricForwarderRef.get();
+      if (metricForwarder != null) {
+        try {
+          metricForwarder.stop();
+        } catch (Exception ex) {
+          log.warn("Failed to flush metric probe metrics", ex);
+        }
+      }
     }
   }
 }
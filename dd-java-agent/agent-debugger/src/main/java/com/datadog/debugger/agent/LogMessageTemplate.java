@@ -0,0 +1,125 @@
+package com.datadog.debugger.agent;
+
+import com.datadog.debugger.el.Value;
+import com.datadog.debugger.el.ValueScript;
+import com.datadog.debugger.probe.LogProbe;
+import com.datadog.debugger.util.SerializerWithLimits;
+import com.datadog.debugger.util.StringTokenWriter;
+import datadog.trace.bootstrap.debugger.Limits;
+import datadog.trace.bootstrap.debugger.Snapshot;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Log probe message template compiled once per probe: literal chunks interleaved with the
+ * expressions to evaluate. Adjacent literal segments are merged and rendering goes into a per
+ * thread buffer, so a probe hit only evaluates the expressions.
+ */
+public final class LogMessageTemplate {
+  /**
+   * Serialization limits for log messages. Most values are lower than snapshot because you can
+   * directly reference values that are in your interest with Expression Language:
+   * obj.field.deepfield or array[1001]
+   */
+  private static final Limits LIMITS = new Limits(1, 3, 255, 5);
+
+  private static final int MAX_BUFFER_CAPACITY = 8192;
+  private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+
+  // literals[i] is rendered before expressions[i], the last literal after all expressions
+  private final String[] literals;
+  private final ValueScript[] expressions;
+
+  private LogMessageTemplate(String[] literals, ValueScript[] expressions) {
+    this.literals = literals;
+    this.expressions = expressions;
+  }
+
+  /** @return the compiled template, or null if the probe has no template */
+  public static LogMessageTemplate compile(List<LogProbe.Segment> segments) {
+    if (segments == null) {
+      return null;
+    }
+    List<String> literals = new ArrayList<>();
+    List<ValueScript> expressions = new ArrayList<>();
+    StringBuilder literal = new StringBuilder();
+    for (LogProbe.Segment segment : segments) {
+      if (segment.getStr() != null) {
+        literal.append(segment.getStr());
+      } else if (segment.getParsedExpr() != null) {
+        literals.add(literal.toString());
+        literal.setLength(0);
+        expressions.add(segment.getParsedExpr());
+      }
+    }
+    literals.add(literal.toString());
+    return new LogMessageTemplate(
+        literals.toArray(new String[0]), expressions.toArray(new ValueScript[0]));
+  }
+
+  public String render(
+      Snapshot.CapturedContext context, List<Snapshot.EvaluationError> evaluationErrors) {
+    if (expressions.length == 0) {
+      return literals[0];
+    }
+    Buffer buffer = BUFFER.get();
+    if (buffer.inUse) {
+      // re-entrant rendering, from a probe hit while evaluating this template
+      StringBuilder sb = new StringBuilder();
+      renderTo(sb, context, evaluationErrors);
+      return sb.toString();
+    }
+    buffer.inUse = true;
+    StringBuilder sb = buffer.sb;
+    try {
+      renderTo(sb, context, evaluationErrors);
+      return sb.toString();
+    } finally {
+      buffer.inUse = false;
+      if (sb.capacity() > MAX_BUFFER_CAPACITY) {
+        // do not retain buffers grown by an unusually large message
+        BUFFER.remove();
+      } else {
+        sb.setLength(0);
+      }
+    }
+  }
+
+  private void renderTo(
+      StringBuilder sb,
+      Snapshot.CapturedContext context,
+      List<Snapshot.EvaluationError> evaluationErrors) {
+    for (int i = 0; i < expressions.length; i++) {
+      sb.append(literals[i]);
+      ValueScript expr = expressions[i];
+      Value<?> result = expr.execute(context);
+      if (result.isUndefined()) {
+        sb.append(result.getValue());
+      } else if (result.isNull()) {
+        sb.append("null");
+      } else {
+        serializeValue(sb, expr.getDsl(), result.getValue(), evaluationErrors);
+      }
+    }
+    sb.append(literals[expressions.length]);
+  }
+
+  private static void serializeValue(
+      StringBuilder sb,
+      String expr,
+      Object value,
+      List<Snapshot.EvaluationError> evaluationErrors) {
+    SerializerWithLimits serializer =
+        new SerializerWithLimits(new StringTokenWriter(sb, evaluationErrors));
+    try {
+      serializer.serialize(value, value != null ? value.getClass().getTypeName() : null, LIMITS);
+    } catch (Exception ex) {
+      evaluationErrors.add(new Snapshot.EvaluationError(expr, ex.toString()));
+    }
+  }
+
+  private static final class Buffer {
+    final StringBuilder sb = new StringBuilder(256);
+    boolean inUse;
+  }
+}
@@ -1,31 +1,23 @@
 package com.datadog.debugger.agent;
 
-import com.datadog.debugger.el.Value;
-import com.datadog.debugger.el.ValueScript;
 import com.datadog.debugger.probe.LogProbe;
-import com.datadog.debugger.util.SerializerWithLimits;
-import com.datadog.debugger.util.StringTokenWriter;
 import datadog.trace.bootstrap.debugger.CapturedStackFrame;
-import datadog.trace.bootstrap.debugger.Limits;
 import datadog.trace.bootstrap.debugger.Snapshot;
 import datadog.trace.bootstrap.debugger.SummaryBuilder;
 import java.util.ArrayList;
 import java.util.List;
 
 public class LogMessageTemplateSummaryBuilder implements SummaryBuilder {
-  /**
-   * Serialization limits for log messages. Most values are lower than snapshot because you can
-   * directly reference values that are in your interest with Expression Language:
-   * obj.field.deepfield or array[1001]
-   */
-  private static final Limits LIMITS = new Limits(1, 3, 255, 5);
-
-  private final LogProbe logProbe;
+  private final LogMessageTemplate template;
   private final List<Snapshot.EvaluationError> evaluationErrors = new ArrayList<>();
   private String message;
 
   public LogMessageTemplateSummaryBuilder(LogProbe logProbe) {
-    this.logProbe = logProbe;
+    this(LogMessageTemplate.compile(logProbe.getSegments()));
+  }
+
+  public LogMessageTemplateSummaryBuilder(LogMessageTemplate template) {
+    this.template = template;
   }
 
   @Override
@@ -60,37 +52,9 @@ public class LogMessageTemplateSummaryBuilder implements SummaryBuilder {
   }
 
   private void executeExpressions(Snapshot.CapturedContext entry) {
-    StringBuilder sb = new StringBuilder();
-    if (logProbe.getSegments() == null) {
+    if (template == null) {
       return;
     }
-    for (LogProbe.Segment segment : logProbe.getSegments()) {
-      ValueScript parsedExr = segment.getParsedExpr();
-      if (segment.getStr() != null) {
-        sb.append(segment.getStr());
-      } else {
-        if (parsedExr != null) {
-          Value<?> result = parsedExr.execute(entry);
-          if (result.isUndefined()) {
-            sb.append(result.getValue());
-          } else if (result.isNull()) {
-            sb.append("null");
-          } else {
-            serializeValue(sb, segment.getParsedExpr().getDsl(), result.getValue());
-          }
-        }
-      }
-    }
-    message = sb.toString();
-  }
-
-  private void serializeValue(StringBuilder sb, String expr, Object value) {
-    SerializerWithLimits serializer =
-        new SerializerWithLimits(new StringTokenWriter(sb, evaluationErrors));
-    try {
-      serializer.serialize(value, value != null ? value.getClass().getTypeName() : null, LIMITS);
-    } catch (Exception ex) {
-      evaluationErrors.add(new Snapshot.EvaluationError(expr, ex.toString()));
-    }
+    message = template.render(entry, evaluationErrors);
   }
 }
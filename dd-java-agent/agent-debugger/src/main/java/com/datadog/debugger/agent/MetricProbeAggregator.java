@@ -0,0 +1,160 @@
+package com.datadog.debugger.agent;
+
+import datadog.trace.api.StatsDClient;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Aggregates in process the counts and gauges emitted by metric probes: a probe hit only updates an
+ * accumulator and the aggregates are sent to DogStatsD on flush. Counts are summed and gauges keep
+ * their last value. Histograms are not aggregated here, their samples are sent as they come so
+ * that DogStatsD computes the aggregates and percentiles configured by the user.
+ *
+ * <p>Metrics are looked up by name, then by tags among the few tag sets emitted under that name,
+ * so a probe hit neither allocates a key nor hashes its tags. Accumulators are striped {@link
+ * LongAdder}s, so concurrent hits of the same metric do not contend. Metrics without any update
+ * for {@link #MAX_IDLE_FLUSHES} flushes are evicted, an update racing with the eviction of its
+ * metric may be lost.
+ */
+final class MetricProbeAggregator {
+  static final int MAX_IDLE_FLUSHES = 6;
+
+  private final ConcurrentMap<String, Series<Count>> counts = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Series<Gauge>> gauges = new ConcurrentHashMap<>();
+
+  void count(String name, long delta, String[] tags) {
+    series(counts, name).get(tags, Count::new).value.add(delta);
+  }
+
+  void gauge(String name, long value, String[] tags) {
+    Gauge gauge = series(gauges, name).get(tags, Gauge::new);
+    gauge.value = value;
+    gauge.updated = true;
+  }
+
+  /** Sends the metrics aggregated since the previous flush */
+  void flush(StatsDClient statsd) {
+    for (Iterator<Map.Entry<String, Series<Count>>> it = counts.entrySet().iterator();
+        it.hasNext(); ) {
+      Map.Entry<String, Series<Count>> entry = it.next();
+      String name = entry.getKey();
+      if (entry.getValue().evict(count -> flushCount(statsd, name, count))) {
+        it.remove();
+      }
+    }
+    for (Iterator<Map.Entry<String, Series<Gauge>>> it = gauges.entrySet().iterator();
+        it.hasNext(); ) {
+      Map.Entry<String, Series<Gauge>> entry = it.next();
+      String name = entry.getKey();
+      if (entry.getValue().evict(gauge -> flushGauge(statsd, name, gauge))) {
+        it.remove();
+      }
+    }
+  }
+
+  /** @return true if the count was not updated for too long and must be evicted */
+  private static boolean flushCount(StatsDClient statsd, String name, Count count) {
+    long delta = count.value.sumThenReset();
+    if (delta != 0) {
+      count.idleFlushes = 0;
+      statsd.count(name, delta, count.tags);
+      return false;
+    }
+    return ++count.idleFlushes >= MAX_IDLE_FLUSHES;
+  }
+
+  /** @return true if the gauge was not updated for too long and must be evicted */
+  private static boolean flushGauge(StatsDClient statsd, String name, Gauge gauge) {
+    if (gauge.updated) {
+      gauge.updated = false;
+      gauge.idleFlushes = 0;
+      statsd.gauge(name, gauge.value, gauge.tags);
+      return false;
+    }
+    return ++gauge.idleFlushes >= MAX_IDLE_FLUSHES;
+  }
+
+  private static <M extends Metric> Series<M> series(
+      ConcurrentMap<String, Series<M>> metrics, String name) {
+    Series<M> series = metrics.get(name);
+    if (series == null) {
+      series = metrics.computeIfAbsent(name, k -> new Series<>());
+    }
+    return series;
+  }
+
+  /** Metrics emitted under the same name, one per tag set */
+  private static final class Series<M extends Metric> {
+    private static final Metric[] EMPTY = new Metric[0];
+
+    // copied on write, only changed when a tag set is added or evicted
+    private volatile Metric[] metrics = EMPTY;
+
+    @SuppressWarnings("unchecked")
+    M get(String[] tags, Function<String[], M> factory) {
+      for (Metric metric : metrics) {
+        if (Arrays.equals(metric.tags, tags)) {
+          return (M) metric;
+        }
+      }
+      return add(tags, factory);
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized M add(String[] tags, Function<String[], M> factory) {
+      Metric[] current = metrics;
+      for (Metric metric : current) {
+        if (Arrays.equals(metric.tags, tags)) {
+          return (M) metric;
+        }
+      }
+      // not sharing the tags array of the probe hit
+      M metric = factory.apply(tags != null ? tags.clone() : null);
+      Metric[] added = Arrays.copyOf(current, current.length + 1);
+      added[current.length] = metric;
+      metrics = added;
+      return metric;
+    }
+
+    /** @return true if no metric is left once the metrics matching the filter are evicted */
+    @SuppressWarnings("unchecked")
+    synchronized boolean evict(Predicate<M> filter) {
+      Metric[] kept =
+          Arrays.stream(metrics).filter(m -> !filter.test((M) m)).toArray(Metric[]::new);
+      metrics = kept.length > 0 ? kept : EMPTY;
+      return kept.length == 0;
+    }
+  }
+
+  private abstract static class Metric {
+    final String[] tags;
+    int idleFlushes;
+
+    Metric(String[] tags) {
+      this.tags = tags;
+    }
+  }
+
+  private static final class Count extends Metric {
+    final LongAdder value = new LongAdder();
+
+    Count(String[] tags) {
+      super(tags);
+    }
+  }
+
+  private static final class Gauge extends Metric {
+    volatile long value;
+    volatile boolean updated;
+
+    Gauge(String[] tags) {
+      super(tags);
+    }
+  }
+}
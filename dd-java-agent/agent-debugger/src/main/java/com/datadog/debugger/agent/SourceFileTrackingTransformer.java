@@ -11,7 +11,9 @@ import java.security.ProtectionDomain;
 /**
  * Permanent Transformer to track all Inner or Top-Level classes associated with the same SourceFile
  * (String.java) Allows to get all classes that are dependent from a source file and be able to
- * trigger {@link java.lang.instrument.Instrumentation#retransformClasses(Class[])} on them
+ * trigger {@link java.lang.instrument.Instrumentation#retransformClasses(Class[])} on them. While
+ * probes are defined, also indexes every loaded class by name so classes affected by probe changes
+ * are found without scanning all loaded classes.
  */
 public class SourceFileTrackingTransformer implements ClassFileTransformer {
   private final ClassesToRetransformFinder finder;
@@ -31,6 +33,9 @@ public class SourceFileTrackingTransformer implements ClassFileTransformer {
     if (className == null) {
       return null;
     }
+    if (classBeingRedefined == null) {
+      finder.registerLoadedClass(className.replace('/', '.'), loader);
+    }
     String sourceFile = ClassFileHelper.extractSourceFile(classfileBuffer);
     if (sourceFile == null) {
       return null;
@@ -5,16 +5,24 @@ import datadog.communication.monitor.DDAgentStatsDClientManager;
 import datadog.trace.api.Config;
 import datadog.trace.api.StatsDClient;
 import datadog.trace.bootstrap.debugger.DebuggerContext;
+import datadog.trace.util.AgentTaskScheduler;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** Implements forwarding metric probe emitted metrics to a DogStatsD endpoint */
+/**
+ * Implements forwarding metric probe emitted metrics to a DogStatsD endpoint, counts and gauges
+ * aggregated in process and flushed periodically
+ */
 public class StatsdMetricForwarder
     implements DebuggerContext.MetricForwarder, StatsDClientErrorHandler {
   private static final Logger LOGGER = LoggerFactory.getLogger(StatsdMetricForwarder.class);
   private static final String METRICPROBE_PREFIX = "dynamic.instrumentation.metric.probe";
+  private static final long METRIC_FLUSH_INTERVAL = 10; // seconds
 
   private final StatsDClient statsd;
+  private final MetricProbeAggregator aggregator = new MetricProbeAggregator();
+  private volatile AgentTaskScheduler.Scheduled<StatsdMetricForwarder> scheduled;
 
   public StatsdMetricForwarder(Config config) {
     statsd =
@@ -27,14 +35,38 @@ public class StatsdMetricForwarder
                 new String[0]);
   }
 
+  /** Starts flushing periodically the aggregated metrics */
+  public void start() {
+    scheduled =
+        AgentTaskScheduler.INSTANCE.scheduleAtFixedRate(
+            this::flushMetrics,
+            this,
+            METRIC_FLUSH_INTERVAL,
+            METRIC_FLUSH_INTERVAL,
+            TimeUnit.SECONDS);
+  }
+
+  /** Stops the periodic flush and sends the metrics aggregated since the last one */
+  public void stop() {
+    AgentTaskScheduler.Scheduled<StatsdMetricForwarder> localScheduled = this.scheduled;
+    if (localScheduled != null) {
+      localScheduled.cancel();
+    }
+    aggregator.flush(statsd);
+  }
+
+  void flushMetrics(StatsdMetricForwarder ignored) {
+    aggregator.flush(statsd);
+  }
+
   @Override
   public void count(String name, long delta, String[] tags) {
-    statsd.count(name, delta, tags);
+    aggregator.count(name, delta, tags);
   }
 
   @Override
   public void gauge(String name, long value, String[] tags) {
-    statsd.gauge(name, value, tags);
+    aggregator.gauge(name, value, tags);
   }
 
   @Override
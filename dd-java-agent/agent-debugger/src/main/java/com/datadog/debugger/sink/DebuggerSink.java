@@ -6,6 +6,7 @@ import com.datadog.debugger.util.DebuggerMetrics;
 import datadog.trace.api.Config;
 import datadog.trace.bootstrap.debugger.DebuggerContext;
 import datadog.trace.bootstrap.debugger.DiagnosticMessage;
+import datadog.trace.bootstrap.debugger.ProbeRateLimiter;
 import datadog.trace.bootstrap.debugger.Snapshot;
 import datadog.trace.core.DDTraceCoreInfo;
 import datadog.trace.util.AgentTaskScheduler;
@@ -138,10 +139,8 @@ public class DebuggerSink implements DebuggerContext.Sink {
 
   @Override
   public void addSnapshot(Snapshot snapshot) {
-    boolean added = snapshotSink.offer(snapshot);
-    if (!added) {
-      debuggerMetrics.count(PREFIX + "dropped.requests", 1);
-    }
+    // drops are accounted by the sink and reported on flush, off the application thread
+    snapshotSink.offer(snapshot);
   }
 
   ProbeStatusSink getProbeDiagnosticsSink() {
@@ -160,6 +159,13 @@ public class DebuggerSink implements DebuggerContext.Sink {
 
   // visible for testing
   void flush(DebuggerSink ignored) {
+    reportDroppedSnapshots();
+    ProbeRateLimiter.reportCosts(this::reportProbeCost);
+    if (batchUploader.isSaturated()) {
+      // leave snapshots in the sink until requests complete instead of dropping batches
+      debuggerMetrics.count(PREFIX + "upload.saturated", 1);
+      return;
+    }
     List<String> diagnostics = probeStatusSink.getSerializedDiagnostics();
     List<String> snapshots = snapshotSink.getSerializedSnapshots();
     if (snapshots.size() + diagnostics.size() == 0) {
@@ -173,6 +179,18 @@ public class DebuggerSink implements DebuggerContext.Sink {
     }
   }
 
+  private void reportDroppedSnapshots() {
+    long dropped = snapshotSink.getAndResetDroppedCount();
+    if (dropped > 0) {
+      debuggerMetrics.count(PREFIX + "dropped.requests", dropped);
+      log.debug("{} snapshots dropped, the snapshot sink was full", dropped);
+    }
+  }
+
+  private void reportProbeCost(String probeId, long costNanos) {
+    debuggerMetrics.count(PREFIX + "budget.cost", costNanos, "probe_id:" + probeId);
+  }
+
   private void uploadPayloads(List<String> payloads) {
     List<byte[]> batches = IntakeBatchHelper.createBatches(payloads);
     for (byte[] batch : batches) {
@@ -191,7 +209,10 @@ public class DebuggerSink implements DebuggerContext.Sink {
     double remainingCapacityPercent = snapshotSink.remainingCapacity() * 1D / CAPACITY;
     long currentInterval = currentFlushInterval;
     long newInterval = currentInterval;
-    if (remainingCapacityPercent <= FREE_CAPACITY_LOWER_THRESHOLD) {
+    if (batchUploader.isSaturated()) {
+      // flushing more often would not upload more, back off until requests complete
+      newInterval = Math.min(currentInterval + STEP_SIZE, MAX_FLUSH_INTERVAL);
+    } else if (remainingCapacityPercent <= FREE_CAPACITY_LOWER_THRESHOLD) {
       newInterval = Math.max(currentInterval - STEP_SIZE, MIN_FLUSH_INTERVAL);
     } else if (remainingCapacityPercent >= FREE_CAPACITY_UPPER_THRESHOLD) {
       newInterval = Math.min(currentInterval + STEP_SIZE, MAX_FLUSH_INTERVAL);
@@ -258,6 +279,9 @@ public class DebuggerSink implements DebuggerContext.Sink {
       case CONDITION:
         causeTag = "cause:condition";
         break;
+      case BUDGET:
+        causeTag = "cause:budget";
+        break;
       default:
         throw new IllegalArgumentException("Unknown cause: " + cause);
     }
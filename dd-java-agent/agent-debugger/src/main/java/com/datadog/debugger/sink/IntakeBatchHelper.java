@@ -17,74 +17,59 @@ public class IntakeBatchHelper {
 
   public static List<byte[]> createBatches(List<String> payloads) {
     List<byte[]> batches = new ArrayList<>();
-    int start = 0;
-    int count = payloads.size();
-    do {
-      StringBuilder sb = new StringBuilder();
-      int includedElements = buildPayloadBatch(payloads, start, count, sb);
-      byte[] payload = sb.toString().getBytes(StandardCharsets.UTF_8);
-      if (includedElements == 0) {
-        // skip the first message because too large
-        start++;
-        count--;
+    List<byte[]> batchElements = new ArrayList<>();
+    // opening and closing brackets
+    int batchSize = 2;
+    for (String payload : payloads) {
+      // each payload is encoded only once, and copied only once more into its batch
+      byte[] element = payload.getBytes(StandardCharsets.UTF_8);
+      if (element.length + 2 >= MAX_PAYLOAD_SIZE) {
+        logSkippedPayload(element.length);
         continue;
       }
-      // serialization into UTF-8 can result in a larger payload because of multi-byte character
-      // (non-7bit-ascii), need to check again
-      if (payload.length >= MAX_PAYLOAD_SIZE) {
-        // Remove the last element and retry
-        count = includedElements - 1;
-        if (count == 0) {
-          // only one snapshot was included and actually too large once converted to bytes
-          logSkippedPayload(payloads.get(start));
-        }
-        continue;
+      int separatorSize = batchElements.isEmpty() ? 0 : 1;
+      if (batchSize + separatorSize + element.length >= MAX_PAYLOAD_SIZE) {
+        batches.add(buildPayloadBatch(batchElements, batchSize));
+        batchElements.clear();
+        batchSize = 2;
+        separatorSize = 0;
       }
-      batches.add(payload);
-      // adjust start and count to handle the remaining snapshots into the batch
-      start = start + includedElements;
-      count = count - includedElements;
-    } while (count > 0);
+      batchElements.add(element);
+      batchSize += separatorSize + element.length;
+    }
+    if (!batchElements.isEmpty()) {
+      batches.add(buildPayloadBatch(batchElements, batchSize));
+    }
     return batches;
   }
 
   /**
-   * Try to serialize as string as many payloads as possible up to the maxPayloadSize
+   * Concatenates UTF-8 encoded elements into a JSON array
    *
-   * @param payloads list of elements that we try to include into the StringBuilder
-   * @param start index of the first element into the payloads list that we want to include
-   * @param count number of elements that we want ot include
-   * @param sb StringBuilder that receives serialized elements
-   * @return the number of included elements into the StringBuilder
+   * @param elements UTF-8 encoded JSON elements
+   * @param batchSize the size of the resulting array, brackets and separators included
+   * @return the JSON array
    */
-  private static int buildPayloadBatch(
-      List<String> payloads, int start, int count, StringBuilder sb) {
-    int totalSize = 0;
-    int elementCount = 0;
-    sb.append("[");
-    for (int i = start; i < start + count; i++) {
-      String jsonStr = payloads.get(i);
-      totalSize += jsonStr.length();
-      if (totalSize >= MAX_PAYLOAD_SIZE) {
-        // the projected total size is too large, we stop here and do not append the
-        // last serialized snapshot
-        break;
+  private static byte[] buildPayloadBatch(List<byte[]> elements, int batchSize) {
+    byte[] batch = new byte[batchSize];
+    int position = 0;
+    batch[position++] = '[';
+    for (int i = 0; i < elements.size(); i++) {
+      if (i > 0) {
+        batch[position++] = ',';
       }
-      sb.append(jsonStr);
-      sb.append(",");
-      elementCount++;
-    }
-    if (elementCount > 0) {
-      sb.delete(sb.lastIndexOf(","), sb.length());
+      byte[] element = elements.get(i);
+      System.arraycopy(element, 0, batch, position, element.length);
+      position += element.length;
     }
-    sb.append("]");
-    return elementCount;
+    batch[position] = ']';
+    return batch;
   }
 
-  private static void logSkippedPayload(String payload) {
+  private static void logSkippedPayload(int payloadSize) {
     log.warn(
         "Payload ({}mb) exceeding max payload size {}mb, skipping.",
-        payload.getBytes(StandardCharsets.UTF_8).length / 1024 / 1024,
+        payloadSize / 1024 / 1024,
         MAX_PAYLOAD_SIZE / 1024 / 1024);
   }
 }
@@ -7,17 +7,23 @@ import datadog.trace.bootstrap.debugger.Snapshot;
 import datadog.trace.util.TagsHelper;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import org.jctools.queues.MessagePassingQueue;
+import org.jctools.queues.MpscArrayQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** Collects snapshots that needs to be sent to the backend */
+/**
+ * Collects snapshots that needs to be sent to the backend. Snapshots are offered by application
+ * threads without locking, and serialized by the flush thread.
+ */
 public class SnapshotSink {
   private static final Logger LOGGER = LoggerFactory.getLogger(DebuggerSink.class);
   private static final int CAPACITY = 1000;
 
-  private final BlockingQueue<Snapshot> snapshots = new ArrayBlockingQueue<>(CAPACITY);
+  // the queue capacity is rounded up to a power of 2, CAPACITY is enforced on offer
+  private final MessagePassingQueue<Snapshot> snapshots = new MpscArrayQueue<>(CAPACITY);
+  private final LongAdder droppedSnapshots = new LongAdder();
   private final String serviceName;
   private final int batchSize;
 
@@ -27,8 +33,7 @@ public class SnapshotSink {
   }
 
   public List<String> getSerializedSnapshots() {
-    List<Snapshot> snapshots = new ArrayList<>();
-    this.snapshots.drainTo(snapshots, batchSize);
+    List<Snapshot> snapshots = getSnapshots();
     List<String> serializedSnapshots = new ArrayList<>();
     for (Snapshot snapshot : snapshots) {
       try {
@@ -44,16 +49,25 @@ public class SnapshotSink {
 
   public List<Snapshot> getSnapshots() {
     List<Snapshot> snapshots = new ArrayList<>();
-    this.snapshots.drainTo(snapshots, batchSize);
+    this.snapshots.drain(snapshots::add, batchSize);
     return snapshots;
   }
 
   public long remainingCapacity() {
-    return snapshots.remainingCapacity();
+    return Math.max(0, CAPACITY - snapshots.size());
   }
 
   public boolean offer(Snapshot snapshot) {
-    return snapshots.offer(snapshot);
+    if (snapshots.size() >= CAPACITY || !snapshots.offer(snapshot)) {
+      droppedSnapshots.increment();
+      return false;
+    }
+    return true;
+  }
+
+  /** @return the number of snapshots dropped because the sink was full since the last call */
+  public long getAndResetDroppedCount() {
+    return droppedSnapshots.sumThenReset();
   }
 
   String serializeSnapshot(String serviceName, Snapshot snapshot) {
@@ -9,7 +9,10 @@ import datadog.trace.relocate.api.RatelimitedLogger;
 import datadog.trace.util.AgentThreadFactory;
 import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Phaser;
 import java.util.concurrent.SynchronousQueue;
@@ -28,16 +31,30 @@ import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** Handles batching logic of upload requests sent to the intake */
+/**
+ * Handles batching logic of upload requests sent to the intake
+ *
+ * <p>At most a configurable number of requests are in flight. Batches uploaded while all of them
+ * are busy wait for the next response, merged with the other waiting batches of the same tags into
+ * a single request, so that a burst of batches does not turn into as many requests queued behind a
+ * slow intake. Batches which cannot even wait are dropped, see {@link #isSaturated()}.
+ */
 public class BatchUploader {
   private static final Logger log = LoggerFactory.getLogger(BatchUploader.class);
   private static final int MINUTES_BETWEEN_ERROR_LOG = 5;
   private static final MediaType APPLICATION_JSON = MediaType.parse("application/json");
   private static final String HEADER_DD_API_KEY = "DD-API-KEY";
   private static final String HEADER_DD_CONTAINER_ID = "Datadog-Container-ID";
+  private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+  private static final String GZIP = "gzip";
+  private static final int MAX_COALESCED_SIZE = 5 * 1024 * 1024;
   private final String containerId;
 
   static final int MAX_RUNNING_REQUESTS = 10;
@@ -51,8 +68,13 @@ public class BatchUploader {
   private final String apiKey;
   private final DebuggerMetrics debuggerMetrics;
   private final boolean instrumentTheWorld;
+  private final int maxInflightRequests;
+  private final boolean gzip;
 
   private final Phaser inflightRequests = new Phaser(1);
+  // batches waiting for an in-flight request to complete, its lock also guards runningRequests
+  private final ArrayDeque<PendingBatch> pendingBatches = new ArrayDeque<>();
+  private int runningRequests;
 
   public BatchUploader(Config config) {
     this(config, new RatelimitedLogger(log, MINUTES_BETWEEN_ERROR_LOG, TimeUnit.MINUTES));
@@ -72,7 +94,12 @@ public class BatchUploader {
     urlBase = HttpUrl.get(url);
     log.debug("Started SnapshotUploader with target url {}", urlBase);
     apiKey = config.getApiKey();
-    responseCallback = new ResponseCallback(ratelimitedLogger, inflightRequests);
+    maxInflightRequests =
+        config.getDebuggerUploadMaxInflight() > 0
+            ? config.getDebuggerUploadMaxInflight()
+            : MAX_RUNNING_REQUESTS;
+    gzip = GZIP.equalsIgnoreCase(config.getDebuggerUploadCompression());
+    responseCallback = new ResponseCallback(ratelimitedLogger, this);
     // This is the same thing OkHttp Dispatcher is doing except thread naming and daemonization
     okHttpExecutorService =
         new ThreadPoolExecutor(
@@ -85,7 +112,7 @@ public class BatchUploader {
     this.containerId = containerId;
     // Reusing connections causes non daemon threads to be created which causes agent to prevent app
     // from exiting. See https://github.com/square/okhttp/issues/4029 for some details.
-    ConnectionPool connectionPool = new ConnectionPool(MAX_RUNNING_REQUESTS, 1, TimeUnit.SECONDS);
+    ConnectionPool connectionPool = new ConnectionPool(maxInflightRequests, 1, TimeUnit.SECONDS);
     // Use same timeout everywhere for simplicity
     Duration requestTimeout = Duration.ofSeconds(config.getDebuggerUploadTimeout());
     OkHttpClient.Builder clientBuilder =
@@ -103,9 +130,9 @@ public class BatchUploader {
       clientBuilder.connectionSpecs(Collections.singletonList(ConnectionSpec.CLEARTEXT));
     }
     client = clientBuilder.build();
-    client.dispatcher().setMaxRequests(MAX_RUNNING_REQUESTS);
+    client.dispatcher().setMaxRequests(maxInflightRequests);
     // We are mainly talking to the same(ish) host so we need to raise this limit
-    client.dispatcher().setMaxRequestsPerHost(MAX_RUNNING_REQUESTS);
+    client.dispatcher().setMaxRequestsPerHost(maxInflightRequests);
     debuggerMetrics = DebuggerMetrics.getInstance(config);
   }
 
@@ -118,17 +145,65 @@ public class BatchUploader {
       // no upload in Instrument-The-World mode
       return;
     }
-    try {
-      if (canEnqueueMoreRequests()) {
-        makeUploadRequest(batch, tags);
-        debuggerMetrics.count("batch.uploaded", 1);
-      } else {
-        debuggerMetrics.count("request.queue.full", 1);
-        log.warn("Cannot upload batch data: too many enqueued requests!");
+    PendingBatch pendingBatch = new PendingBatch(batch, tags);
+    synchronized (pendingBatches) {
+      if (runningRequests >= maxInflightRequests) {
+        enqueue(pendingBatch);
+        return;
       }
+      runningRequests++;
+    }
+    inflightRequests.register();
+    send(pendingBatch);
+  }
+
+  /**
+   * @return true when all requests are in flight and no more batch can wait for them, batches
+   *     uploaded until a request completes are dropped
+   */
+  public boolean isSaturated() {
+    synchronized (pendingBatches) {
+      return runningRequests >= maxInflightRequests && !canEnqueueMoreRequests();
+    }
+  }
+
+  // called with the pendingBatches lock held
+  private void enqueue(PendingBatch pendingBatch) {
+    PendingBatch last = pendingBatches.peekLast();
+    if (last != null && last.coalesce(pendingBatch)) {
+      debuggerMetrics.count("batch.coalesced", 1);
+    } else if (canEnqueueMoreRequests()) {
+      pendingBatches.addLast(pendingBatch);
+      inflightRequests.register();
+    } else {
+      debuggerMetrics.count("request.queue.full", 1);
+      log.warn("Cannot upload batch data: too many enqueued requests!");
+    }
+  }
+
+  private void send(PendingBatch pendingBatch) {
+    try {
+      makeUploadRequest(pendingBatch.toBytes(), pendingBatch.tags);
+      debuggerMetrics.count("batch.uploaded", 1);
     } catch (final IllegalStateException | IOException e) {
       debuggerMetrics.count("batch.upload.error", 1);
       log.warn("Problem uploading batch!", e);
+      onRequestDone();
+    }
+  }
+
+  /** Hands the request slot over to the next waiting batch, if any */
+  private void onRequestDone() {
+    PendingBatch next;
+    synchronized (pendingBatches) {
+      next = pendingBatches.pollFirst();
+      if (next == null) {
+        runningRequests--;
+      }
+    }
+    inflightRequests.arriveAndDeregister();
+    if (next != null) {
+      send(next);
     }
   }
 
@@ -144,7 +219,8 @@ public class BatchUploader {
     // use RequestBody.create(MediaType, byte[]) to avoid changing Content-Type to
     // "Content-Type: application/json; charset=UTF-8" which is not recognized
     int contentLength = json.length;
-    RequestBody body = RequestBody.create(APPLICATION_JSON, json);
+    byte[] content = gzip ? compress(json) : json;
+    RequestBody body = RequestBody.create(APPLICATION_JSON, content);
     debuggerMetrics.histogram("batch.uploader.request.size", contentLength);
     if (log.isDebugEnabled()) {
       log.debug("Uploading batch data size={} bytes", contentLength);
@@ -154,6 +230,9 @@ public class BatchUploader {
       builder.addQueryParameter("ddtags", tags);
     }
     Request.Builder requestBuilder = new Request.Builder().url(builder.build()).post(body);
+    if (gzip) {
+      requestBuilder.addHeader(HEADER_CONTENT_ENCODING, GZIP);
+    }
     if (apiKey != null) {
       if (apiKey.isEmpty()) {
         log.debug("API key is empty");
@@ -174,7 +253,14 @@ public class BatchUploader {
     Request request = requestBuilder.build();
     log.debug("Sending request: {} CT: {}", request, request.body().contentType());
     client.newCall(request).enqueue(responseCallback);
-    inflightRequests.register();
+  }
+
+  private static byte[] compress(byte[] content) throws IOException {
+    Buffer buffer = new Buffer();
+    try (BufferedSink sink = Okio.buffer(new GzipSink(buffer))) {
+      sink.write(content);
+    }
+    return buffer.readByteArray();
   }
 
   public void shutdown() {
@@ -194,30 +280,83 @@ public class BatchUploader {
     client.connectionPool().evictAll();
   }
 
+  // called with the pendingBatches lock held
   private boolean canEnqueueMoreRequests() {
-    return client.dispatcher().queuedCallsCount() < MAX_ENQUEUED_REQUESTS;
+    return pendingBatches.size() < MAX_ENQUEUED_REQUESTS;
+  }
+
+  /** Batch waiting to be sent, with the JSON array batches of the same tags merged into it */
+  private static final class PendingBatch {
+    private final String tags;
+    private final List<byte[]> batches = new ArrayList<>(1);
+    private int size;
+
+    PendingBatch(byte[] batch, String tags) {
+      this.tags = tags;
+      this.batches.add(batch);
+      this.size = batch.length;
+    }
+
+    boolean coalesce(PendingBatch other) {
+      byte[] batch = other.batches.get(0);
+      // merging [a,b] and [c] into [a,b,c] drops a bracket on each side and adds a comma
+      int mergedSize = size + batch.length - 1;
+      if (!tags.equals(other.tags)
+          || mergedSize >= MAX_COALESCED_SIZE
+          || !isJsonArray(batches.get(0))
+          || !isJsonArray(batch)) {
+        return false;
+      }
+      batches.add(batch);
+      size = mergedSize;
+      return true;
+    }
+
+    byte[] toBytes() {
+      if (batches.size() == 1) {
+        return batches.get(0);
+      }
+      byte[] merged = new byte[size];
+      merged[0] = '[';
+      int offset = 1;
+      for (int i = 0; i < batches.size(); i++) {
+        if (i > 0) {
+          merged[offset++] = ',';
+        }
+        byte[] batch = batches.get(i);
+        System.arraycopy(batch, 1, merged, offset, batch.length - 2);
+        offset += batch.length - 2;
+      }
+      merged[offset] = ']';
+      return merged;
+    }
+
+    // non empty JSON arrays as built by IntakeBatchHelper, without surrounding whitespace
+    private static boolean isJsonArray(byte[] batch) {
+      return batch.length > 2 && batch[0] == '[' && batch[batch.length - 1] == ']';
+    }
   }
 
   private static final class ResponseCallback implements Callback {
 
     private final RatelimitedLogger ratelimitedLogger;
-    private final Phaser inflightRequests;
+    private final BatchUploader uploader;
 
-    public ResponseCallback(final RatelimitedLogger ratelimitedLogger, Phaser inflightRequests) {
+    public ResponseCallback(final RatelimitedLogger ratelimitedLogger, BatchUploader uploader) {
       this.ratelimitedLogger = ratelimitedLogger;
-      this.inflightRequests = inflightRequests;
+      this.uploader = uploader;
     }
 
     @Override
     public void onFailure(final Call call, final IOException e) {
-      inflightRequests.arriveAndDeregister();
+      uploader.onRequestDone();
       ratelimitedLogger.warn("Failed to upload batch to {}", call.request().url(), e);
     }
 
     @Override
     public void onResponse(final Call call, final Response response) {
       try {
-        inflightRequests.arriveAndDeregister();
+        uploader.onRequestDone();
         if (response.isSuccessful()) {
           log.debug("Upload done");
         } else {
@@ -1,12 +1,15 @@
 package com.datadog.debugger.util;
 
+import datadog.trace.api.GenericClassValue;
 import datadog.trace.bootstrap.debugger.Limits;
 import datadog.trace.bootstrap.debugger.Snapshot;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.slf4j.Logger;
@@ -16,6 +19,10 @@ import org.slf4j.LoggerFactory;
 public class SerializerWithLimits {
   private static final Logger LOG = LoggerFactory.getLogger(SerializerWithLimits.class);
 
+  // fields of a class and its superclasses, in serialization order
+  private static final ClassValue<CachedField[]> FIELDS =
+      GenericClassValue.of(SerializerWithLimits::collectFields);
+
   public static boolean isPrimitive(String type) {
     switch (type) {
       case "byte":
@@ -173,40 +180,36 @@ public class SerializerWithLimits {
 
   private void serializeObjectValue(Object value, Limits limits) throws Exception {
     tokenWriter.objectPrologue(value);
-    Class<?> currentClass = value.getClass();
     int processedFieldCount = 0;
-    classLoop:
-    do {
-      Field[] fields = currentClass.getDeclaredFields();
-      for (Field field : fields) {
-        try {
-          if (!tokenWriter.objectFilterInField(field)) {
-            continue;
-          }
-          field.setAccessible(true);
-          Object fieldValue = field.get(value);
-          onField(field, fieldValue, limits);
-          processedFieldCount++;
-          if (processedFieldCount >= limits.maxFieldCount) {
-            tokenWriter.objectMaxFieldCount();
-            break classLoop;
-          }
-        } catch (Exception e) {
-          tokenWriter.handleFieldException(e, field);
+    for (CachedField cachedField : FIELDS.get(value.getClass())) {
+      Field field = cachedField.field;
+      try {
+        if (!tokenWriter.objectFilterInField(field)) {
+          continue;
         }
+        cachedField.ensureAccessible();
+        Object fieldValue = field.get(value);
+        onField(cachedField, fieldValue, limits);
+        processedFieldCount++;
+        if (processedFieldCount >= limits.maxFieldCount) {
+          tokenWriter.objectMaxFieldCount();
+          break;
+        }
+      } catch (Exception e) {
+        tokenWriter.handleFieldException(e, field);
       }
-    } while ((currentClass = currentClass.getSuperclass()) != null);
+    }
     tokenWriter.objectEpilogue(value);
   }
 
-  private void onField(Field field, Object value, Limits limits) throws Exception {
-    tokenWriter.objectFieldPrologue(field, value, limits.maxReferenceDepth);
+  private void onField(CachedField cachedField, Object value, Limits limits) throws Exception {
+    tokenWriter.objectFieldPrologue(cachedField.field, value, limits.maxReferenceDepth);
     Limits newLimits = Limits.decDepthLimits(limits);
     String typeName;
-    if (SerializerWithLimits.isPrimitive(field.getType().getTypeName())) {
-      typeName = field.getType().getTypeName();
+    if (cachedField.primitiveTypeName != null) {
+      typeName = cachedField.primitiveTypeName;
     } else {
-      typeName = value != null ? value.getClass().getTypeName() : field.getType().getTypeName();
+      typeName = value != null ? value.getClass().getTypeName() : cachedField.typeName;
     }
     serialize(
         value instanceof Snapshot.CapturedValue
@@ -216,6 +219,52 @@ public class SerializerWithLimits {
         newLimits);
   }
 
+  private static CachedField[] collectFields(Class<?> type) {
+    List<CachedField> fields = new ArrayList<>();
+    for (Class<?> currentClass = type;
+        currentClass != null;
+        currentClass = currentClass.getSuperclass()) {
+      for (Field field : currentClass.getDeclaredFields()) {
+        fields.add(new CachedField(field));
+      }
+    }
+    return fields.toArray(new CachedField[0]);
+  }
+
+  private static final class CachedField {
+    private static final Object ACCESSIBLE = new Object();
+
+    final Field field;
+    final String typeName;
+    // set when the declared type alone decides how the value is serialized
+    final String primitiveTypeName;
+    // null until the field is first read, so fields filtered out are never made accessible;
+    // then ACCESSIBLE, or the exception raised, which is reported on each serialization
+    private volatile Object accessState;
+
+    CachedField(Field field) {
+      this.field = field;
+      this.typeName = field.getType().getTypeName();
+      this.primitiveTypeName = isPrimitive(typeName) ? typeName : null;
+    }
+
+    void ensureAccessible() {
+      Object state = accessState;
+      if (state == null) {
+        try {
+          field.setAccessible(true);
+          state = ACCESSIBLE;
+        } catch (RuntimeException e) {
+          state = e;
+        }
+        accessState = state;
+      }
+      if (state != ACCESSIBLE) {
+        throw (RuntimeException) state;
+      }
+    }
+  }
+
   private boolean serializeLongArray(long[] longArray, int maxSize) throws Exception {
     maxSize = Math.min(longArray.length, maxSize);
     int i = 0;
@@ -1,6 +1,7 @@
 package com.datadog.debugger.agent;
 
 import static com.datadog.debugger.agent.Trie.reverseStr;
+import static com.datadog.debugger.util.ClassFileHelperTest.getClassFileBytes;
 import static java.util.Collections.emptyMap;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -408,6 +409,62 @@ class ConfigurationComparerTest {
         probe, sourceFileMapping, MyTopLevelClass.class, false, MyTopLevelClass.class);
   }
 
+  @Test
+  public void loadedChangedClassesDefinedByLoader() {
+    ShadowingClassLoader loader = new ShadowingClassLoader();
+    Class<?> shadowClass = loader.shadow(TopLevelHelper.class);
+    ClassesToRetransformFinder finder = new ClassesToRetransformFinder();
+    finder.indexLoadedClasses(() -> new Class<?>[0]);
+    finder.registerLoadedClass(TopLevelHelper.class.getName(), loader);
+    LogProbe probe =
+        LogProbe.builder().probeId(PROBE_ID).where(TopLevelHelper.class.getName(), "foo").build();
+    ConfigurationComparer configurationComparer =
+        new ConfigurationComparer(
+            createConfig(Collections.emptyList()),
+            createConfig(Collections.singletonList(probe)),
+            emptyMap());
+    // the loader resolves the name to the class defined by its parent
+    List<Class<?>> changedClasses =
+        finder.getLoadedChangedClasses(
+            configurationComparer, () -> new Class<?>[] {TopLevelHelper.class, shadowClass});
+    assertEquals(1, changedClasses.size());
+    assertSame(shadowClass, changedClasses.get(0));
+    // found once, not looked up again among all loaded classes
+    changedClasses =
+        finder.getLoadedChangedClasses(
+            configurationComparer,
+            () -> {
+              throw new AssertionError("all loaded classes requested");
+            });
+    assertSame(shadowClass, changedClasses.get(0));
+  }
+
+  @Test
+  public void loadedClassesTrackedOnlyWhileIndexed() {
+    ClassesToRetransformFinder finder = new ClassesToRetransformFinder();
+    LogProbe probe =
+        LogProbe.builder().probeId(PROBE_ID).where(TopLevelHelper.class.getName(), "foo").build();
+    ConfigurationComparer configurationComparer =
+        new ConfigurationComparer(
+            createConfig(Collections.emptyList()),
+            createConfig(Collections.singletonList(probe)),
+            emptyMap());
+    ClassLoader loader = TopLevelHelper.class.getClassLoader();
+    finder.registerLoadedClass(TopLevelHelper.class.getName(), loader);
+    assertFalse(finder.isLoadedClassesIndexed());
+    finder.indexLoadedClasses(() -> new Class<?>[0]);
+    assertTrue(finder.getLoadedChangedClasses(configurationComparer, () -> null).isEmpty());
+    finder.registerLoadedClass(TopLevelHelper.class.getName(), loader);
+    List<Class<?>> changedClasses =
+        finder.getLoadedChangedClasses(configurationComparer, () -> null);
+    assertEquals(1, changedClasses.size());
+    assertSame(TopLevelHelper.class, changedClasses.get(0));
+    finder.clearLoadedClasses();
+    assertFalse(finder.isLoadedClassesIndexed());
+    finder.registerLoadedClass(TopLevelHelper.class.getName(), loader);
+    assertTrue(finder.getLoadedChangedClasses(configurationComparer, () -> null).isEmpty());
+  }
+
   private void doAllLoadedChangedClasses(
       LogProbe probe,
       Map<String, List<String>> sourceFileMapping,
@@ -439,15 +496,33 @@ class ConfigurationComparerTest {
     }
     List<Class<?>> allLoadedChangedClasses =
         finder.getAllLoadedChangedClasses(loadedClass, configurationComparer);
+    finder.indexLoadedClasses(() -> loadedClass);
+    List<Class<?>> indexedChangedClasses =
+        finder.getLoadedChangedClasses(configurationComparer, () -> loadedClass);
     if (expectedClass != null) {
       assertEquals(1, allLoadedChangedClasses.size());
       assertEquals(expectedClass, allLoadedChangedClasses.get(0));
+      assertEquals(1, indexedChangedClasses.size());
+      assertEquals(expectedClass, indexedChangedClasses.get(0));
     } else {
       assertTrue(allLoadedChangedClasses.isEmpty());
+      assertTrue(indexedChangedClasses.isEmpty());
     }
   }
 
   private static Configuration createConfig(List<LogProbe> logProbes) {
     return new Configuration(SERVICE_NAME, logProbes);
   }
+
+  /** Defines copies of classes, while delegating first to its parent when loading by name */
+  private static class ShadowingClassLoader extends ClassLoader {
+    ShadowingClassLoader() {
+      super(ConfigurationComparerTest.class.getClassLoader());
+    }
+
+    Class<?> shadow(Class<?> clazz) {
+      byte[] bytes = getClassFileBytes(clazz);
+      return defineClass(clazz.getName(), bytes, 0, bytes.length);
+    }
+  }
 }
@@ -398,7 +398,7 @@ public class ConfigurationUpdaterTest {
     expectedDefinitions.set(0);
     configurationUpdater.accept(createApp(logProbes));
     verify(inst, times(1)).addTransformer(any(), eq(true)); // no transformer when no more probe
-    verify(inst, times(2)).getAllLoadedClasses();
+    verify(inst).getAllLoadedClasses(); // loaded classes are indexed once
     verify(inst, times(2)).retransformClasses(any());
     Map<String, ProbeDefinition> appliedDefinitions = configurationUpdater.getAppliedDefinitions();
     assertEquals(0, appliedDefinitions.size());
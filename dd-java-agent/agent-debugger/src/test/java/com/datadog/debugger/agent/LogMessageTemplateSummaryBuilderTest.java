@@ -221,6 +221,25 @@ class LogMessageTemplateSummaryBuilderTest {
     }
   }
 
+  @Test
+  public void literalsAroundArgsTemplate() {
+    LogProbe probe = createLogProbe("{{escaped}} arg={arg}, {{arg2}}={arg2}!");
+    LogMessageTemplate template = LogMessageTemplate.compile(probe.getSegments());
+    Snapshot.CapturedContext capturedContext = new Snapshot.CapturedContext();
+    capturedContext.addArguments(
+        new Snapshot.CapturedValue[] {
+          Snapshot.CapturedValue.of("arg", String.class.getTypeName(), "foo"),
+          Snapshot.CapturedValue.of("arg2", int.class.getTypeName(), 42)
+        });
+    // the rendering buffer is reused between hits
+    for (int i = 0; i < 2; i++) {
+      LogMessageTemplateSummaryBuilder summaryBuilder =
+          new LogMessageTemplateSummaryBuilder(template);
+      summaryBuilder.addEntry(capturedContext);
+      assertEquals("{escaped} arg=foo, {arg2}=42!", summaryBuilder.build());
+    }
+  }
+
   private LogProbe createLogProbe(String template) {
     return LogProbe.builder().template(template, parseTemplate(template)).build();
   }
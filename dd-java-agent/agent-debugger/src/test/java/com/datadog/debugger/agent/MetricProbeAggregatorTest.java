@@ -0,0 +1,67 @@
+package com.datadog.debugger.agent;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import datadog.trace.api.StatsDClient;
+import org.junit.jupiter.api.Test;
+
+public class MetricProbeAggregatorTest {
+  private static final String[] TAGS = new String[] {"probe_id:beae1807", "foo:bar"};
+
+  private final StatsDClient statsd = mock(StatsDClient.class);
+  private final MetricProbeAggregator aggregator = new MetricProbeAggregator();
+
+  @Test
+  public void countsSummed() {
+    aggregator.count("count", 1, TAGS);
+    aggregator.count("count", 41, TAGS.clone());
+    aggregator.count("count", 1, new String[] {"probe_id:beae1807"});
+    aggregator.flush(statsd);
+    verify(statsd).count("count", 42, TAGS);
+    verify(statsd).count("count", 1, "probe_id:beae1807");
+  }
+
+  @Test
+  public void countsPerName() {
+    aggregator.count("count", 1, TAGS);
+    aggregator.count("other", 2, TAGS);
+    aggregator.flush(statsd);
+    verify(statsd).count("count", 1, TAGS);
+    verify(statsd).count("other", 2, TAGS);
+  }
+
+  @Test
+  public void gaugeLastValue() {
+    aggregator.gauge("gauge", 12, TAGS);
+    aggregator.gauge("gauge", 42, TAGS);
+    aggregator.flush(statsd);
+    // not updated since, nothing to report
+    aggregator.flush(statsd);
+    verify(statsd).gauge("gauge", 42L, TAGS);
+  }
+
+  @Test
+  public void nothingToFlush() {
+    aggregator.count("count", 1, TAGS);
+    aggregator.gauge("gauge", 1, TAGS);
+    aggregator.flush(statsd);
+    StatsDClient next = mock(StatsDClient.class);
+    aggregator.flush(next);
+    verifyNoInteractions(next);
+  }
+
+  @Test
+  public void idleMetricsEvicted() {
+    aggregator.count("count", 1, TAGS);
+    for (int i = 0; i <= MetricProbeAggregator.MAX_IDLE_FLUSHES; i++) {
+      aggregator.flush(statsd);
+    }
+    // a new hit after eviction is reported again
+    aggregator.count("count", 2, TAGS);
+    aggregator.flush(statsd);
+    verify(statsd).count("count", 1, TAGS);
+    verify(statsd).count("count", 2, TAGS);
+  }
+}
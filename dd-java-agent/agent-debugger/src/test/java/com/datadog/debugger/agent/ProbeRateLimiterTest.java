@@ -0,0 +1,88 @@
+package com.datadog.debugger.agent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import datadog.trace.api.time.ControllableTimeSource;
+import datadog.trace.bootstrap.debugger.ProbeRateLimiter;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ProbeRateLimiterTest {
+  private static final String CHEAP_PROBE_ID = "cheap-probe";
+  private static final String EXPENSIVE_PROBE_ID = "expensive-probe";
+  private static final long TIME_BUDGET = 1_000_000_000L;
+
+  private final ControllableTimeSource timeSource = new ControllableTimeSource();
+
+  @BeforeEach
+  public void before() {
+    ProbeRateLimiter.setTimeSource(timeSource);
+  }
+
+  @AfterEach
+  public void after() {
+    ProbeRateLimiter.resetRate(CHEAP_PROBE_ID);
+    ProbeRateLimiter.resetRate(EXPENSIVE_PROBE_ID);
+    ProbeRateLimiter.resetGlobalRate();
+    ProbeRateLimiter.resetTimeBudget();
+    ProbeRateLimiter.resetTimeSource();
+  }
+
+  @Test
+  public void spentBudgetSkipsProbes() {
+    ProbeRateLimiter.setTimeBudget(TIME_BUDGET);
+    assertTrue(ProbeRateLimiter.tryBudget(CHEAP_PROBE_ID));
+    ProbeRateLimiter.recordCost(CHEAP_PROBE_ID, TIME_BUDGET);
+    assertFalse(ProbeRateLimiter.tryBudget(CHEAP_PROBE_ID));
+  }
+
+  @Test
+  public void budgetRestoredNextSecond() {
+    ProbeRateLimiter.setTimeBudget(TIME_BUDGET);
+    ProbeRateLimiter.recordCost(CHEAP_PROBE_ID, TIME_BUDGET);
+    assertFalse(ProbeRateLimiter.tryBudget(CHEAP_PROBE_ID));
+    timeSource.advance(TIME_BUDGET);
+    assertTrue(ProbeRateLimiter.tryBudget(CHEAP_PROBE_ID));
+  }
+
+  @Test
+  public void expensiveProbeHeldBackOnceHalfBudgetSpent() {
+    ProbeRateLimiter.setTimeBudget(TIME_BUDGET);
+    assertTrue(ProbeRateLimiter.tryBudget(CHEAP_PROBE_ID));
+    assertTrue(ProbeRateLimiter.tryBudget(EXPENSIVE_PROBE_ID));
+    // more than half of the budget, and more than its fair share
+    ProbeRateLimiter.recordCost(EXPENSIVE_PROBE_ID, TIME_BUDGET * 3 / 4);
+    assertFalse(ProbeRateLimiter.tryBudget(EXPENSIVE_PROBE_ID));
+    assertTrue(ProbeRateLimiter.tryBudget(CHEAP_PROBE_ID));
+  }
+
+  @Test
+  public void noBudgetByDefault() {
+    assertFalse(ProbeRateLimiter.hasTimeBudget());
+    assertTrue(ProbeRateLimiter.tryBudget(CHEAP_PROBE_ID));
+    ProbeRateLimiter.recordCost(CHEAP_PROBE_ID, TIME_BUDGET);
+    assertTrue(ProbeRateLimiter.tryBudget(CHEAP_PROBE_ID));
+    Map<String, Long> reported = new HashMap<>();
+    ProbeRateLimiter.reportCosts(reported::put);
+    assertTrue(reported.isEmpty());
+  }
+
+  @Test
+  public void reportCosts() {
+    ProbeRateLimiter.setTimeBudget(TIME_BUDGET);
+    ProbeRateLimiter.recordCost(EXPENSIVE_PROBE_ID, 1000);
+    ProbeRateLimiter.recordCost(EXPENSIVE_PROBE_ID, TIME_BUDGET);
+    Map<String, Long> reported = new HashMap<>();
+    ProbeRateLimiter.reportCosts(reported::put);
+    assertEquals(1, reported.size());
+    assertEquals(TIME_BUDGET + 1000, reported.get(EXPENSIVE_PROBE_ID));
+    reported.clear();
+    ProbeRateLimiter.reportCosts(reported::put);
+    assertTrue(reported.isEmpty());
+  }
+}
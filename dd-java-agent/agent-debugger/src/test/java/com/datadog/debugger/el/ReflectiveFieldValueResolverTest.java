@@ -0,0 +1,51 @@
+package com.datadog.debugger.el;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import datadog.trace.bootstrap.debugger.el.ReflectiveFieldValueResolver;
+import datadog.trace.bootstrap.debugger.el.Values;
+import org.junit.jupiter.api.Test;
+
+public class ReflectiveFieldValueResolverTest {
+  static class Parent {
+    private static final String CONSTANT = "constant";
+    private final String parentValue = "parent";
+  }
+
+  static class Child extends Parent {
+    private final int childValue = 42;
+  }
+
+  @Test
+  void resolvesFieldsRepeatedly() {
+    Child child = new Child();
+    for (int i = 0; i < 2; i++) {
+      assertEquals(42, ReflectiveFieldValueResolver.resolve(child, Child.class, "childValue"));
+      assertEquals(
+          "parent", ReflectiveFieldValueResolver.resolve(child, Child.class, "parentValue"));
+      assertEquals(
+          "constant", ReflectiveFieldValueResolver.resolve(child, Child.class, "CONSTANT"));
+    }
+  }
+
+  @Test
+  void missingFieldIsUndefinedRepeatedly() {
+    Child child = new Child();
+    for (int i = 0; i < 2; i++) {
+      assertEquals(
+          Values.UNDEFINED_OBJECT,
+          ReflectiveFieldValueResolver.resolve(child, Child.class, "missing"));
+    }
+  }
+
+  @Test
+  void fieldsAreResolvedPerClass() {
+    // same field name, looked up on the parent first, then on the child
+    assertEquals(
+        "parent", ReflectiveFieldValueResolver.resolve(new Parent(), Parent.class, "parentValue"));
+    assertEquals(
+        Values.UNDEFINED_OBJECT,
+        ReflectiveFieldValueResolver.resolve(new Parent(), Parent.class, "childValue"));
+    assertEquals(42, ReflectiveFieldValueResolver.resolve(new Child(), Child.class, "childValue"));
+  }
+}
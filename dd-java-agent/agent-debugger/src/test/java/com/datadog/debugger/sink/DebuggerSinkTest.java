@@ -2,13 +2,14 @@ package com.datadog.debugger.sink;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.matches;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static utils.TestHelper.getFixtureContent;
 
@@ -122,7 +123,7 @@ public class DebuggerSinkTest {
     }
     sink.addSnapshot(largeSnapshot);
     sink.flush(sink);
-    verifyNoInteractions(batchUploader);
+    verify(batchUploader, never()).upload(any(), anyString());
   }
 
   @Test
@@ -135,14 +136,14 @@ public class DebuggerSinkTest {
     }
     sink.addSnapshot(largeSnapshot);
     sink.flush(sink);
-    verifyNoInteractions(batchUploader);
+    verify(batchUploader, never()).upload(any(), anyString());
   }
 
   @Test
   public void addNoSnapshots() {
     DebuggerSink sink = new DebuggerSink(config, batchUploader);
     sink.flush(sink);
-    verifyNoInteractions(batchUploader);
+    verify(batchUploader, never()).upload(any(), anyString());
   }
 
   @Test
@@ -204,7 +205,7 @@ public class DebuggerSinkTest {
     String tooLargeMessage = tooLargeMessageBuilder.toString();
     sink.getProbeDiagnosticsSink().addError("1", tooLargeMessage);
     sink.flush(sink);
-    verifyNoInteractions(batchUploader);
+    verify(batchUploader, never()).upload(any(), anyString());
   }
 
   @Test
@@ -218,14 +219,14 @@ public class DebuggerSinkTest {
     String tooLargeMessage = tooLargeMessageBuilder.toString();
     sink.getProbeDiagnosticsSink().addError("1", tooLargeMessage);
     sink.flush(sink);
-    verifyNoInteractions(batchUploader);
+    verify(batchUploader, never()).upload(any(), anyString());
   }
 
   @Test
   public void addNoDiagnostic() {
     DebuggerSink sink = new DebuggerSink(config, batchUploader);
     sink.flush(sink);
-    verifyNoInteractions(batchUploader);
+    verify(batchUploader, never()).upload(any(), anyString());
   }
 
   @Test
@@ -255,6 +256,35 @@ public class DebuggerSinkTest {
     assertEquals(currentFlushInterval - DebuggerSink.STEP_SIZE, newFlushInterval);
   }
 
+  @Test
+  public void reconsiderFlushIntervalSaturatedUploader() {
+    when(batchUploader.isSaturated()).thenReturn(true);
+    DebuggerSink sink = new DebuggerSink(config, batchUploader);
+    long currentFlushInterval = sink.getCurrentFlushInterval();
+    Snapshot snapshot =
+        new Snapshot(Thread.currentThread(), new Snapshot.ProbeDetails(PROBE_ID, PROBE_LOCATION));
+    for (int i = 0; i < 1000; i++) {
+      sink.addSnapshot(snapshot);
+    }
+    sink.doReconsiderFlushInterval();
+    long newFlushInterval = sink.getCurrentFlushInterval();
+    assertEquals(currentFlushInterval + DebuggerSink.STEP_SIZE, newFlushInterval);
+  }
+
+  @Test
+  public void flushSaturatedUploader() {
+    when(batchUploader.isSaturated()).thenReturn(true, false);
+    DebuggerSink sink = new DebuggerSink(config, batchUploader);
+    Snapshot snapshot =
+        new Snapshot(Thread.currentThread(), new Snapshot.ProbeDetails(PROBE_ID, PROBE_LOCATION));
+    sink.addSnapshot(snapshot);
+    sink.flush(sink);
+    verify(batchUploader, never()).upload(any(), anyString());
+    // snapshots were kept in the sink and are uploaded once requests complete
+    sink.flush(sink);
+    verify(batchUploader).upload(payloadCaptor.capture(), matches(EXPECTED_SNAPSHOT_TAGS));
+  }
+
   @Test
   public void reconsiderFlushIntervalNoChange() {
     DebuggerSink sink = new DebuggerSink(config, batchUploader);
@@ -361,5 +391,21 @@ public class DebuggerSinkTest {
     sink.skipSnapshot(snapshot.getProbe().getId(), DebuggerContext.SkipCause.RATE);
     verify(debuggerMetrics)
         .incrementCounter(anyString(), eq("cause:rate"), eq("probe_id:" + PROBE_ID));
+    sink.skipSnapshot(snapshot.getProbe().getId(), DebuggerContext.SkipCause.BUDGET);
+    verify(debuggerMetrics)
+        .incrementCounter(anyString(), eq("cause:budget"), eq("probe_id:" + PROBE_ID));
+  }
+
+  @Test
+  public void droppedSnapshotsReportedOnFlush() {
+    DebuggerMetrics debuggerMetrics = spy(DebuggerMetrics.getInstance(config));
+    DebuggerSink sink = new DebuggerSink(config, batchUploader, debuggerMetrics);
+    Snapshot snapshot =
+        new Snapshot(Thread.currentThread(), new Snapshot.ProbeDetails(PROBE_ID, PROBE_LOCATION));
+    for (int i = 0; i < 1010; i++) {
+      sink.addSnapshot(snapshot);
+    }
+    sink.flush(sink);
+    verify(debuggerMetrics).count(eq("debugger.sink.dropped.requests"), eq(10L));
   }
 }
@@ -0,0 +1,54 @@
+package com.datadog.debugger.sink;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class IntakeBatchHelperTest {
+
+  private static final int MAX_PAYLOAD_SIZE = 5 * 1024 * 1024;
+
+  @Test
+  void noPayloads() {
+    assertTrue(IntakeBatchHelper.createBatches(Collections.emptyList()).isEmpty());
+  }
+
+  @Test
+  void singleBatch() {
+    List<byte[]> batches =
+        IntakeBatchHelper.createBatches(Arrays.asList("{\"a\":1}", "\"éè\"", "3"));
+    assertEquals(1, batches.size());
+    assertEquals("[{\"a\":1},\"éè\",3]", new String(batches.get(0), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void splitOnUTF8Size() {
+    // 1.5M chars but 3MB once encoded, only one fits in a batch
+    String payload = "\"" + repeat('é', 1536 * 1024) + "\"";
+    List<byte[]> batches = IntakeBatchHelper.createBatches(Arrays.asList(payload, payload));
+    assertEquals(2, batches.size());
+    for (byte[] batch : batches) {
+      assertTrue(batch.length < MAX_PAYLOAD_SIZE);
+      assertEquals("[" + payload + "]", new String(batch, StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  void skipTooLargePayload() {
+    String tooLarge = "\"" + repeat('a', MAX_PAYLOAD_SIZE) + "\"";
+    List<byte[]> batches = IntakeBatchHelper.createBatches(Arrays.asList("1", tooLarge, "2"));
+    assertEquals(1, batches.size());
+    assertEquals("[1,2]", new String(batches.get(0), StandardCharsets.UTF_8));
+  }
+
+  private static String repeat(char c, int count) {
+    char[] chars = new char[count];
+    Arrays.fill(chars, c);
+    return new String(chars);
+  }
+}
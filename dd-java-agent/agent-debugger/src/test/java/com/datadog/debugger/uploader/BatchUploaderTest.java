@@ -1,6 +1,7 @@
 package com.datadog.debugger.uploader;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -24,6 +25,8 @@ import okhttp3.HttpUrl;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
+import okio.GzipSource;
+import okio.Okio;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -194,6 +197,77 @@ public class BatchUploaderTest {
     assertNull(server.takeRequest(100, TimeUnit.MILLISECONDS), "No more requests");
   }
 
+  @Test
+  public void testCoalesceWhenBusy() throws InterruptedException {
+    when(config.getDebuggerUploadMaxInflight()).thenReturn(1);
+    uploader = new BatchUploader(config, ratelimitedLogger);
+    server.enqueue(
+        new MockResponse().setHeadersDelay(500, TimeUnit.MILLISECONDS).setResponseCode(200));
+    server.enqueue(new MockResponse().setResponseCode(200));
+
+    uploader.upload(bytes("[{\"id\":1}]"), "tag:1");
+    // batches uploaded while the request is in flight are merged into the next request
+    uploader.upload(bytes("[{\"id\":2}]"), "tag:1");
+    uploader.upload(bytes("[{\"id\":3},{\"id\":4}]"), "tag:1");
+
+    assertEquals("[{\"id\":1}]", server.takeRequest(5, TimeUnit.SECONDS).getBody().readUtf8());
+    RecordedRequest coalesced = server.takeRequest(5, TimeUnit.SECONDS);
+    assertEquals("[{\"id\":2},{\"id\":3},{\"id\":4}]", coalesced.getBody().readUtf8());
+    assertEquals(URL_PATH + "?ddtags=tag%3A1", coalesced.getPath());
+    assertNull(server.takeRequest(100, TimeUnit.MILLISECONDS), "No more requests");
+  }
+
+  @Test
+  public void testDifferentTagsNotCoalesced() throws InterruptedException {
+    when(config.getDebuggerUploadMaxInflight()).thenReturn(1);
+    uploader = new BatchUploader(config, ratelimitedLogger);
+    server.enqueue(
+        new MockResponse().setHeadersDelay(500, TimeUnit.MILLISECONDS).setResponseCode(200));
+    server.enqueue(new MockResponse().setResponseCode(200));
+    server.enqueue(new MockResponse().setResponseCode(200));
+
+    uploader.upload(bytes("[1]"), "tag:1");
+    uploader.upload(bytes("[2]"), "tag:1");
+    uploader.upload(bytes("[3]"), "tag:2");
+
+    assertEquals("[1]", server.takeRequest(5, TimeUnit.SECONDS).getBody().readUtf8());
+    assertEquals("[2]", server.takeRequest(5, TimeUnit.SECONDS).getBody().readUtf8());
+    assertEquals("[3]", server.takeRequest(5, TimeUnit.SECONDS).getBody().readUtf8());
+  }
+
+  @Test
+  public void testSaturated() throws InterruptedException {
+    when(config.getDebuggerUploadMaxInflight()).thenReturn(1);
+    when(config.getDebuggerUploadTimeout()).thenReturn((int) FOREVER_REQUEST_TIMEOUT.getSeconds());
+    uploader = new BatchUploader(config, ratelimitedLogger);
+    server.enqueue(
+        new MockResponse()
+            .setHeadersDelay(FOREVER_REQUEST_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+            .setResponseCode(200));
+
+    uploader.upload(SNAPSHOT_BUFFER);
+    assertFalse(uploader.isSaturated());
+    // batches which are not JSON arrays cannot be merged, each of them waits on its own
+    for (int i = 0; i < BatchUploader.MAX_ENQUEUED_REQUESTS; i++) {
+      uploader.upload(SNAPSHOT_BUFFER);
+    }
+    assertTrue(uploader.isSaturated());
+    assertNotNull(server.takeRequest(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testGzipCompression() throws InterruptedException, IOException {
+    when(config.getDebuggerUploadCompression()).thenReturn("gzip");
+    uploader = new BatchUploader(config, ratelimitedLogger);
+    server.enqueue(new MockResponse().setResponseCode(200));
+
+    uploader.upload(bytes("[{\"id\":1}]"));
+
+    RecordedRequest request = server.takeRequest(5, TimeUnit.SECONDS);
+    assertEquals("gzip", request.getHeader("Content-Encoding"));
+    assertEquals("[{\"id\":1}]", Okio.buffer(new GzipSource(request.getBody())).readUtf8());
+  }
+
   @Test
   public void testShutdown() throws IOException, InterruptedException {
     uploader.shutdown();
@@ -234,4 +308,8 @@ public class BatchUploaderTest {
     RecordedRequest request = server.takeRequest(100, TimeUnit.MILLISECONDS);
     assertEquals("testContainerId", request.getHeader("Datadog-Container-ID"));
   }
+
+  private static byte[] bytes(String str) {
+    return str.getBytes(StandardCharsets.UTF_8);
+  }
 }
@@ -74,6 +74,19 @@ class StringTokenWriterTest {
             new Limits(DEFAULT_REFERENCE_DEPTH, DEFAULT_COLLECTION_SIZE, DEFAULT_LENGTH, 2)));
   }
 
+  @Test
+  public void parentFieldsAfterFieldCountLimit() throws Exception {
+    // fields of a class are collected once, the limits of a previous serialization don't stick
+    assertEquals(
+        "{valueField=4, ...}",
+        serializeValue(
+            new LeafClass(),
+            new Limits(DEFAULT_REFERENCE_DEPTH, DEFAULT_COLLECTION_SIZE, DEFAULT_LENGTH, 1)));
+    assertEquals(
+        "{valueField=4, field3=3, field2=2, field1=1}",
+        serializeValue(new LeafClass(), Limits.DEFAULT));
+  }
+
   static class Person {
     private static final String C1 = "constant1";
     private static final int C2 = 42;
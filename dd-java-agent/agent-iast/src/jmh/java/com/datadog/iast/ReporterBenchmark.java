@@ -0,0 +1,90 @@
+package com.datadog.iast;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.datadog.iast.model.Evidence;
+import com.datadog.iast.model.Location;
+import com.datadog.iast.model.Vulnerability;
+import com.datadog.iast.model.VulnerabilityType;
+import datadog.trace.bootstrap.instrumentation.api.AgentSpan;
+import datadog.trace.bootstrap.instrumentation.api.AgentTracer;
+import datadog.trace.bootstrap.instrumentation.api.TagContext;
+import datadog.trace.common.writer.ListWriter;
+import datadog.trace.core.CoreTracer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reports already seen vulnerabilities from many threads, which is the common case once an
+ * application has been running for a while and stresses the shared deduplication filter.
+ */
+@Warmup(iterations = 1, time = 1000, timeUnit = MILLISECONDS)
+@Measurement(iterations = 3, time = 1000, timeUnit = MILLISECONDS)
+@Fork(3)
+@Threads(8)
+@OutputTimeUnit(NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class ReporterBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class SharedState {
+
+    @Param({"16", "512"})
+    int distinctVulnerabilities;
+
+    Reporter reporter;
+    Vulnerability[] vulnerabilities;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      AgentTracer.forceRegister(CoreTracer.builder().writer(new ListWriter()).build());
+      reporter = new Reporter(new Reporter.HashBasedDeduplication(null));
+      vulnerabilities = new Vulnerability[distinctVulnerabilities];
+      for (int i = 0; i < vulnerabilities.length; i++) {
+        vulnerabilities[i] =
+            new Vulnerability(
+                VulnerabilityType.WEAK_HASH,
+                Location.forSpanAndStack(0, new StackTraceElement("foo", "foo", "foo", i)),
+                new Evidence("MD5"));
+      }
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class RequestState {
+
+    AgentSpan span;
+    int index;
+
+    @Setup(Level.Iteration)
+    public void start() {
+      final TagContext tagContext =
+          new TagContext().withRequestContextDataIast(new IastRequestContext());
+      span = AgentTracer.startSpan("benchmark", tagContext);
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop() {
+      span.finish();
+    }
+  }
+
+  @Benchmark
+  public void report(final SharedState shared, final RequestState request) {
+    final Vulnerability[] vulnerabilities = shared.vulnerabilities;
+    shared.reporter.report(request.span, vulnerabilities[request.index++ % vulnerabilities.length]);
+  }
+}
@@ -43,4 +43,18 @@ public class OverheadControllerBenchmark {
   public void consumeQuota() {
     overheadController.consumeQuota(Operations.REPORT_VULNERABILITY, null);
   }
+
+  @Benchmark
+  public void measuredRequest() {
+    if (overheadController.acquireRequest()) {
+      final OverheadContext context = new OverheadContext();
+      final long start = ThreadCpuTime.now();
+      overheadController.consumeQuota(Operations.REPORT_VULNERABILITY, null);
+      overheadController.recordCost(null, ThreadCpuTime.now() - start);
+      overheadController.requestEnded(context);
+      overheadController.releaseRequest();
+    } else {
+      throw new IllegalStateException();
+    }
+  }
 }
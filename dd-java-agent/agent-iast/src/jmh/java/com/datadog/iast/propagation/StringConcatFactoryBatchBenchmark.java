@@ -42,7 +42,8 @@ public class StringConcatFactoryBatchBenchmark
   @Param({"10", "100"})
   public int stringCount;
 
-  @Param({"0", "50", "100"})
+  /** 0 means nothing in the request is tainted, -1 means only an unrelated value is tainted */
+  @Param({"-1", "0", "50", "100"})
   public int taintedPct;
 
   @Override
@@ -60,6 +61,10 @@ public class StringConcatFactoryBatchBenchmark
       }
       values[i] = value;
     }
+    if (taintedPct < 0) {
+      // taint a value outside the concatenation, so arguments have to be looked up
+      tainted(context, "Unrelated", new Range(0, 9, source()));
+    }
     return new StringConcatFactoryBatchBenchmark.Context(context, values, stringCount);
   }
 
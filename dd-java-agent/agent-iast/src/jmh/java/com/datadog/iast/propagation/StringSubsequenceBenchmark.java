@@ -34,8 +34,15 @@ public class StringSubsequenceBenchmark
             taintedModifyRange,
             new Range[] {new Range(1, RANGE_SIZE, new Source((byte) 1, "key", "value"))});
 
+    final String taintedKeepRanges = new String(DEFAULT_STRING);
+    iastRequestContext
+        .getTaintedObjects()
+        .taint(
+            taintedKeepRanges,
+            new Range[] {new Range(0, RANGE_SIZE, new Source((byte) 2, "key", "value"))});
+
     return new StringSubsequenceBenchmark.Context(
-        iastRequestContext, notTainted, taintedLoseRange, taintedModifyRange);
+        iastRequestContext, notTainted, taintedLoseRange, taintedModifyRange, taintedKeepRanges);
   }
 
   @Benchmark
@@ -68,6 +75,19 @@ public class StringSubsequenceBenchmark
     return instrumentStringSubsequence(context.taintedModifyRange);
   }
 
+  /**
+   * For a tainted String with one range subsequence from the start returns a CharSequence sharing
+   * the same ranges
+   */
+  @Benchmark
+  @Fork(jvmArgsAppend = {"-Ddd.iast.enabled=true"})
+  public CharSequence taintedKeepRanges() {
+    final String self = context.taintedKeepRanges;
+    final CharSequence result = self.subSequence(0, END_INDEX);
+    InstrumentationBridge.STRING.onStringSubSequence(self, 0, END_INDEX, result);
+    return result;
+  }
+
   private CharSequence instrumentStringSubsequence(final String self) {
     final CharSequence result = self.subSequence(BEGIN_INDEX, END_INDEX);
     InstrumentationBridge.STRING.onStringSubSequence(self, BEGIN_INDEX, END_INDEX, result);
@@ -81,15 +101,19 @@ public class StringSubsequenceBenchmark
 
     private final String taintedModifyRange;
 
+    private final String taintedKeepRanges;
+
     protected Context(
         final IastRequestContext iastContext,
         final String notTainted,
         final String taintedLoseRange,
-        final String taintedModifyRange) {
+        final String taintedModifyRange,
+        final String taintedKeepRanges) {
       super(iastContext);
       this.notTainted = notTainted;
       this.taintedLoseRange = taintedLoseRange;
       this.taintedModifyRange = taintedModifyRange;
+      this.taintedKeepRanges = taintedKeepRanges;
     }
   }
 }
@@ -0,0 +1,72 @@
+package com.datadog.iast.taint;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.datadog.iast.model.Range;
+import java.lang.ref.ReferenceQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Timeout;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Simulates one concurrent request per core, each tainting a few objects in its own map before releasing
+ * it, comparing a full-size table with one that starts small and grows.
+ */
+@Warmup(iterations = 1, time = 1000, timeUnit = MILLISECONDS)
+@Measurement(iterations = 3, time = 1000, timeUnit = MILLISECONDS)
+@Timeout(time = 10000, timeUnit = MILLISECONDS)
+@Fork(3)
+@Threads(Threads.MAX)
+@OutputTimeUnit(NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class TaintedMapRequestsBenchmark {
+
+  private static final Range[] EMPTY_RANGES = new Range[0];
+
+  @Param({"16", "256"})
+  int taintedPerRequest;
+
+  @Param({"256", "16384"})
+  int initialCapacity;
+
+  private TaintedMap map;
+  private Object[] objects;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    map =
+        new DefaultTaintedMap(
+            initialCapacity,
+            DefaultTaintedMap.DEFAULT_CAPACITY,
+            DefaultTaintedMap.DEFAULT_FLAT_MODE_THRESHOLD,
+            new ReferenceQueue<>());
+    objects = new Object[taintedPerRequest];
+  }
+
+  @Benchmark
+  public void request(final Blackhole bh) {
+    for (int i = 0; i < objects.length; i++) {
+      final Object k = new Object();
+      objects[i] = k;
+      map.put(new TaintedObject(k, EMPTY_RANGES, map.getReferenceQueue()));
+    }
+    for (final Object k : objects) {
+      bh.consume(map.get(k));
+    }
+    map.clear();
+  }
+}
@@ -1,9 +1,13 @@
 package com.datadog.iast;
 
 import com.datadog.iast.HasDependencies.Dependencies;
+import com.datadog.iast.overhead.CostSampler;
 import com.datadog.iast.overhead.OverheadController;
 import com.datadog.iast.propagation.PropagationModuleImpl;
 import com.datadog.iast.propagation.StringModuleImpl;
+import com.datadog.iast.propagation.TimedPropagationModule;
+import com.datadog.iast.propagation.TimedStringModule;
+import com.datadog.iast.propagation.TimedUrlModule;
 import com.datadog.iast.propagation.UrlModuleImpl;
 import com.datadog.iast.sink.CommandInjectionModuleImpl;
 import com.datadog.iast.sink.LdapInjectionModuleImpl;
@@ -22,10 +26,14 @@ import datadog.trace.api.gateway.RequestContext;
 import datadog.trace.api.gateway.SubscriptionService;
 import datadog.trace.api.iast.IastModule;
 import datadog.trace.api.iast.InstrumentationBridge;
+import datadog.trace.api.iast.propagation.PropagationModule;
+import datadog.trace.api.iast.propagation.StringModule;
+import datadog.trace.api.iast.propagation.UrlModule;
 import datadog.trace.util.AgentTaskScheduler;
 import datadog.trace.util.stacktrace.StackWalkerFactory;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 import org.slf4j.Logger;
@@ -61,7 +69,11 @@ public class IastSystem {
     final Dependencies dependencies =
         new Dependencies(
             config, reporter, overheadController, telemetry, StackWalkerFactory.INSTANCE);
-    iastModules().forEach(registerModule(dependencies));
+    Stream<IastModule> modules = iastModules();
+    if (config.getIastOverheadBudget() > 0) {
+      modules = modules.map(withCostSampling(new CostSampler(overheadController)));
+    }
+    modules.forEach(registerModule(dependencies));
     registerRequestStartedCallback(ss, dependencies);
     registerRequestEndedCallback(ss, dependencies);
     LOGGER.debug("IAST started");
@@ -76,6 +88,20 @@ public class IastSystem {
     };
   }
 
+  /** Times a sample of propagation calls, which are too frequent to be timed one by one. */
+  private static Function<IastModule, IastModule> withCostSampling(final CostSampler costSampler) {
+    return module -> {
+      if (module instanceof StringModule) {
+        return new TimedStringModule((StringModule) module, costSampler);
+      } else if (module instanceof UrlModule) {
+        return new TimedUrlModule((UrlModule) module, costSampler);
+      } else if (module instanceof PropagationModule) {
+        return new TimedPropagationModule((PropagationModule) module, costSampler);
+      }
+      return module;
+    };
+  }
+
   private static Stream<IastModule> iastModules() {
     return Stream.of(
         new WebModuleImpl(),
@@ -11,9 +11,9 @@ import datadog.trace.api.gateway.RequestContextSlot;
 import datadog.trace.api.internal.TraceSegment;
 import datadog.trace.bootstrap.instrumentation.api.*;
 import datadog.trace.util.AgentTaskScheduler;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.function.Predicate;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -97,14 +97,26 @@ public class Reporter {
   /**
    * This class maintains a set of vulnerability hashes that have already been reported, we don't
    * care about thread safety too much as an occasional duplicated report is not a big deal.
+   *
+   * <p>Hashes are kept as primitive longs in a fixed size open addressing table updated with CAS,
+   * so reports neither box nor lock. Once the table holds more than {@code maxSize} hashes, or
+   * every hour, it's replaced by an empty one so vulnerabilities are eventually reported again.
    */
   protected static class HashBasedDeduplication implements Predicate<Vulnerability> {
 
     private static final int DEFAULT_MAX_SIZE = 1000;
 
+    /** Marks a free slot, a hash with this value is stored as {@link #ZERO_HASH} instead. */
+    private static final long EMPTY = 0;
+
+    private static final long ZERO_HASH = Long.MIN_VALUE;
+
     private final int maxSize;
 
-    private final Set<Long> hashes;
+    /** Power of two at least twice {@code maxSize} so probing always finds a free slot quickly. */
+    private final int capacity;
+
+    private volatile HashTable hashes;
 
     public HashBasedDeduplication(final AgentTaskScheduler taskScheduler) {
       this(DEFAULT_MAX_SIZE, taskScheduler);
@@ -112,23 +124,66 @@ public class Reporter {
 
     HashBasedDeduplication(final int size, final AgentTaskScheduler taskScheduler) {
       maxSize = size;
-      hashes = ConcurrentHashMap.newKeySet(size);
+      capacity = Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1;
+      hashes = new HashTable(capacity);
       if (taskScheduler != null) {
         // Reset deduplication cache every hour. This helps the backend when calculating exposure
         // windows, by sending
         // the same vulnerabilities from time to time.
-        taskScheduler.scheduleAtFixedRate(hashes::clear, 1, 1, TimeUnit.HOURS);
+        taskScheduler.scheduleAtFixedRate(this::clear, 1, 1, TimeUnit.HOURS);
       }
     }
 
     @Override
     public boolean test(final Vulnerability vulnerability) {
-      final boolean newVulnerability = hashes.add(vulnerability.getHash());
-      if (newVulnerability && hashes.size() > maxSize) {
-        hashes.clear();
-        hashes.add(vulnerability.getHash());
+      final long hash = vulnerability.getHash() == EMPTY ? ZERO_HASH : vulnerability.getHash();
+      final HashTable current = hashes;
+      final boolean newVulnerability = current.add(hash);
+      if (newVulnerability && current.size.incrementAndGet() > maxSize) {
+        final HashTable fresh = new HashTable(capacity);
+        fresh.add(hash);
+        fresh.size.set(1);
+        hashes = fresh;
       }
       return !newVulnerability;
     }
+
+    private void clear() {
+      hashes = new HashTable(capacity);
+    }
+
+    private static final class HashTable {
+
+      private final AtomicLongArray slots;
+
+      private final int mask;
+
+      final AtomicInteger size = new AtomicInteger();
+
+      HashTable(final int capacity) {
+        slots = new AtomicLongArray(capacity);
+        mask = capacity - 1;
+      }
+
+      /** Returns {@code true} if the hash was not present in the table. */
+      boolean add(final long hash) {
+        int index = (int) (hash ^ (hash >>> 32)) * 0x9E3779B9 & mask;
+        for (int probes = 0; probes <= mask; probes++) {
+          long current = slots.get(index);
+          if (current == EMPTY) {
+            if (slots.compareAndSet(index, EMPTY, hash)) {
+              return true;
+            }
+            current = slots.get(index);
+          }
+          if (current == hash) {
+            return false;
+          }
+          index = (index + 1) & mask;
+        }
+        // full table, only possible with racing adds before the table is replaced
+        return true;
+      }
+    }
   }
 }
@@ -4,6 +4,7 @@ import static com.datadog.iast.IastTag.ANALYZED;
 import static com.datadog.iast.IastTag.SKIPPED;
 
 import com.datadog.iast.HasDependencies.Dependencies;
+import com.datadog.iast.overhead.OverheadContext;
 import com.datadog.iast.overhead.OverheadController;
 import com.datadog.iast.taint.TaintedObjects;
 import com.datadog.iast.telemetry.IastTelemetry;
@@ -31,6 +32,10 @@ public class RequestEndedHandler implements BiFunction<RequestContext, IGSpanInf
     if (iastRequestContext != null) {
       try {
         ANALYZED.setTagTop(traceSegment);
+        final OverheadContext overheadContext = iastRequestContext.getOverheadContext();
+        if (overheadContext != null) {
+          overheadController.requestEnded(overheadContext);
+        }
         final TaintedObjects taintedObjects = iastRequestContext.getTaintedObjects();
         if (taintedObjects != null) {
           taintedObjects.release();
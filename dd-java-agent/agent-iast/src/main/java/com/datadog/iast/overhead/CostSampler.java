@@ -0,0 +1,36 @@
+package com.datadog.iast.overhead;
+
+import datadog.trace.bootstrap.instrumentation.api.AgentTracer;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.annotation.Nonnull;
+
+/**
+ * Times a random sample of one in {@link #SAMPLING} calls with the thread CPU clock, and records
+ * their cost scaled up as an estimate of the cost of all calls. Reading the clock costs more than
+ * most propagations, so they cannot all be timed.
+ */
+public final class CostSampler {
+
+  static final int SAMPLING = 64;
+
+  /** Returned by {@link #start()} for calls that are not timed. */
+  public static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+  private final OverheadController overheadController;
+
+  public CostSampler(@Nonnull final OverheadController overheadController) {
+    this.overheadController = overheadController;
+  }
+
+  /** Returns the start time of the call, or {@link #NOT_SAMPLED} if it is not timed. */
+  public long start() {
+    return ThreadLocalRandom.current().nextInt(SAMPLING) == 0 ? ThreadCpuTime.now() : NOT_SAMPLED;
+  }
+
+  public void end(final long start) {
+    if (start != NOT_SAMPLED) {
+      final long cost = ThreadCpuTime.now() - start;
+      overheadController.recordCost(AgentTracer.activeSpan(), SAMPLING * cost);
+    }
+  }
+}
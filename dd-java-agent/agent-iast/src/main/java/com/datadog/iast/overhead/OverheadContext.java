@@ -4,11 +4,21 @@ import static datadog.trace.api.iast.IastDetectionMode.UNLIMITED;
 
 import com.datadog.iast.util.NonBlockingSemaphore;
 import datadog.trace.api.Config;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class OverheadContext {
 
+  /** Budget usage of a request that has not ended or whose cost was not measured. */
+  public static final int NOT_MEASURED = -1;
+
   private final NonBlockingSemaphore availableVulnerabilities;
 
+  private final long startNanos = System.nanoTime();
+
+  private final AtomicLong costNanos = new AtomicLong();
+
+  private volatile int budgetUsage = NOT_MEASURED;
+
   public OverheadContext() {
     this(Config.get().getIastVulnerabilitiesPerRequest());
   }
@@ -31,4 +41,26 @@ public class OverheadContext {
   public void reset() {
     availableVulnerabilities.reset();
   }
+
+  /** Adds CPU time spent by IAST on behalf of this request. */
+  public void addCost(final long nanos) {
+    costNanos.addAndGet(nanos);
+  }
+
+  public long getCost() {
+    return costNanos.get();
+  }
+
+  public long getElapsedNanos() {
+    return System.nanoTime() - startNanos;
+  }
+
+  /** Percentage of the overhead budget used by this request, {@link #NOT_MEASURED} if unknown. */
+  public int getBudgetUsage() {
+    return budgetUsage;
+  }
+
+  void setBudgetUsage(final int budgetUsage) {
+    this.budgetUsage = budgetUsage;
+  }
 }
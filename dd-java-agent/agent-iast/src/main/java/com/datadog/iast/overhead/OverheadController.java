@@ -13,6 +13,8 @@ import datadog.trace.bootstrap.instrumentation.api.AgentTracer;
 import datadog.trace.util.AgentTaskScheduler;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,6 +30,15 @@ public interface OverheadController {
 
   boolean consumeQuota(final Operation operation, final AgentSpan span);
 
+  /** Records CPU time spent by IAST on behalf of the request of the span. */
+  void recordCost(@Nullable final AgentSpan span, final long cpuNanos);
+
+  /**
+   * Accounts for the latency and IAST cost of a request that is about to be released. Does nothing
+   * unless an overhead budget is set.
+   */
+  void requestEnded(@Nullable final OverheadContext context);
+
   static OverheadController build(final Config config, final AgentTaskScheduler scheduler) {
     final OverheadControllerImpl result = new OverheadControllerImpl(config, scheduler);
     return IastSystem.DEBUG ? new OverheadControllerDebugAdapter(result) : result;
@@ -95,6 +106,28 @@ public interface OverheadController {
       return result;
     }
 
+    @Override
+    public void recordCost(@Nullable final AgentSpan span, final long cpuNanos) {
+      delegate.recordCost(span, cpuNanos);
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("recordCost: cpuNanos={}, span={}", cpuNanos, span);
+      }
+    }
+
+    @Override
+    public void requestEnded(@Nullable final OverheadContext context) {
+      delegate.requestEnded(context);
+      if (context != null && LOGGER.isDebugEnabled()) {
+        LOGGER.debug(
+            "requestEnded: cost={}, elapsed={}, budgetUsage={}, sampling={}, span={}",
+            context.getCost(),
+            context.getElapsedNanos(),
+            context.getBudgetUsage(),
+            delegate.sampling,
+            AgentTracer.activeSpan());
+      }
+    }
+
     @Override
     public void reset() {
       delegate.reset();
@@ -113,7 +146,23 @@ public interface OverheadController {
 
     private static final int RESET_PERIOD_SECONDS = 30;
 
-    private final int sampling;
+    private static final int ADJUST_PERIOD_SECONDS = 5;
+
+    /** Never analyze less than one in this many requests, whatever the measured cost. */
+    static final int MAX_SAMPLING = 1000;
+
+    private final int configuredSampling;
+
+    /** Fraction of request latency IAST may add, 0 if sampling is not adjusted. */
+    private final double budget;
+
+    volatile int sampling;
+
+    /** Latency of the analyzed requests since the last adjustment. */
+    final LongAdder requestNanos = new LongAdder();
+
+    /** IAST CPU time of the analyzed requests since the last adjustment. */
+    final LongAdder costNanos = new LongAdder();
 
     final NonBlockingSemaphore availableRequests;
 
@@ -122,11 +171,17 @@ public interface OverheadController {
     final OverheadContext globalContext = new OverheadContext();
 
     public OverheadControllerImpl(final Config config, final AgentTaskScheduler taskScheduler) {
-      sampling = computeSamplingParameter(config.getIastRequestSampling());
+      configuredSampling = computeSamplingParameter(config.getIastRequestSampling());
+      sampling = configuredSampling;
+      budget = Math.max(0, config.getIastOverheadBudget()) / 100D;
       availableRequests = maxConcurrentRequests(config.getIastMaxConcurrentRequests());
       if (taskScheduler != null) {
         taskScheduler.scheduleAtFixedRate(
             this::reset, 2 * RESET_PERIOD_SECONDS, RESET_PERIOD_SECONDS, TimeUnit.SECONDS);
+        if (budget > 0) {
+          taskScheduler.scheduleAtFixedRate(
+              this::adjustSampling, ADJUST_PERIOD_SECONDS, ADJUST_PERIOD_SECONDS, TimeUnit.SECONDS);
+        }
       }
     }
 
@@ -154,6 +209,51 @@ public interface OverheadController {
       return operation.consumeQuota(getContext(span));
     }
 
+    @Override
+    public void recordCost(@Nullable final AgentSpan span, final long cpuNanos) {
+      final OverheadContext context = getContext(span);
+      if (context != null) {
+        context.addCost(cpuNanos);
+      }
+    }
+
+    @Override
+    public void requestEnded(@Nullable final OverheadContext context) {
+      if (budget <= 0 || context == null) {
+        return;
+      }
+      final long elapsed = context.getElapsedNanos();
+      final long cost = context.getCost();
+      requestNanos.add(elapsed);
+      costNanos.add(cost);
+      if (elapsed > 0) {
+        context.setBudgetUsage((int) Math.round(100 * cost / (elapsed * budget)));
+      }
+    }
+
+    /**
+     * Compares the IAST cost of the analyzed requests since the last call against the overhead
+     * budget and adjusts sampling accordingly.
+     *
+     * <p>Only one in {@code sampling} requests is analyzed, so the cost is spread over the latency
+     * of all of them. Sampling is doubled while over budget and halved back towards the configured
+     * value once the overhead drops below half the budget.
+     */
+    void adjustSampling() {
+      final long elapsed = requestNanos.sumThenReset();
+      final long cost = costNanos.sumThenReset();
+      if (elapsed <= 0) {
+        return;
+      }
+      final int current = sampling;
+      final double overhead = (double) cost / ((double) elapsed * current);
+      if (overhead > budget) {
+        sampling = Math.max(current, Math.min(MAX_SAMPLING, current * 2));
+      } else if (overhead < budget / 2 && current > configuredSampling) {
+        sampling = Math.max(configuredSampling, current / 2);
+      }
+    }
+
     public OverheadContext getContext(final AgentSpan span) {
       final RequestContext requestContext = span != null ? span.getRequestContext() : null;
       if (requestContext != null) {
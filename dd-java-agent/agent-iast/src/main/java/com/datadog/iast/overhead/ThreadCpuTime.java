@@ -0,0 +1,35 @@
+package com.datadog.iast.overhead;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures the CPU time spent by the current thread, falling back to wall-clock time when the JVM
+ * doesn't support thread CPU time.
+ *
+ * <p>{@link ManagementFactory} is only touched on first use, which happens while handling a request
+ * and not during agent startup.
+ */
+public final class ThreadCpuTime {
+
+  private static final ThreadMXBean THREAD_MX_BEAN = threadMXBean();
+
+  private ThreadCpuTime() {}
+
+  /** Returns the current thread CPU time in nanoseconds, only meaningful when compared. */
+  public static long now() {
+    return THREAD_MX_BEAN != null ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : System.nanoTime();
+  }
+
+  private static ThreadMXBean threadMXBean() {
+    try {
+      final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      if (bean.isCurrentThreadCpuTimeSupported() && bean.isThreadCpuTimeEnabled()) {
+        return bean;
+      }
+    } catch (final Throwable ignored) {
+      // fall back to wall-clock time
+    }
+    return null;
+  }
+}
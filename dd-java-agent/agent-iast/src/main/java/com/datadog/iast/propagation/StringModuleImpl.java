@@ -11,10 +11,6 @@ import com.datadog.iast.taint.TaintedObject;
 import com.datadog.iast.taint.TaintedObjects;
 import datadog.trace.api.iast.propagation.StringModule;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -36,6 +32,9 @@ public class StringModuleImpl implements StringModule {
       return;
     }
     final TaintedObjects taintedObjects = ctx.getTaintedObjects();
+    if (taintedObjects.isEmpty()) {
+      return;
+    }
     final TaintedObject taintedLeft = getTainted(taintedObjects, left);
     final TaintedObject taintedRight = getTainted(taintedObjects, right);
     if (taintedLeft == null && taintedRight == null) {
@@ -135,13 +134,20 @@ public class StringModuleImpl implements StringModule {
     }
 
     final TaintedObjects taintedObjects = ctx.getTaintedObjects();
-    final Map<Integer, Range[]> sourceRanges = new HashMap<>();
+    if (taintedObjects.isEmpty()) {
+      return;
+    }
+
+    // first pass: look up every argument once, only allocating when one is tainted
+    Range[][] argRanges = null;
     int rangeCount = 0;
     for (int i = 0; i < args.length; i++) {
-      final TaintedObject to = getTainted(taintedObjects, args[i]);
-      if (to != null) {
-        final Range[] ranges = to.getRanges();
-        sourceRanges.put(i, ranges);
+      final Range[] ranges = getRanges(getTainted(taintedObjects, args[i]));
+      if (ranges.length > 0) {
+        if (argRanges == null) {
+          argRanges = new Range[args.length][];
+        }
+        argRanges[i] = ranges;
         rangeCount += ranges.length;
       }
     }
@@ -149,6 +155,7 @@ public class StringModuleImpl implements StringModule {
       return;
     }
 
+    // second pass: shift the ranges of each argument into a single array
     final Range[] targetRanges = new Range[rangeCount];
     int offset = 0, rangeIndex = 0;
     for (int item : recipeOffsets) {
@@ -156,7 +163,7 @@ public class StringModuleImpl implements StringModule {
         offset += (-item);
       } else {
         final String argument = args[item];
-        final Range[] ranges = sourceRanges.get(item);
+        final Range[] ranges = argRanges[item];
         if (ranges != null) {
           Ranges.copyShift(ranges, targetRanges, rangeIndex, offset);
           rangeIndex += ranges.length;
@@ -204,32 +211,55 @@ public class StringModuleImpl implements StringModule {
       return;
     }
     final TaintedObjects taintedObjects = ctx.getTaintedObjects();
+    if (taintedObjects.isEmpty()) {
+      return;
+    }
     // String.join may internally call StringJoiner, if StringJoiner did the job don't do it twice
     if (getTainted(taintedObjects, result) != null) {
       return;
     }
-    List<Range> newRanges = new ArrayList<>();
-    int pos = 0;
-    // Delimiter info
-    Range[] delimiterRanges = getRanges(getTainted(taintedObjects, delimiter));
-    boolean delimiterHasRanges = delimiterRanges.length > 0;
-    int delimiterLength = delimiter.length();
 
+    // first pass: look up every element once, only allocating when one is tainted
+    final Range[] delimiterRanges = getRanges(getTainted(taintedObjects, delimiter));
+    Range[][] elementRanges = null;
+    int rangeCount = elements.length > 1 ? delimiterRanges.length * (elements.length - 1) : 0;
     for (int i = 0; i < elements.length; i++) {
-      CharSequence element = elements[i];
-      pos =
-          getPositionAndUpdateRangesInStringJoin(
-              taintedObjects,
-              newRanges,
-              pos,
-              delimiterRanges,
-              delimiterLength,
-              element,
-              delimiterHasRanges && i < elements.length - 1);
-    }
-    if (!newRanges.isEmpty()) {
-      taintedObjects.taint(result, newRanges.toArray(new Range[0]));
+      final CharSequence element = elements[i];
+      if (canBeTainted(element)) {
+        final Range[] ranges = getRanges(taintedObjects.get(element));
+        if (ranges.length > 0) {
+          if (elementRanges == null) {
+            elementRanges = new Range[elements.length][];
+          }
+          elementRanges[i] = ranges;
+          rangeCount += ranges.length;
+        }
+      }
     }
+    if (rangeCount == 0) {
+      return;
+    }
+
+    // second pass: shift the element and delimiter ranges into a single array
+    final Range[] newRanges = new Range[rangeCount];
+    final int delimiterLength = delimiter.length();
+    int pos = 0, rangeIndex = 0;
+    for (int i = 0; i < elements.length; i++) {
+      final Range[] ranges = elementRanges == null ? null : elementRanges[i];
+      if (ranges != null) {
+        Ranges.copyShift(ranges, newRanges, rangeIndex, pos);
+        rangeIndex += ranges.length;
+      }
+      pos += getToStringLength(elements[i]);
+      if (i < elements.length - 1) {
+        if (delimiterRanges.length > 0) {
+          Ranges.copyShift(delimiterRanges, newRanges, rangeIndex, pos);
+          rangeIndex += delimiterRanges.length;
+        }
+        pos += delimiterLength;
+      }
+    }
+    taintedObjects.taint(result, newRanges);
   }
 
   @Override
@@ -327,39 +357,6 @@ public class StringModuleImpl implements StringModule {
     taintedObjects.taint(result, newRanges);
   }
 
-  /**
-   * Iterates over the element and delimiter ranges (if necessary) to update them and calculate the
-   * new pos value
-   */
-  private static int getPositionAndUpdateRangesInStringJoin(
-      TaintedObjects taintedObjects,
-      List<Range> newRanges,
-      int pos,
-      Range[] delimiterRanges,
-      int delimiterLength,
-      CharSequence element,
-      boolean addDelimiterRanges) {
-    if (canBeTainted(element)) {
-      TaintedObject elementTainted = taintedObjects.get(element);
-      if (elementTainted != null) {
-        Range[] elementRanges = elementTainted.getRanges();
-        if (elementRanges.length > 0) {
-          for (Range range : elementRanges) {
-            newRanges.add(pos == 0 ? range : range.shift(pos));
-          }
-        }
-      }
-    }
-    pos += getToStringLength(element);
-    if (addDelimiterRanges) {
-      for (Range range : delimiterRanges) {
-        newRanges.add(range.shift(pos));
-      }
-    }
-    pos += delimiterLength;
-    return pos;
-  }
-
   private static Range[] getRanges(final TaintedObject taintedObject) {
     return taintedObject == null ? Ranges.EMPTY : taintedObject.getRanges();
   }
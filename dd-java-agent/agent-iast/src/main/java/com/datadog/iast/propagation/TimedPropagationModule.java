@@ -0,0 +1,63 @@
+package com.datadog.iast.propagation;
+
+import com.datadog.iast.overhead.CostSampler;
+import datadog.trace.api.iast.propagation.PropagationModule;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/** Samples the cost of generic propagation, so that it feeds the overhead budget. */
+public final class TimedPropagationModule implements PropagationModule {
+
+  private final PropagationModule delegate;
+  private final CostSampler costSampler;
+
+  public TimedPropagationModule(
+      @Nonnull final PropagationModule delegate, @Nonnull final CostSampler costSampler) {
+    this.delegate = delegate;
+    this.costSampler = costSampler;
+  }
+
+  @Override
+  public void taintIfInputIsTainted(@Nullable final Object toTaint, @Nullable final Object input) {
+    final long start = costSampler.start();
+    try {
+      delegate.taintIfInputIsTainted(toTaint, input);
+    } finally {
+      costSampler.end(start);
+    }
+  }
+
+  @Override
+  public void taintIfInputIsTainted(@Nullable final String toTaint, @Nullable final Object input) {
+    final long start = costSampler.start();
+    try {
+      delegate.taintIfInputIsTainted(toTaint, input);
+    } finally {
+      costSampler.end(start);
+    }
+  }
+
+  @Override
+  public void taintIfInputIsTainted(
+      final byte origin,
+      @Nullable final String name,
+      @Nullable final String toTaint,
+      @Nullable final Object input) {
+    final long start = costSampler.start();
+    try {
+      delegate.taintIfInputIsTainted(origin, name, toTaint, input);
+    } finally {
+      costSampler.end(start);
+    }
+  }
+
+  @Override
+  public void taint(final byte origin, @Nullable final Object... toTaint) {
+    final long start = costSampler.start();
+    try {
+      delegate.taint(origin, toTaint);
+    } finally {
+      costSampler.end(start);
+    }
+  }
+}
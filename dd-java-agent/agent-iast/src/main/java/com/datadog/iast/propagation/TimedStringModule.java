@@ -0,0 +1,156 @@
+package com.datadog.iast.propagation;
+
+import com.datadog.iast.overhead.CostSampler;
+import datadog.trace.api.iast.propagation.StringModule;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/** Samples the cost of string propagation, so that it feeds the overhead budget. */
+public final class TimedStringModule implements StringModule {
+
+  private final StringModule delegate;
+  private final CostSampler costSampler;
+
+  public TimedStringModule(
+      @Nonnull final StringModule delegate, @Nonnull final CostSampler costSampler) {
+    this.delegate = delegate;
+    this.costSampler = costSampler;
+  }
+
+  @Override
+  public void onStringConcat(
+      @Nonnull final String left, @Nullable final String right, @Nonnull final String result) {
+    final long start = costSampler.start();
+    try {
+      delegate.onStringConcat(left, right, result);
+    } finally {
+      costSampler.end(start);
+    }
+  }
+
+  @Override
+  public void onStringBuilderInit(
+      @Nonnull final StringBuilder builder, @Nullable final CharSequence param) {
+    final long start = costSampler.start();
+    try {
+      delegate.onStringBuilderInit(builder, param);
+    } finally {
+      costSampler.end(start);
+    }
+  }
+
+  @Override
+  public void onStringBuilderAppend(
+      @Nonnull final StringBuilder builder, @Nullable final CharSequence param) {
+    final long start = costSampler.start();
+    try {
+      delegate.onStringBuilderAppend(builder, param);
+    } finally {
+      costSampler.end(start);
+    }
+  }
+
+  @Override
+  public void onStringBuilderToString(
+      @Nonnull final StringBuilder builder, @Nonnull final String result) {
+    final long start = costSampler.start();
+    try {
+      delegate.onStringBuilderToString(builder, result);
+    } finally {
+      costSampler.end(start);
+    }
+  }
+
+  @Override
+  public void onStringConcatFactory(
+      @Nullable final String result,
+      @Nullable final String[] args,
+      @Nullable final String recipe,
+      @Nullable final Object[] dynamicConstants,
+      @Nonnull final int[] recipeOffsets) {
+    final long start = costSampler.start();
+    try {
+      delegate.onStringConcatFactory(result, args, recipe, dynamicConstants, recipeOffsets);
+    } finally {
+      costSampler.end(start);
+    }
+  }
+
+  @Override
+  public void onStringSubSequence(
+      @Nonnull final String self,
+      final int beginIndex,
+      final int endIndex,
+      @Nullable final CharSequence result) {
+    final long start = costSampler.start();
+    try {
+      delegate.onStringSubSequence(self, beginIndex, endIndex, result);
+    } finally {
+      costSampler.end(start);
+    }
+  }
+
+  @Override
+  public void onStringJoin(
+      @Nullable final String result,
+      @Nonnull final CharSequence delimiter,
+      @Nonnull final CharSequence[] elements) {
+    final long start = costSampler.start();
+    try {
+      delegate.onStringJoin(result, delimiter, elements);
+    } finally {
+      costSampler.end(start);
+    }
+  }
+
+  @Override
+  public void onStringToUpperCase(@Nonnull final String self, @Nullable final String result) {
+    final long start = costSampler.start();
+    try {
+      delegate.onStringToUpperCase(self, result);
+    } finally {
+      costSampler.end(start);
+    }
+  }
+
+  @Override
+  public void onStringToLowerCase(@Nonnull final String self, @Nullable final String result) {
+    final long start = costSampler.start();
+    try {
+      delegate.onStringToLowerCase(self, result);
+    } finally {
+      costSampler.end(start);
+    }
+  }
+
+  @Override
+  public void onStringTrim(@Nonnull final String self, @Nullable final String result) {
+    final long start = costSampler.start();
+    try {
+      delegate.onStringTrim(self, result);
+    } finally {
+      costSampler.end(start);
+    }
+  }
+
+  @Override
+  public void onStringRepeat(
+      @Nonnull final String self, final int count, @Nonnull final String result) {
+    final long start = costSampler.start();
+    try {
+      delegate.onStringRepeat(self, count, result);
+    } finally {
+      costSampler.end(start);
+    }
+  }
+
+  @Override
+  public void onStringConstructor(@Nonnull final String self, @Nonnull final String result) {
+    final long start = costSampler.start();
+    try {
+      delegate.onStringConstructor(self, result);
+    } finally {
+      costSampler.end(start);
+    }
+  }
+}
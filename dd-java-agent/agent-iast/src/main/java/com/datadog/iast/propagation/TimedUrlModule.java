@@ -0,0 +1,29 @@
+package com.datadog.iast.propagation;
+
+import com.datadog.iast.overhead.CostSampler;
+import datadog.trace.api.iast.propagation.UrlModule;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/** Samples the cost of URL decoding propagation, so that it feeds the overhead budget. */
+public final class TimedUrlModule implements UrlModule {
+
+  private final UrlModule delegate;
+  private final CostSampler costSampler;
+
+  public TimedUrlModule(@Nonnull final UrlModule delegate, @Nonnull final CostSampler costSampler) {
+    this.delegate = delegate;
+    this.costSampler = costSampler;
+  }
+
+  @Override
+  public void onDecode(
+      @Nonnull final String value, @Nullable final String encoding, @Nonnull final String result) {
+    final long start = costSampler.start();
+    try {
+      delegate.onDecode(value, encoding, result);
+    } finally {
+      costSampler.end(start);
+    }
+  }
+}
@@ -11,6 +11,7 @@ import com.datadog.iast.model.VulnerabilityType;
 import com.datadog.iast.model.VulnerabilityType.InjectionType;
 import com.datadog.iast.overhead.Operations;
 import com.datadog.iast.overhead.OverheadController;
+import com.datadog.iast.overhead.ThreadCpuTime;
 import com.datadog.iast.taint.Ranges;
 import com.datadog.iast.taint.Ranges.RangesProvider;
 import com.datadog.iast.taint.TaintedObject;
@@ -27,15 +28,68 @@ public abstract class SinkModuleBase implements HasDependencies {
   protected OverheadController overheadController;
   protected Reporter reporter;
   protected StackWalker stackWalker;
+  /** Whether sink checks are timed, only when an overhead budget is set. */
+  private boolean timed;
 
   @Override
   public void registerDependencies(@Nonnull final Dependencies dependencies) {
     overheadController = dependencies.getOverheadController();
     reporter = dependencies.getReporter();
     stackWalker = dependencies.getStackWalker();
+    timed = dependencies.getConfig().getIastOverheadBudget() > 0;
+  }
+
+  // the whole check is timed, from looking up tainted values to reporting, so that the cost of
+  // sinks feeds the overhead budget; the clock is cheap next to the operations sinks intercept
+
+  private long startTiming() {
+    return timed ? ThreadCpuTime.now() : 0;
+  }
+
+  private void endTiming(@Nullable final AgentSpan span, final long start) {
+    if (timed) {
+      overheadController.recordCost(span, ThreadCpuTime.now() - start);
+    }
+  }
+
+  protected final <E> void checkInjection(
+      @Nullable final AgentSpan span,
+      @Nonnull final IastRequestContext ctx,
+      @Nonnull final InjectionType type,
+      @Nonnull final E value) {
+    final long start = startTiming();
+    try {
+      doCheckInjection(span, ctx, type, value);
+    } finally {
+      endTiming(span, start);
+    }
+  }
+
+  protected final <E> void checkInjection(
+      @Nullable final AgentSpan span,
+      @Nonnull final InjectionType type,
+      @Nonnull final RangesProvider<E> rangeProvider) {
+    final long start = startTiming();
+    try {
+      doCheckInjection(span, type, rangeProvider);
+    } finally {
+      endTiming(span, start);
+    }
   }
 
   protected final <E> void checkInjection(
+      @Nullable final AgentSpan span,
+      @Nonnull final InjectionType type,
+      @Nonnull final RangesProvider<E>... rangeProviders) {
+    final long start = startTiming();
+    try {
+      doCheckInjection(span, type, rangeProviders);
+    } finally {
+      endTiming(span, start);
+    }
+  }
+
+  private <E> void doCheckInjection(
       @Nullable final AgentSpan span,
       @Nonnull final IastRequestContext ctx,
       @Nonnull final InjectionType type,
@@ -47,10 +101,10 @@ public abstract class SinkModuleBase implements HasDependencies {
     if (!overheadController.consumeQuota(Operations.REPORT_VULNERABILITY, span)) {
       return;
     }
-    report(span, type, new Evidence(value.toString(), taintedObject.getRanges()));
+    doReport(span, type, new Evidence(value.toString(), taintedObject.getRanges()));
   }
 
-  protected final <E> void checkInjection(
+  private <E> void doCheckInjection(
       @Nullable final AgentSpan span,
       @Nonnull final InjectionType type,
       @Nonnull final RangesProvider<E> rangeProvider) {
@@ -89,13 +143,13 @@ public abstract class SinkModuleBase implements HasDependencies {
       evidence = builder.toString();
     }
 
-    report(span, type, new Evidence(evidence, targetRanges));
+    doReport(span, type, new Evidence(evidence, targetRanges));
   }
 
-  protected final <E> void checkInjection(
+  private <E> void doCheckInjection(
       @Nullable final AgentSpan span,
       @Nonnull final InjectionType type,
-      @Nonnull final RangesProvider<E>... rangeProviders) {
+      @Nonnull final RangesProvider<E>[] rangeProviders) {
     int rangeCount = 0;
     for (final RangesProvider<E> provider : rangeProviders) {
       rangeCount += provider.rangeCount();
@@ -126,13 +180,25 @@ public abstract class SinkModuleBase implements HasDependencies {
       }
     }
 
-    report(span, type, new Evidence(evidence.toString(), targetRanges));
+    doReport(span, type, new Evidence(evidence.toString(), targetRanges));
   }
 
   protected final void report(
       @Nullable final AgentSpan span,
       @Nonnull final VulnerabilityType type,
       @Nonnull final Evidence evidence) {
+    final long start = startTiming();
+    try {
+      doReport(span, type, evidence);
+    } finally {
+      endTiming(span, start);
+    }
+  }
+
+  private void doReport(
+      @Nullable final AgentSpan span,
+      @Nonnull final VulnerabilityType type,
+      @Nonnull final Evidence evidence) {
     reporter.report(
         span,
         new Vulnerability(
@@ -7,6 +7,7 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -14,19 +15,24 @@ import javax.annotation.Nullable;
  * Default implementation for {@link TaintedMap}. It is optimized for low concurrency scenarios, but
  * never fail with high concurrency.
  *
- * <p><i>Capacity</i> is fixed, so there is no rehashing. Once it reaches a <i>flat mode
- * threshold</i>, the table switches to flat mode. In this mode, every new put will be inserted at
- * the head of the bucket, and any tail (colliding entries) will be discarded. Once a map switches
- * to flat mode, it never goes back from it. Note that entries for garbage collected entries are
- * removed before this threshold is checked.
+ * <p>The table starts at a small <i>initial capacity</i> and doubles during purges as entries
+ * accumulate, up to a fixed <i>capacity</i>. Most requests only taint a handful of objects, so
+ * {@link #clear()} drops any grown table wholesale instead of wiping a full-size one. Once it
+ * reaches a <i>flat mode threshold</i>, the table switches to flat mode. In this mode, every new
+ * put will be inserted at the head of the bucket, and any tail (colliding entries) will be
+ * discarded. Once a map switches to flat mode, it never goes back from it. Note that entries for
+ * garbage collected entries are removed before this threshold is checked.
  *
  * <p>This implementation works reasonably well under high concurrency, but it will lose some writes
- * in that case.
+ * in that case. Growing the table relinks entries in place, so puts and gets that raced with it
+ * look again in the new table.
  */
 public final class DefaultTaintedMap implements TaintedMap {
 
   /** Default capacity. It MUST be a power of 2. */
   public static final int DEFAULT_CAPACITY = 1 << 14;
+  /** Default initial capacity. It MUST be a power of 2. */
+  public static final int DEFAULT_INITIAL_CAPACITY = 1 << 8;
   /** Default flat mode threshold. */
   public static final int DEFAULT_FLAT_MODE_THRESHOLD = 1 << 13;
   /** Periodicity of table purges, as number of put operations. It MUST be a power of two. */
@@ -36,9 +42,17 @@ public final class DefaultTaintedMap implements TaintedMap {
   /** Bitmask to convert hashes to positive integers. */
   static final int POSITIVE_MASK = Integer.MAX_VALUE;
 
-  private final TaintedObject[] table;
-  /** Bitmask for fast modulo with table length. */
-  private final int lengthMask;
+  /** Current hash table, replaced when the table grows or is dropped by {@link #clear()}. */
+  private volatile TaintedObject[] table;
+  /** Length of a newly cleared table. */
+  private final int initialCapacity;
+  /** Maximum length the table can grow to. */
+  private final int capacity;
+  /**
+   * Exclusive while the table grows or is cleared. Puts validate against it, and only take it
+   * shared if they raced with either. Gets only validate against it on a miss.
+   */
+  private final StampedLock growLock = new StampedLock();
   /** Flag to ensure we do not run multiple purges concurrently. */
   private final NonBlockingSemaphore purge = NonBlockingSemaphore.withPermitCount(1);
   /**
@@ -53,28 +67,51 @@ public final class DefaultTaintedMap implements TaintedMap {
    * {@link #clear()} is called.
    */
   private boolean isFlat = false;
+  /** Whether nothing has been put since the map was created or cleared. */
+  private volatile boolean isEmpty = true;
   /** Number of elements in the hash table before switching to flat mode. */
   private final int flatModeThreshold;
 
   /**
-   * Default constructor. Uses {@link #DEFAULT_CAPACITY} and {@link #DEFAULT_FLAT_MODE_THRESHOLD}.
+   * Default constructor. Uses {@link #DEFAULT_INITIAL_CAPACITY}, {@link #DEFAULT_CAPACITY} and
+   * {@link #DEFAULT_FLAT_MODE_THRESHOLD}.
    */
   public DefaultTaintedMap() {
-    this(DEFAULT_CAPACITY, DEFAULT_FLAT_MODE_THRESHOLD, new ReferenceQueue<>());
+    this(
+        DEFAULT_INITIAL_CAPACITY,
+        DEFAULT_CAPACITY,
+        DEFAULT_FLAT_MODE_THRESHOLD,
+        new ReferenceQueue<>());
   }
 
   /**
-   * Create a new hash map with the given capacity and flat mode threshold.
+   * Create a new hash map with the given fixed capacity and flat mode threshold.
    *
    * @param capacity Capacity of the internal array. It must be a power of 2.
    * @param flatModeThreshold Limit of entries before switching to flat mode.
    * @param queue Reference queue. Only for tests.
    */
-  @SuppressWarnings("unchecked")
   DefaultTaintedMap(
       final int capacity, final int flatModeThreshold, final ReferenceQueue<Object> queue) {
-    table = new TaintedObject[capacity];
-    lengthMask = table.length - 1;
+    this(capacity, capacity, flatModeThreshold, queue);
+  }
+
+  /**
+   * Create a new hash map with the given initial capacity, capacity and flat mode threshold.
+   *
+   * @param initialCapacity Initial capacity of the internal array. It must be a power of 2.
+   * @param capacity Maximum capacity of the internal array. It must be a power of 2.
+   * @param flatModeThreshold Limit of entries before switching to flat mode.
+   * @param queue Reference queue. Only for tests.
+   */
+  DefaultTaintedMap(
+      final int initialCapacity,
+      final int capacity,
+      final int flatModeThreshold,
+      final ReferenceQueue<Object> queue) {
+    this.initialCapacity = Math.min(initialCapacity, capacity);
+    this.capacity = capacity;
+    this.table = new TaintedObject[this.initialCapacity];
     this.flatModeThreshold = flatModeThreshold;
     this.referenceQueue = queue;
   }
@@ -88,7 +125,23 @@ public final class DefaultTaintedMap implements TaintedMap {
   @Override
   @Nullable
   public TaintedObject get(final @Nonnull Object key) {
-    final int index = indexObject(key);
+    final long stamp = growLock.tryOptimisticRead();
+    final TaintedObject entry = find(this.table, key);
+    if (entry != null || growLock.validate(stamp)) {
+      return entry;
+    }
+    // the table grew while we were looking, chains may have been relinked under us
+    final long readStamp = growLock.readLock();
+    try {
+      return find(this.table, key);
+    } finally {
+      growLock.unlockRead(readStamp);
+    }
+  }
+
+  @Nullable
+  private TaintedObject find(final TaintedObject[] table, final Object key) {
+    final int index = indexObject(table, key);
     TaintedObject entry = table[index];
     while (entry != null) {
       if (key == entry.get()) {
@@ -107,31 +160,70 @@ public final class DefaultTaintedMap implements TaintedMap {
    */
   @Override
   public void put(final @Nonnull TaintedObject entry) {
-    final int index = index(entry.positiveHashCode);
-    if (isFlat) {
+    final boolean flat = isFlat;
+    // the table rarely grows, so insert optimistically instead of taking the lock on every put
+    final long stamp = growLock.tryOptimisticRead();
+    if (stamp != 0L) {
+      insert(this.table, entry, flat);
+    }
+    if (!growLock.validate(stamp)) {
+      // the table grew or was cleared while we were inserting, so the entry may have been lost
+      final long readStamp = growLock.readLock();
+      try {
+        final TaintedObject[] table = this.table;
+        // unless growing already relinked it, which must not happen twice or the chain loops
+        if (!contains(table, entry)) {
+          insert(table, entry, flat);
+        }
+      } finally {
+        growLock.unlockRead(readStamp);
+      }
+    }
+    if (isEmpty) {
+      // only the first put pays for the volatile write, made after the insert so that a racing
+      // clear either drops the entry or happens before the map is flagged as non-empty
+      isEmpty = false;
+    }
+    if ((entry.positiveHashCode & PURGE_MASK) == 0) {
+      if (!flat) {
+        // To mitigate the cost of maintaining an atomic counter, we only update the size every
+        // <PURGE_COUNT> puts. This is just an approximation, we rely on key's identity hash code as
+        // if it was a random number generator, and we assume duplicate keys are rarely inserted.
+        estimatedSize.addAndGet(PURGE_COUNT);
+      }
+      // must be done outside the lock, as the table may grow
+      purge();
+    }
+  }
+
+  private static void insert(
+      final TaintedObject[] table, final TaintedObject entry, final boolean flat) {
+    final int index = index(table, entry.positiveHashCode);
+    if (flat) {
       // If we flipped to flat mode:
       // - Always override elements ignoring chaining.
       // - Stop updating the estimated size.
 
-      // TODO: Fix the pathological case where all puts have the same identityHashCode (e.g. limit
-      // chain length?)
+      // TODO: Fix the pathological case where all puts have the same identityHashCode (e.g.
+      // limit chain length?)
       table[index] = entry;
-      if ((entry.positiveHashCode & PURGE_MASK) == 0) {
-        purge();
-      }
     } else {
       // By default, add the new entry to the head of the chain.
       // We do not control duplicate keys (although we expect they are generally not used).
       entry.next = table[index];
       table[index] = entry;
-      if ((entry.positiveHashCode & PURGE_MASK) == 0) {
-        // To mitigate the cost of maintaining an atomic counter, we only update the size every
-        // <PURGE_COUNT> puts. This is just an approximation, we rely on key's identity hash code as
-        // if it was a random number generator, and we assume duplicate keys are rarely inserted.
-        estimatedSize.addAndGet(PURGE_COUNT);
-        purge();
+    }
+  }
+
+  private static boolean contains(final TaintedObject[] table, final TaintedObject entry) {
+    TaintedObject cur = table[index(table, entry.positiveHashCode)];
+    while (cur != null) {
+      if (cur == entry) {
+        return true;
       }
+      cur = cur.next;
     }
+    return false;
   }
 
   /**
@@ -158,8 +250,15 @@ public final class DefaultTaintedMap implements TaintedMap {
         removedCount += remove(entry);
       }
 
-      if (estimatedSize.addAndGet(-removedCount) > flatModeThreshold) {
+      final int size = estimatedSize.addAndGet(-removedCount);
+      if (size > flatModeThreshold) {
         isFlat = true;
+      } else {
+        final TaintedObject[] table = this.table;
+        // grow once the table is three quarters full
+        if (table.length < capacity && size > table.length - (table.length >> 2)) {
+          grow();
+        }
       }
     } finally {
       // Reset purging flag.
@@ -182,7 +281,8 @@ public final class DefaultTaintedMap implements TaintedMap {
     // If this happens extremely frequently, like number of lost removals close to number of puts,
     // it could prevent the map from ever going into flat mode, and its size might become
     // effectively unbound.
-    final int index = index(entry.positiveHashCode);
+    final TaintedObject[] table = this.table;
+    final int index = index(table, entry.positiveHashCode);
     TaintedObject cur = table[index];
     if (cur == entry) {
       table[index] = cur.next;
@@ -201,12 +301,56 @@ public final class DefaultTaintedMap implements TaintedMap {
     return 0;
   }
 
+  /**
+   * Re-hashes live entries into a table of twice the length. Entries whose keys have been garbage
+   * collected are dropped along the way. Entries are relinked in place, so puts are excluded until
+   * the new table is published, and gets that raced with it look again.
+   */
+  private void grow() {
+    final long stamp = growLock.writeLock();
+    try {
+      final TaintedObject[] oldTable = this.table;
+      final TaintedObject[] newTable = new TaintedObject[oldTable.length << 1];
+      int droppedCount = 0;
+      for (TaintedObject entry : oldTable) {
+        while (entry != null) {
+          final TaintedObject next = entry.next;
+          if (entry.get() != null) {
+            final int index = index(newTable, entry.positiveHashCode);
+            entry.next = newTable[index];
+            newTable[index] = entry;
+          } else {
+            droppedCount++;
+          }
+          entry = next;
+        }
+      }
+      table = newTable;
+      estimatedSize.addAndGet(-droppedCount);
+    } finally {
+      growLock.unlockWrite(stamp);
+    }
+  }
+
   @Override
   public void clear() {
-    isFlat = false;
-    estimatedSize.set(0);
-    Arrays.fill(table, null);
-    referenceQueue = new ReferenceQueue<>();
+    // exclusive, so puts that raced with the wipe insert again into the cleared table
+    final long stamp = growLock.writeLock();
+    try {
+      isFlat = false;
+      estimatedSize.set(0);
+      final TaintedObject[] table = this.table;
+      if (table.length > initialCapacity) {
+        // drop the grown table wholesale, it's cheaper than wiping it
+        this.table = new TaintedObject[initialCapacity];
+      } else {
+        Arrays.fill(table, null);
+      }
+      referenceQueue = new ReferenceQueue<>();
+      isEmpty = true;
+    } finally {
+      growLock.unlockWrite(stamp);
+    }
   }
 
   @Override
@@ -214,19 +358,20 @@ public final class DefaultTaintedMap implements TaintedMap {
     return referenceQueue;
   }
 
-  private int indexObject(final Object obj) {
-    return index(positiveHashCode(System.identityHashCode(obj)));
+  private int indexObject(final TaintedObject[] table, final Object obj) {
+    return index(table, positiveHashCode(System.identityHashCode(obj)));
   }
 
   private int positiveHashCode(final int h) {
     return h & POSITIVE_MASK;
   }
 
-  private int index(int h) {
-    return h & lengthMask;
+  private static int index(final TaintedObject[] table, int h) {
+    return h & (table.length - 1);
   }
 
-  private Iterator<TaintedObject> iterator(final int start, final int stop) {
+  private Iterator<TaintedObject> iterator(
+      final TaintedObject[] table, final int start, final int stop) {
     return new Iterator<TaintedObject>() {
       int currentIndex = start;
       TaintedObject currentSubPos;
@@ -266,7 +411,8 @@ public final class DefaultTaintedMap implements TaintedMap {
 
   @Override
   public Iterator<TaintedObject> iterator() {
-    return iterator(0, table.length);
+    final TaintedObject[] table = this.table;
+    return iterator(table, 0, table.length);
   }
 
   @Override
@@ -278,4 +424,9 @@ public final class DefaultTaintedMap implements TaintedMap {
   public boolean isFlat() {
     return isFlat;
   }
+
+  @Override
+  public boolean isEmpty() {
+    return isEmpty;
+  }
 }
@@ -56,8 +56,19 @@ public final class Ranges {
     }
   }
 
+  /**
+   * Merges the ranges of two values, shifting the right ranges by {@code offset}. Range arrays are
+   * never mutated, so when one side has no ranges the other side's array is shared as-is (only
+   * shifted when needed).
+   */
   public static Range[] mergeRanges(
       final int offset, @Nonnull final Range[] rangesLeft, @Nonnull final Range[] rangesRight) {
+    if (rangesRight.length == 0) {
+      return rangesLeft;
+    }
+    if (rangesLeft.length == 0 && offset == 0) {
+      return rangesRight;
+    }
     final int nRanges = rangesLeft.length + rangesRight.length;
     final Range[] ranges = new Range[nRanges];
     if (rangesLeft.length > 0) {
@@ -96,18 +107,38 @@ public final class Ranges {
     return new ListProvider<>(items, to);
   }
 
+  /**
+   * Returns the ranges for the substring {@code [offset, offset + length)}, or {@code null} if no
+   * range overlaps it. Ranges which are unchanged by the substring are shared, and the original
+   * array is returned as-is when every range is kept unchanged.
+   */
   public static Range[] forSubstring(int offset, int length, final @Nonnull Range[] ranges) {
-
-    int[] includedRangesInterval = getIncludedRangesInterval(offset, length, ranges);
+    // index of the first included range
+    int firstRangeIncludedIndex = -1;
+    // index of the first not included range (after the first included)
+    int lastRangeIncludedIndex = ranges.length;
+    for (int rangeIndex = 0; rangeIndex < ranges.length; rangeIndex++) {
+      if (overlaps(ranges[rangeIndex], offset, length)) {
+        if (firstRangeIncludedIndex == -1) {
+          firstRangeIncludedIndex = rangeIndex;
+        }
+      } else if (firstRangeIncludedIndex != -1) {
+        lastRangeIncludedIndex = rangeIndex;
+        break;
+      }
+    }
 
     // No ranges in the interval
-    if (includedRangesInterval[0] == -1) {
+    if (firstRangeIncludedIndex == -1) {
       return null;
     }
-    final int firstRangeIncludedIndex = includedRangesInterval[0];
-    final int lastRangeIncludedIndex =
-        includedRangesInterval[1] != -1 ? includedRangesInterval[1] : ranges.length;
     final int newRagesSize = lastRangeIncludedIndex - firstRangeIncludedIndex;
+    if (offset == 0 && newRagesSize == ranges.length) {
+      final Range last = ranges[ranges.length - 1];
+      if (last.getStart() + last.getLength() <= length) {
+        return ranges; // substring keeps every range as-is
+      }
+    }
     Range[] newRanges = new Range[newRagesSize];
     for (int rangeIndex = firstRangeIncludedIndex, newRangeIndex = 0;
         newRangeIndex < newRagesSize;
@@ -127,7 +158,7 @@ public final class Ranges {
           newLength = length - newStart;
         }
         if (newLength > 0) {
-          newRanges[newRangeIndex] = new Range(newStart, newLength, range.getSource());
+          newRanges[newRangeIndex] = createIfDifferent(range, newStart, newLength);
         }
       }
     }
@@ -135,6 +166,10 @@ public final class Ranges {
     return newRanges;
   }
 
+  private static boolean overlaps(final Range range, final int offset, final int length) {
+    return range.getStart() < offset + length && range.getStart() + range.getLength() > offset;
+  }
+
   public static int[] getIncludedRangesInterval(
       int offset, int length, final @Nonnull Range[] ranges) {
     // index of the first included range
@@ -142,9 +177,7 @@ public final class Ranges {
     // index of the first not included range
     int end = -1;
     for (int rangeIndex = 0; rangeIndex < ranges.length; rangeIndex++) {
-      final Range rangeSelf = ranges[rangeIndex];
-      if (rangeSelf.getStart() < offset + length
-          && rangeSelf.getStart() + rangeSelf.getLength() > offset) {
+      if (overlaps(ranges[rangeIndex], offset, length)) {
         if (start == -1) {
           start = rangeIndex;
         }
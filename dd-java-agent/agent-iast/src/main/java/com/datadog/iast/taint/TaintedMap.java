@@ -30,5 +30,8 @@ public interface TaintedMap extends Iterable<TaintedObject> {
 
   long getEstimatedSize();
 
+  /** Returns {@code true} if nothing has been put in the map since it was created or cleared. */
+  boolean isEmpty();
+
   boolean isFlat();
 }
@@ -31,6 +31,12 @@ public interface TaintedObjects {
 
   boolean isFlat();
 
+  /**
+   * Returns {@code true} if nothing has been tainted in this request, so propagation can skip
+   * looking up each value.
+   */
+  boolean isEmpty();
+
   static TaintedObjects acquire() {
     TaintedObjectsImpl taintedObjects = TaintedObjectsImpl.pool.poll();
     if (taintedObjects == null) {
@@ -98,6 +104,11 @@ public interface TaintedObjects {
     public boolean isFlat() {
       return map.isFlat();
     }
+
+    @Override
+    public boolean isEmpty() {
+      return map.isEmpty();
+    }
   }
 
   class TaintedObjectsDebugAdapter implements TaintedObjects {
@@ -164,6 +175,11 @@ public interface TaintedObjects {
       return delegated.isFlat();
     }
 
+    @Override
+    public boolean isEmpty() {
+      return delegated.isEmpty();
+    }
+
     private void logTainted(final TaintedObject tainted) {
       if (LOGGER.isDebugEnabled()) {
         try {
@@ -1,10 +1,12 @@
 package com.datadog.iast.telemetry;
 
+import static datadog.trace.api.iast.telemetry.IastMetric.REQUEST_OVERHEAD_BUDGET;
 import static datadog.trace.api.iast.telemetry.IastMetric.Scope.REQUEST;
 import static datadog.trace.api.iast.telemetry.IastMetricHandler.conflated;
 import static datadog.trace.api.iast.telemetry.IastMetricHandler.delegating;
 
 import com.datadog.iast.IastRequestContext;
+import com.datadog.iast.overhead.OverheadContext;
 import com.datadog.iast.taint.TaintedObjects;
 import com.datadog.iast.telemetry.taint.TaintedObjectsWithTelemetry;
 import datadog.trace.api.iast.telemetry.IastMetric;
@@ -41,6 +43,7 @@ public class IastTelemetryImpl implements IastTelemetry {
     if (context instanceof HasTelemetryCollector) {
       final IastTelemetryCollector collector =
           ((HasTelemetryCollector) context).getTelemetryCollector();
+      addBudgetUsage(context, collector);
       final Collection<MetricData> metrics = collector.drainMetrics();
       if (!metrics.isEmpty()) {
         addMetricsToTrace(trace, metrics);
@@ -49,6 +52,16 @@ public class IastTelemetryImpl implements IastTelemetry {
     }
   }
 
+  private void addBudgetUsage(
+      final IastRequestContext context, final IastTelemetryCollector collector) {
+    if (REQUEST_OVERHEAD_BUDGET.isEnabled(verbosity)) {
+      final int budgetUsage = context.getOverheadContext().getBudgetUsage();
+      if (budgetUsage != OverheadContext.NOT_MEASURED) {
+        collector.addMetric(REQUEST_OVERHEAD_BUDGET, budgetUsage, null);
+      }
+    }
+  }
+
   private static void addMetricsToTrace(
       final TraceSegment trace, final Collection<MetricData> metrics) {
     final Map<IastMetric, Long> flatten =
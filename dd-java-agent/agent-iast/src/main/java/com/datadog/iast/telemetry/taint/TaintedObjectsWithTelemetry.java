@@ -79,6 +79,11 @@ public abstract class TaintedObjectsWithTelemetry {
       return delegate.isFlat();
     }
 
+    @Override
+    public boolean isEmpty() {
+      return delegate.isEmpty();
+    }
+
     /**
      * A {@link TaintedObjects} data structure is always linked to a {@link RequestContext} so it's
      * actually OK to cache the result.
@@ -1,5 +1,6 @@
 package com.datadog.iast
 
+import com.datadog.iast.overhead.OverheadContext
 import datadog.trace.api.internal.TraceSegment
 import datadog.trace.api.gateway.InstrumentationGateway
 import datadog.trace.api.gateway.RequestContextSlot
@@ -50,6 +51,7 @@ class IastSystemTest extends DDSpecification {
 
     then:
     1 * iastContext.getTaintedObjects()
+    1 * iastContext.getOverheadContext() >> new OverheadContext()
     1 * traceSegment.setTagTop('_dd.iast.enabled', 1)
     0 * _
     noExceptionThrown()
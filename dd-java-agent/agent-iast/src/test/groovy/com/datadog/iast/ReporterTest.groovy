@@ -374,6 +374,38 @@ class ReporterTest extends DDSpecification {
     batch.vulnerabilities.size() >= 8
   }
 
+  void 'scheduled reset reports vulnerabilities again'() {
+    given:
+    Runnable reset = null
+    final AgentTaskScheduler scheduler = Stub {
+      scheduleAtFixedRate(_ as Runnable, 1, 1, TimeUnit.HOURS) >> { args ->
+        reset = args[0] as Runnable
+        return null
+      }
+    }
+    final predicate = new Reporter.HashBasedDeduplication(scheduler)
+    final vulnerability = new Vulnerability(
+      VulnerabilityType.WEAK_HASH,
+      Location.forSpanAndStack(123456, new StackTraceElement('foo', 'foo', 'foo', 1)),
+      new Evidence("GOOD")
+      )
+
+    when:
+    final first = predicate.test(vulnerability)
+    final second = predicate.test(vulnerability)
+
+    then: 'the second report is a duplicate'
+    !first
+    second
+
+    when:
+    reset.run()
+    final afterReset = predicate.test(vulnerability)
+
+    then: 'the vulnerability is reported again'
+    !afterReset
+  }
+
   void 'cache reset is scheduled'() {
     given:
     final AgentTaskScheduler scheduler = Mock()
@@ -1,6 +1,7 @@
 package com.datadog.iast
 
 import com.datadog.iast.HasDependencies.Dependencies
+import com.datadog.iast.overhead.OverheadContext
 import com.datadog.iast.overhead.OverheadController
 import com.datadog.iast.telemetry.IastTelemetry
 import datadog.trace.api.Config
@@ -20,6 +21,7 @@ class RequestEndedHandlerTest extends DDSpecification {
     given:
     final OverheadController overheadController = Mock(OverheadController)
     final iastCtx = Mock(IastRequestContext)
+    final overheadContext = Mock(OverheadContext)
     final IastTelemetry telemetry = Mock(IastTelemetry)
     final StackWalker stackWalker = Mock(StackWalker)
     final dependencies = new Dependencies(
@@ -42,6 +44,8 @@ class RequestEndedHandlerTest extends DDSpecification {
     1 * reqCtx.getTraceSegment() >> traceSegment
     1 * traceSegment.setTagTop("_dd.iast.enabled", 1)
     1 * iastCtx.getTaintedObjects() >> null
+    1 * iastCtx.getOverheadContext() >> overheadContext
+    1 * overheadController.requestEnded(overheadContext)
     1 * overheadController.releaseRequest()
     1 * telemetry.onRequestEnded(_, _)
     0 * _
@@ -0,0 +1,34 @@
+package com.datadog.iast.overhead
+
+import datadog.trace.test.util.DDSpecification
+import groovy.transform.CompileDynamic
+
+@CompileDynamic
+class CostSamplerTest extends DDSpecification {
+
+  void 'only a sample of calls is timed and their cost is scaled up'() {
+    given:
+    final costs = []
+    final overheadController = Stub(OverheadController) {
+      recordCost(_, _) >> { span, cost -> costs << cost }
+    }
+    final costSampler = new CostSampler(overheadController)
+    final calls = CostSampler.SAMPLING * 100
+    int sampled = 0
+
+    when:
+    for (int i = 0; i < calls; i++) {
+      final start = costSampler.start()
+      if (start != CostSampler.NOT_SAMPLED) {
+        sampled++
+      }
+      costSampler.end(start)
+    }
+
+    then:
+    sampled > 0
+    sampled < calls / 4
+    costs.size() == sampled
+    costs.every { it % CostSampler.SAMPLING == 0 && it >= 0 }
+  }
+}
@@ -281,6 +281,111 @@ class OverheadControllerTest extends DDSpecification {
     !lastAcquired
   }
 
+  void 'Sampling adapts to the overhead budget'() {
+    given: 'Set sampling to 100% and a 2% budget'
+    def config = Spy(Config.get())
+    config.getIastRequestSampling() >> 100
+    config.getIastOverheadBudget() >> 2
+    def taskSchedler = Stub(AgentTaskScheduler)
+    def overheadController = new OverheadControllerImpl(config, taskSchedler)
+
+    when: 'IAST adds 10% to the latency of every request'
+    overheadController.requestNanos.add(1_000_000)
+    overheadController.costNanos.add(100_000)
+    overheadController.adjustSampling()
+
+    then: 'Half of the requests are analyzed'
+    overheadController.sampling == 2
+
+    when: 'Overhead is still above budget'
+    overheadController.requestNanos.add(1_000_000)
+    overheadController.costNanos.add(100_000)
+    overheadController.adjustSampling()
+
+    then:
+    overheadController.sampling == 4
+
+    when: 'Overhead is within budget'
+    overheadController.requestNanos.add(1_000_000)
+    overheadController.costNanos.add(60_000)
+    overheadController.adjustSampling()
+
+    then: 'Sampling is kept'
+    overheadController.sampling == 4
+
+    when: 'Overhead drops below half the budget'
+    (1..3).each {
+      overheadController.requestNanos.add(1_000_000)
+      overheadController.adjustSampling()
+    }
+
+    then: 'Sampling goes back to the configured value'
+    overheadController.sampling == 1
+    overheadController.acquireRequest()
+  }
+
+  void 'Sampling is not adjusted without analyzed requests'() {
+    given:
+    def config = Spy(Config.get())
+    config.getIastRequestSampling() >> 100
+    config.getIastOverheadBudget() >> 2
+    def taskSchedler = Stub(AgentTaskScheduler)
+    def overheadController = new OverheadControllerImpl(config, taskSchedler)
+
+    when:
+    overheadController.costNanos.add(100_000)
+    overheadController.adjustSampling()
+
+    then:
+    overheadController.sampling == 1
+    overheadController.costNanos.sum() == 0
+  }
+
+  void 'Request cost is recorded in its overhead context'() {
+    given:
+    def config = Spy(Config.get())
+    config.getIastOverheadBudget() >> budget
+    def taskSchedler = Stub(AgentTaskScheduler)
+    def overheadController = new OverheadControllerImpl(config, taskSchedler)
+    def overheadContext = new OverheadContext()
+    def iastRequestContext = Stub(IastRequestContext)
+    iastRequestContext.getOverheadContext() >> overheadContext
+    def requestContext = Stub(RequestContext)
+    requestContext.getData(RequestContextSlot.IAST) >> iastRequestContext
+    def span = Stub(AgentSpan)
+    span.getRequestContext() >> requestContext
+
+    when:
+    overheadController.recordCost(span, cost)
+    overheadController.requestEnded(overheadContext)
+
+    then:
+    overheadContext.cost == cost
+    overheadController.costNanos.sum() == (accounted ? cost : 0)
+    (overheadController.requestNanos.sum() > 0) == accounted
+    overheadContext.budgetUsage == expectedUsage
+
+    where:
+    budget | cost | accounted | expectedUsage
+    2      | 0    | true      | 0
+    0      | 1000 | false     | OverheadContext.NOT_MEASURED
+  }
+
+  void 'Request end without overhead context is ignored'() {
+    given:
+    def config = Spy(Config.get())
+    config.getIastOverheadBudget() >> 2
+    def taskSchedler = Stub(AgentTaskScheduler)
+    def overheadController = new OverheadControllerImpl(config, taskSchedler)
+
+    when:
+    overheadController.requestEnded(null)
+
+    then:
+    noExceptionThrown()
+    overheadController.requestNanos.sum() == 0
+  }
+
   private AgentSpan getAgentSpanWithOverheadContext() {
     def iastRequestContext = Stub(IastRequestContext)
     iastRequestContext.getOverheadContext() >> new OverheadContext()
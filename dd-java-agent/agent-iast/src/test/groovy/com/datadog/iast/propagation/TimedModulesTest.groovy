@@ -0,0 +1,58 @@
+package com.datadog.iast.propagation
+
+import com.datadog.iast.overhead.CostSampler
+import com.datadog.iast.overhead.OverheadController
+import datadog.trace.api.iast.propagation.PropagationModule
+import datadog.trace.api.iast.propagation.StringModule
+import datadog.trace.api.iast.propagation.UrlModule
+import datadog.trace.test.util.DDSpecification
+import groovy.transform.CompileDynamic
+
+import java.lang.reflect.Method
+import java.lang.reflect.Modifier
+import java.lang.reflect.Proxy
+
+@CompileDynamic
+class TimedModulesTest extends DDSpecification {
+
+  void 'timed #module.simpleName delegates every method'() {
+    given:
+    final invoked = []
+    final delegate = Proxy.newProxyInstance(module.classLoader, [module] as Class[]) { proxy, method, args ->
+      invoked << method
+      return null
+    }
+    final costSampler = new CostSampler(Stub(OverheadController))
+    final timed = wrapper.call(delegate, costSampler)
+    final methods = module.methods.findAll { !it.isDefault() && !Modifier.isStatic(it.modifiers) }
+
+    expect:
+    !methods.isEmpty()
+    methods.each { Method method ->
+      invoked.clear()
+      method.invoke(timed, method.parameterTypes.collect { defaultValue(it) } as Object[])
+      assert invoked == [method]
+    }
+
+    where:
+    module            | wrapper
+    StringModule      | { d, s -> new TimedStringModule(d, s) }
+    UrlModule         | { d, s -> new TimedUrlModule(d, s) }
+    PropagationModule | { d, s -> new TimedPropagationModule(d, s) }
+  }
+
+  private static final Map<Class<?>, Object> PRIMITIVE_DEFAULTS = [
+    (Boolean.TYPE)  : false,
+    (Character.TYPE): (char) 0,
+    (Byte.TYPE)     : (byte) 0,
+    (Short.TYPE)    : (short) 0,
+    (Integer.TYPE)  : 0,
+    (Long.TYPE)     : 0L,
+    (Float.TYPE)    : 0F,
+    (Double.TYPE)   : 0D
+  ]
+
+  private static Object defaultValue(final Class<?> type) {
+    return type.isPrimitive() ? PRIMITIVE_DEFAULTS[type] : null
+  }
+}
@@ -46,6 +46,22 @@ class WeakHashModuleTest extends IastModuleImplTestBase {
     "MD4"     | _
   }
 
+  void 'iast module records the cost of sinks when an overhead budget is set'(){
+    given:
+    injectSysConfig('dd.iast.overhead-budget', '2')
+    rebuildConfig()
+    final timedModule = registerDependencies(new WeakHashModuleImpl())
+    final span = Mock(AgentSpan)
+
+    when:
+    timedModule.onHashingAlgorithm("MD5")
+
+    then:
+    1 * tracer.activeSpan() >> span
+    1 * reporter.report(span, _)
+    1 * overheadController.recordCost(span, { it >= 0 })
+  }
+
   void 'iast module secure hash algorithm'(){
     given:
     final span = Mock(AgentSpan)
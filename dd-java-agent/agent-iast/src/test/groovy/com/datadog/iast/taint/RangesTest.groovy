@@ -172,6 +172,34 @@ class RangesTest extends DDSpecification {
     result[0].source == source
   }
 
+  def 'forSubstring shares unchanged ranges'() {
+    given:
+    def src = rangesFromSpec([[0, 2], [3, 2]])
+
+    when:
+    def kept = Ranges.forSubstring(0, 5, src)
+    def clipped = Ranges.forSubstring(0, 4, src)
+    def shifted = Ranges.forSubstring(1, 4, src)
+
+    then:
+    kept.is(src)
+    clipped.length == 2
+    clipped[0].is(src[0])
+    clipped[1] == new Range(3, 1, src[1].source)
+    shifted == [new Range(0, 1, src[0].source), new Range(2, 2, src[1].source)] as Range[]
+  }
+
+  def 'mergeRanges shares ranges when one side is empty'() {
+    given:
+    def src = rangesFromSpec([[0, 2]])
+
+    expect:
+    Ranges.mergeRanges(3, src, Ranges.EMPTY).is(src)
+    Ranges.mergeRanges(0, Ranges.EMPTY, src).is(src)
+    Ranges.mergeRanges(3, Ranges.EMPTY, src) == [new Range(3, 2, src[0].source)] as Range[]
+    Ranges.mergeRanges(3, src, src) == [src[0], new Range(3, 2, src[0].source)] as Range[]
+  }
+
   Range[] rangesFromSpec(List<List<Object>> spec) {
     def ranges = new Range[spec.size()]
     int j = 0
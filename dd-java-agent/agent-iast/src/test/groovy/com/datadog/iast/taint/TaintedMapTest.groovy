@@ -39,6 +39,71 @@ class TaintedMapTest extends DDSpecification {
     map.toList().size() == 0
   }
 
+  def 'map is empty until the first put'() {
+    given:
+    def map = new DefaultTaintedMap()
+    final o = new Object()
+
+    expect:
+    map.isEmpty()
+
+    when:
+    map.put(new TaintedObject(o, [] as Range[], map.getReferenceQueue()))
+
+    then:
+    !map.isEmpty()
+
+    when:
+    map.clear()
+
+    then:
+    map.isEmpty()
+  }
+
+  def 'map is not empty after a put following a clear'() {
+    given:
+    def map = new DefaultTaintedMap()
+    map.put(new TaintedObject(new Object(), [] as Range[], map.getReferenceQueue()))
+    map.clear()
+    final o = new Object()
+
+    when:
+    map.put(new TaintedObject(o, [] as Range[], map.getReferenceQueue()))
+
+    then:
+    map.get(o) != null
+    !map.isEmpty()
+  }
+
+  def 'map holding entries is never flagged as empty when puts race with clear'() {
+    given:
+    def map = new DefaultTaintedMap()
+    def executorService = Executors.newSingleThreadExecutor()
+
+    when:
+    def inconsistent = (1..1000).findAll {
+      final o = new Object()
+      def latch = new CountDownLatch(2)
+      def future = executorService.submit({
+        ->
+        latch.countDown()
+        latch.await()
+        map.clear()
+      } as Runnable)
+      latch.countDown()
+      latch.await()
+      map.put(new TaintedObject(o, [] as Range[], map.getReferenceQueue()))
+      future.get()
+      return map.get(o) != null && map.isEmpty()
+    }
+
+    then:
+    inconsistent.isEmpty()
+
+    cleanup:
+    executorService?.shutdown()
+  }
+
   def 'get non-existent object'() {
     given:
     def map = new DefaultTaintedMap()
@@ -426,6 +491,34 @@ class TaintedMapTest extends DDSpecification {
     executorService?.shutdown()
   }
 
+  def 'table grows as entries are added and is dropped on clear'() {
+    given:
+    int initialCapacity = 16
+    int capacity = 1024
+    // size is only estimated every few puts, so keep the threshold out of reach
+    int flatModeThreshold = capacity * 4
+    def map = new DefaultTaintedMap(initialCapacity, capacity, flatModeThreshold, new ReferenceQueue<>())
+    def objects = (1..1000).collect { new Object() }
+
+    when:
+    objects.each { map.put(new TaintedObject(it, [] as Range[], map.getReferenceQueue())) }
+
+    then:
+    !map.isFlat()
+    map.@table.length > initialCapacity
+    map.@table.length <= capacity
+    objects.every { map.get(it) != null && map.get(it).get() == it }
+
+    when:
+    map.clear()
+
+    then:
+    map.@table.length == initialCapacity
+    map.getEstimatedSize() == 0
+    map.toList().size() == 0
+    objects.every { map.get(it) == null }
+  }
+
   private static class MockReferenceQueue extends ReferenceQueue<Object> {
     private List<Reference<?>> queue = new ArrayList()
     private Map<Object, Reference<?>> objects = new HashMap<>()
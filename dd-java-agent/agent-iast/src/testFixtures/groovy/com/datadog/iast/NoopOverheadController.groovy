@@ -1,6 +1,7 @@
 package com.datadog.iast
 
 import com.datadog.iast.overhead.Operation
+import com.datadog.iast.overhead.OverheadContext
 import com.datadog.iast.overhead.OverheadController
 import datadog.trace.bootstrap.instrumentation.api.AgentSpan
 import groovy.transform.CompileStatic
@@ -27,6 +28,14 @@ class NoopOverheadController implements OverheadController {
     true
   }
 
+  @Override
+  void recordCost(AgentSpan span, long cpuNanos) {
+  }
+
+  @Override
+  void requestEnded(OverheadContext context) {
+  }
+
   @Override
   void reset() {
   }
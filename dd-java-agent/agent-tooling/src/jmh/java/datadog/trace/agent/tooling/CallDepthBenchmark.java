@@ -0,0 +1,60 @@
+package datadog.trace.agent.tooling;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import datadog.trace.bootstrap.CallDepthThreadLocalMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures nested call-depth tracking, comparing class-literal keys with the ids that advice is
+ * rewritten to use.
+ */
+@Warmup(iterations = 1, time = 1000, timeUnit = MILLISECONDS)
+@Measurement(iterations = 3, time = 1000, timeUnit = MILLISECONDS)
+@Fork(3)
+@Threads(4)
+@OutputTimeUnit(NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+public class CallDepthBenchmark {
+
+  private static final int NESTING = 8;
+
+  private static final int ID = CallDepthThreadLocalMap.getCallDepthId(Key.class.getName());
+
+  @Benchmark
+  public int nestedClassKey() {
+    int depth = 0;
+    for (int i = 0; i < NESTING; i++) {
+      depth += CallDepthThreadLocalMap.incrementCallDepth(Key.class);
+    }
+    for (int i = 0; i < NESTING; i++) {
+      depth += CallDepthThreadLocalMap.decrementCallDepth(Key.class);
+    }
+    return depth;
+  }
+
+  @Benchmark
+  public int nestedIdKey() {
+    int depth = 0;
+    for (int i = 0; i < NESTING; i++) {
+      depth += CallDepthThreadLocalMap.incrementCallDepth(ID);
+    }
+    for (int i = 0; i < NESTING; i++) {
+      depth += CallDepthThreadLocalMap.decrementCallDepth(ID);
+    }
+    return depth;
+  }
+
+  static final class Key {}
+}
@@ -0,0 +1,148 @@
+package datadog.trace.agent.tooling;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.blogspot.mydailyjava.weaklockfree.WeakConcurrentMap;
+import datadog.trace.bootstrap.WeakMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link WeakIdentityMap} with the previous {@link WeakConcurrentMap} based implementation
+ * under concurrent gets, puts and short-lived keys.
+ */
+@Warmup(iterations = 1, time = 1000, timeUnit = MILLISECONDS)
+@Measurement(iterations = 3, time = 1000, timeUnit = MILLISECONDS)
+@Fork(3)
+@Threads(8)
+@OutputTimeUnit(NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+public class WeakMapBenchmark {
+
+  private static final int KEY_COUNT = 4096;
+
+  @Param({"weakIdentityMap", "weakConcurrentMap"})
+  String implementation;
+
+  private WeakMap<Object, Object> map;
+  private Object[] keys;
+  private Object value;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    if ("weakConcurrentMap".equals(implementation)) {
+      map = new WeakConcurrentMapAdapter<>(new WeakConcurrentMap<>(false, true));
+    } else {
+      map = new WeakIdentityMap<>();
+    }
+    keys = new Object[KEY_COUNT];
+    value = new Object();
+    for (int i = 0; i < KEY_COUNT; i++) {
+      keys[i] = new Object();
+      map.put(keys[i], value);
+    }
+  }
+
+  private Object randomKey() {
+    return keys[ThreadLocalRandom.current().nextInt(KEY_COUNT)];
+  }
+
+  @Benchmark
+  public Object get() {
+    return map.get(randomKey());
+  }
+
+  @Benchmark
+  public Object getMissing() {
+    return map.get(new Object());
+  }
+
+  @Benchmark
+  public void put() {
+    map.put(randomKey(), value);
+  }
+
+  @Benchmark
+  public Object computeIfAbsent() {
+    return map.computeIfAbsent(randomKey(), k -> value);
+  }
+
+  @Benchmark
+  public void putShortLivedKey() {
+    // short-lived keys keep the cleanup and rebuild paths busy
+    map.put(new Object(), value);
+  }
+
+  /** The previous {@link WeakMap} implementation, kept here for comparison. */
+  static final class WeakConcurrentMapAdapter<K, V> implements WeakMap<K, V> {
+    private final WeakConcurrentMap<K, V> map;
+
+    WeakConcurrentMapAdapter(final WeakConcurrentMap<K, V> map) {
+      this.map = map;
+    }
+
+    @Override
+    public int size() {
+      return map.approximateSize();
+    }
+
+    @Override
+    public boolean containsKey(final K key) {
+      return map.containsKey(key);
+    }
+
+    @Override
+    public V get(final K key) {
+      return map.get(key);
+    }
+
+    @Override
+    public void put(final K key, final V value) {
+      if (null != value) {
+        map.put(key, value);
+      } else {
+        map.remove(key);
+      }
+    }
+
+    @Override
+    public V putIfAbsent(final K key, final V value) {
+      return map.putIfAbsent(key, value);
+    }
+
+    @Override
+    public V computeIfAbsent(final K key, final Function<? super K, ? extends V> supplier) {
+      V value = map.get(key);
+      if (null == value) {
+        synchronized (this) {
+          value = map.get(key);
+          if (null == value) {
+            value = supplier.apply(key);
+            map.put(key, value);
+          }
+        }
+      }
+      return value;
+    }
+
+    @Override
+    public V remove(final K key) {
+      return map.remove(key);
+    }
+  }
+}
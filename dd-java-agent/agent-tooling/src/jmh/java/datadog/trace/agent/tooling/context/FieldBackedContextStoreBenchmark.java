@@ -0,0 +1,89 @@
+package datadog.trace.agent.tooling.context;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import datadog.trace.bootstrap.FieldBackedContextStore;
+import datadog.trace.bootstrap.FieldBackedContextStores;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures get/put through {@link FieldBackedContextStore} for keys without an injected field,
+ * which fall back to the weak-keyed table, spread over an increasing number of store ids.
+ */
+@Warmup(iterations = 1, time = 1000, timeUnit = MILLISECONDS)
+@Measurement(iterations = 3, time = 1000, timeUnit = MILLISECONDS)
+@Fork(3)
+@Threads(4)
+@OutputTimeUnit(NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+public class FieldBackedContextStoreBenchmark {
+
+  private static final int OP_COUNT = 1024;
+
+  @Param({"1", "32", "100"})
+  int storeCount;
+
+  private int[] storeIds;
+  private Object[] keys;
+  private Object context;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    storeIds = new int[storeCount];
+    for (int i = 0; i < storeCount; i++) {
+      storeIds[i] = FieldBackedContextStores.getContextStoreId("benchmark.Key" + i, "Context");
+    }
+    keys = new Object[OP_COUNT];
+    for (int i = 0; i < OP_COUNT; i++) {
+      keys[i] = new Object();
+    }
+    context = new Object();
+    for (int i = 0; i < OP_COUNT; i++) {
+      store(i).put(keys[i], context);
+    }
+  }
+
+  private FieldBackedContextStore store(int i) {
+    return FieldBackedContextStores.getContextStore(storeIds[i % storeIds.length]);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OP_COUNT)
+  public void get(final Blackhole bh) {
+    for (int i = 0; i < OP_COUNT; i++) {
+      bh.consume(store(i).get(keys[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OP_COUNT)
+  public void put() {
+    for (int i = 0; i < OP_COUNT; i++) {
+      store(i).put(keys[i], context);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OP_COUNT)
+  public void putIfAbsent(final Blackhole bh) {
+    for (int i = 0; i < OP_COUNT; i++) {
+      bh.consume(store(i).putIfAbsent(keys[i], context));
+    }
+  }
+}
@@ -190,6 +190,18 @@ public interface Instrumenter {
       }
     }
 
+    /** Does the instrumentation's advice pass class keys to {@code CallDepthThreadLocalMap}? */
+    public static boolean usesCallDepth(ClassLoader classLoader, String instrumentationClass) {
+      String muzzleClass = instrumentationClass + "$Muzzle";
+      try {
+        // detected at build-time, see datadog.trace.agent.tooling.muzzle.MuzzleGenerator
+        return (boolean) classLoader.loadClass(muzzleClass).getMethod("usesCallDepth").invoke(null);
+      } catch (Throwable e) {
+        // assume it does, rewriting advice which doesn't use call-depth keys is harmless
+        return true;
+      }
+    }
+
     /** @return Class names of helpers to inject into the user's classloader */
     public String[] helperClassNames() {
       return new String[0];
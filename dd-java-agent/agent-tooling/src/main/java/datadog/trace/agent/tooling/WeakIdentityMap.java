@@ -0,0 +1,117 @@
+package datadog.trace.agent.tooling;
+
+import datadog.trace.bootstrap.WeakIdentityTable;
+import datadog.trace.bootstrap.WeakMap;
+import java.util.function.Function;
+
+/**
+ * Concurrent weak-identity {@link WeakMap} striped over several {@link WeakIdentityTable}s.
+ *
+ * <p>Each stripe has its own reference-queue, so stale keys are drained stripe-by-stripe without a
+ * global lock. Lookups are lock-free and don't allocate a wrapper for the key.
+ */
+public final class WeakIdentityMap<K, V> implements WeakMap<K, V> {
+  private static final int MAX_STRIPES = 16;
+
+  private static final int DEFAULT_STRIPES =
+      Math.min(MAX_STRIPES, Integer.highestOneBit(Runtime.getRuntime().availableProcessors()));
+
+  private final WeakIdentityTable<K, V>[] stripes;
+  private final int stripeMask;
+
+  public WeakIdentityMap() {
+    this(DEFAULT_STRIPES);
+  }
+
+  @SuppressWarnings("unchecked")
+  WeakIdentityMap(int stripeCount) {
+    int length = stripeCount > 1 ? Integer.highestOneBit(stripeCount - 1) << 1 : 1;
+    this.stripes = new WeakIdentityTable[length];
+    for (int i = 0; i < length; i++) {
+      stripes[i] = new WeakIdentityTable<>();
+    }
+    this.stripeMask = length - 1;
+  }
+
+  private WeakIdentityTable<K, V> stripeFor(Object key) {
+    // use the top bits to pick the stripe, the table uses the bottom bits to pick the slot
+    return stripes[(System.identityHashCode(key) >>> 24) & stripeMask];
+  }
+
+  @Override
+  public int size() {
+    int size = 0;
+    for (WeakIdentityTable<K, V> stripe : stripes) {
+      size += stripe.size();
+    }
+    return size;
+  }
+
+  /** Number of entries released so far because their keys were collected. */
+  public long expungedCount() {
+    long expunged = 0;
+    for (WeakIdentityTable<K, V> stripe : stripes) {
+      expunged += stripe.expungedCount();
+    }
+    return expunged;
+  }
+
+  /** Number of stripes the map is split into. */
+  public int stripeCount() {
+    return stripes.length;
+  }
+
+  /** Releases values whose keys have been collected, one stripe at a time. */
+  public void expungeStaleEntries() {
+    for (WeakIdentityTable<K, V> stripe : stripes) {
+      stripe.expungeStaleEntries();
+    }
+  }
+
+  @Override
+  public boolean containsKey(final K key) {
+    return null != key && stripeFor(key).containsKey(key);
+  }
+
+  @Override
+  public V get(final K key) {
+    return null != key ? stripeFor(key).get(key) : null;
+  }
+
+  @Override
+  public void put(final K key, final V value) {
+    if (null != key) {
+      stripeFor(key).put(key, value);
+    }
+  }
+
+  @Override
+  public V putIfAbsent(final K key, final V value) {
+    if (null == key || null == value) {
+      return get(key);
+    }
+    return stripeFor(key).putIfAbsent(key, value);
+  }
+
+  @Override
+  public V computeIfAbsent(final K key, final Function<? super K, ? extends V> supplier) {
+    WeakIdentityTable<K, V> stripe = stripeFor(key);
+    V value = stripe.get(key);
+    if (null == value) {
+      // only lock the stripe when we need to avoid calling the supplier more than once
+      synchronized (stripe) {
+        value = stripe.get(key);
+        if (null == value) {
+          value = supplier.apply(key);
+          stripe.put(key, value);
+        }
+      }
+    }
+    return value;
+  }
+
+  @Override
+  public V remove(final K key) {
+    return null != key ? stripeFor(key).remove(key) : null;
+  }
+}
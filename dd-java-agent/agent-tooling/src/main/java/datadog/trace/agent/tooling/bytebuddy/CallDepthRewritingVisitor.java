@@ -0,0 +1,209 @@
+package datadog.trace.agent.tooling.bytebuddy;
+
+import static datadog.trace.bootstrap.CallDepthThreadLocalMap.getCallDepthId;
+import static datadog.trace.util.Strings.getInternalName;
+
+import datadog.trace.bootstrap.CallDepthThreadLocalMap;
+import net.bytebuddy.asm.AsmVisitorWrapper;
+import net.bytebuddy.description.field.FieldDescription;
+import net.bytebuddy.description.field.FieldList;
+import net.bytebuddy.description.method.MethodList;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.jar.asm.ClassVisitor;
+import net.bytebuddy.jar.asm.Handle;
+import net.bytebuddy.jar.asm.Label;
+import net.bytebuddy.jar.asm.MethodVisitor;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.jar.asm.Type;
+import net.bytebuddy.pool.TypePool;
+
+/**
+ * ASM visitor which rewrites {@link CallDepthThreadLocalMap} calls that use class-literal keys, so
+ * they use the stable call-depth id assigned to that key during transformation instead.
+ *
+ * <p>{@code CallDepthThreadLocalMap.incrementCallDepth(Foo.class)} becomes {@code
+ * CallDepthThreadLocalMap.incrementCallDepth(id)} which avoids looking up the key's id at runtime.
+ * Calls where the key isn't a class-literal are left as-is.
+ *
+ * <p>Ids are assigned by class name, not by class, so same-named key classes from different
+ * class-loaders share one call-depth. This matches the runtime lookup for non-literal keys, which
+ * goes through the same name-based id.
+ */
+public final class CallDepthRewritingVisitor implements AsmVisitorWrapper {
+  public static final CallDepthRewritingVisitor INSTANCE = new CallDepthRewritingVisitor();
+
+  static final String CALL_DEPTH_THREAD_LOCAL_MAP_CLASS =
+      getInternalName(CallDepthThreadLocalMap.class.getName());
+
+  static final String CLASS_KEY_INT_RESULT_DESCRIPTOR =
+      Type.getMethodDescriptor(Type.INT_TYPE, Type.getType(Class.class));
+  static final String CLASS_KEY_VOID_RESULT_DESCRIPTOR =
+      Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(Class.class));
+
+  static final String ID_KEY_INT_RESULT_DESCRIPTOR =
+      Type.getMethodDescriptor(Type.INT_TYPE, Type.INT_TYPE);
+  static final String ID_KEY_VOID_RESULT_DESCRIPTOR =
+      Type.getMethodDescriptor(Type.VOID_TYPE, Type.INT_TYPE);
+
+  private CallDepthRewritingVisitor() {}
+
+  @Override
+  public int mergeWriter(final int flags) {
+    // the class-literal is swapped for an int of the same size, so max stack is unchanged
+    return flags;
+  }
+
+  @Override
+  public int mergeReader(final int flags) {
+    return flags;
+  }
+
+  @Override
+  public ClassVisitor wrap(
+      final TypeDescription instrumentedType,
+      final ClassVisitor classVisitor,
+      final Implementation.Context implementationContext,
+      final TypePool typePool,
+      final FieldList<FieldDescription.InDefinedShape> fields,
+      final MethodList<?> methods,
+      final int writerFlags,
+      final int readerFlags) {
+    return new ClassVisitor(Opcodes.ASM7, classVisitor) {
+      @Override
+      public MethodVisitor visitMethod(
+          final int access,
+          final String name,
+          final String descriptor,
+          final String signature,
+          final String[] exceptions) {
+        final MethodVisitor mv = super.visitMethod(access, name, descriptor, signature, exceptions);
+        return new MethodVisitor(Opcodes.ASM7, mv) {
+          /** The class-literal pushed onto the stack by the previous instruction. */
+          private Type keyType;
+
+          @Override
+          public void visitLdcInsn(final Object value) {
+            super.visitLdcInsn(value);
+            if (value instanceof Type && ((Type) value).getSort() == Type.OBJECT) {
+              keyType = (Type) value;
+            } else {
+              keyType = null;
+            }
+          }
+
+          @Override
+          public void visitMethodInsn(
+              final int opcode,
+              final String owner,
+              final String name,
+              final String descriptor,
+              final boolean isInterface) {
+            if (null != keyType
+                && Opcodes.INVOKESTATIC == opcode
+                && CALL_DEPTH_THREAD_LOCAL_MAP_CLASS.equals(owner)) {
+              String idDescriptor = null;
+              if (CLASS_KEY_INT_RESULT_DESCRIPTOR.equals(descriptor)) {
+                idDescriptor = ID_KEY_INT_RESULT_DESCRIPTOR;
+              } else if (CLASS_KEY_VOID_RESULT_DESCRIPTOR.equals(descriptor)) {
+                idDescriptor = ID_KEY_VOID_RESULT_DESCRIPTOR;
+              }
+              if (null != idDescriptor) {
+                // discard class-literal so we can use the numeric id instead
+                mv.visitInsn(Opcodes.POP);
+                mv.visitLdcInsn(getCallDepthId(keyType.getClassName()));
+                super.visitMethodInsn(opcode, owner, name, idDescriptor, isInterface);
+                keyType = null;
+                return;
+              }
+            }
+            keyType = null;
+            super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+          }
+
+          // any other instruction means the class-literal is no longer at the top of the stack
+
+          @Override
+          public void visitInsn(final int opcode) {
+            keyType = null;
+            super.visitInsn(opcode);
+          }
+
+          @Override
+          public void visitIntInsn(final int opcode, final int operand) {
+            keyType = null;
+            super.visitIntInsn(opcode, operand);
+          }
+
+          @Override
+          public void visitVarInsn(final int opcode, final int var) {
+            keyType = null;
+            super.visitVarInsn(opcode, var);
+          }
+
+          @Override
+          public void visitTypeInsn(final int opcode, final String type) {
+            keyType = null;
+            super.visitTypeInsn(opcode, type);
+          }
+
+          @Override
+          public void visitFieldInsn(
+              final int opcode, final String owner, final String name, final String descriptor) {
+            keyType = null;
+            super.visitFieldInsn(opcode, owner, name, descriptor);
+          }
+
+          @Override
+          public void visitInvokeDynamicInsn(
+              final String name,
+              final String descriptor,
+              final Handle bootstrapMethodHandle,
+              final Object... bootstrapMethodArguments) {
+            keyType = null;
+            super.visitInvokeDynamicInsn(
+                name, descriptor, bootstrapMethodHandle, bootstrapMethodArguments);
+          }
+
+          @Override
+          public void visitJumpInsn(final int opcode, final Label label) {
+            keyType = null;
+            super.visitJumpInsn(opcode, label);
+          }
+
+          @Override
+          public void visitLabel(final Label label) {
+            keyType = null;
+            super.visitLabel(label);
+          }
+
+          @Override
+          public void visitIincInsn(final int var, final int increment) {
+            keyType = null;
+            super.visitIincInsn(var, increment);
+          }
+
+          @Override
+          public void visitTableSwitchInsn(
+              final int min, final int max, final Label dflt, final Label... labels) {
+            keyType = null;
+            super.visitTableSwitchInsn(min, max, dflt, labels);
+          }
+
+          @Override
+          public void visitLookupSwitchInsn(
+              final Label dflt, final int[] keys, final Label[] labels) {
+            keyType = null;
+            super.visitLookupSwitchInsn(dflt, keys, labels);
+          }
+
+          @Override
+          public void visitMultiANewArrayInsn(final String descriptor, final int numDimensions) {
+            keyType = null;
+            super.visitMultiANewArrayInsn(descriptor, numDimensions);
+          }
+        };
+      }
+    };
+  }
+}
@@ -247,42 +247,30 @@ public final class FieldBackedContextInjector implements AsmVisitorWrapper {
 
         String instrumentedName = instrumentedType.getInternalName();
         boolean hasMoreStores = hasSuperStores || !weakStoreIds.isEmpty();
+        Label superStoreLabel = hasMoreStores ? new Label() : null;
 
-        // if...else... blocks for stores injected into this class
+        Label[] storeLabels = switchOnStoreId(mv, injectedStoreIds, weakStoreIds, superStoreLabel);
+
+        // switch cases for stores injected into this class
         int injectedStoreId = injectedStoreIds.nextSetBit(0);
         while (injectedStoreId >= 0) {
-          int nextStoreId = injectedStoreIds.nextSetBit(injectedStoreId + 1);
-
-          // optimization: if we know the superclass hierarchy doesn't have any context store
-          // (injected or weak-map) then we can skip the id check and go straight to the field
-          Label nextStoreLabel = null;
-          if (hasMoreStores || nextStoreId >= 0) {
-            nextStoreLabel = compareStoreId(mv, injectedStoreId);
-          }
-
+          beginStore(mv, storeLabels, injectedStoreId);
           getStoreField(mv, instrumentedName, injectedStoreId);
-
-          if (null != nextStoreLabel) {
-            beginNextStore(mv, nextStoreLabel);
-          }
-          injectedStoreId = nextStoreId;
+          injectedStoreId = injectedStoreIds.nextSetBit(injectedStoreId + 1);
         }
 
-        // if...else... blocks for weak stores between this class and last injected superclass
+        // switch cases for weak stores between this class and last injected superclass
         int weakStoreId = weakStoreIds.nextSetBit(0);
         while (weakStoreId >= 0) {
-          int nextStoreId = weakStoreIds.nextSetBit(weakStoreId + 1);
-          Label nextStoreLabel = compareStoreId(mv, weakStoreId);
-
-          invokeWeakGet(mv);
-
-          beginNextStore(mv, nextStoreLabel);
-          weakStoreId = nextStoreId;
+          if (!injectedStoreIds.get(weakStoreId)) {
+            beginStore(mv, storeLabels, weakStoreId);
+            invokeWeakGet(mv);
+          }
+          weakStoreId = weakStoreIds.nextSetBit(weakStoreId + 1);
         }
 
-        // else... delegate to superclass - but be prepared to fall back to weak-map
+        // default... delegate to superclass - but be prepared to fall back to weak-map
         if (hasMoreStores) {
-          Label superStoreLabel = new Label();
           Label defaultStoreLabel = new Label();
 
           mv.visitTryCatchBlock(
@@ -312,42 +300,30 @@ public final class FieldBackedContextInjector implements AsmVisitorWrapper {
 
         String instrumentedName = instrumentedType.getInternalName();
         boolean hasMoreStores = hasSuperStores || !weakStoreIds.isEmpty();
+        Label superStoreLabel = hasMoreStores ? new Label() : null;
 
-        // if...else... blocks for stores injected into this class
+        Label[] storeLabels = switchOnStoreId(mv, injectedStoreIds, weakStoreIds, superStoreLabel);
+
+        // switch cases for stores injected into this class
         int injectedStoreId = injectedStoreIds.nextSetBit(0);
         while (injectedStoreId >= 0) {
-          int nextStoreId = injectedStoreIds.nextSetBit(injectedStoreId + 1);
-
-          // optimization: if we know the superclass hierarchy doesn't have any context store
-          // (injected or weak-map) then we can skip the id check and go straight to the field
-          Label nextStoreLabel = null;
-          if (hasMoreStores || nextStoreId >= 0) {
-            nextStoreLabel = compareStoreId(mv, injectedStoreId);
-          }
-
+          beginStore(mv, storeLabels, injectedStoreId);
           putStoreField(mv, instrumentedName, injectedStoreId);
-
-          if (null != nextStoreLabel) {
-            beginNextStore(mv, nextStoreLabel);
-          }
-          injectedStoreId = nextStoreId;
+          injectedStoreId = injectedStoreIds.nextSetBit(injectedStoreId + 1);
         }
 
-        // if...else... blocks for weak stores between this class and last injected superclass
+        // switch cases for weak stores between this class and last injected superclass
         int weakStoreId = weakStoreIds.nextSetBit(0);
         while (weakStoreId >= 0) {
-          int nextStoreId = weakStoreIds.nextSetBit(weakStoreId + 1);
-          Label nextStoreLabel = compareStoreId(mv, weakStoreId);
-
-          invokeWeakPut(mv);
-
-          beginNextStore(mv, nextStoreLabel);
-          weakStoreId = nextStoreId;
+          if (!injectedStoreIds.get(weakStoreId)) {
+            beginStore(mv, storeLabels, weakStoreId);
+            invokeWeakPut(mv);
+          }
+          weakStoreId = weakStoreIds.nextSetBit(weakStoreId + 1);
         }
 
-        // else... delegate to superclass - but be prepared to fall back to weak-map
+        // default... delegate to superclass - but be prepared to fall back to weak-map
         if (hasMoreStores) {
-          Label superStoreLabel = new Label();
           Label defaultStoreLabel = new Label();
 
           mv.visitTryCatchBlock(
@@ -368,20 +344,57 @@ public final class FieldBackedContextInjector implements AsmVisitorWrapper {
         mv.visitEnd();
       }
 
-      private Label compareStoreId(final MethodVisitor mv, final int storeId) {
+      /**
+       * Dispatches on the requested store id using a single {@code lookupswitch}, so the cost of
+       * finding the right field stays flat no matter how many stores are injected in the class.
+       *
+       * <p>Optimization: if we know the superclass hierarchy doesn't have any context store
+       * (injected or weak-map) and there's only one injected store then we can skip the switch and
+       * go straight to the field. Otherwise when there's no superclass to delegate to, the last
+       * injected store acts as the default case, which matches the previous if...else... chain.
+       *
+       * @return switch labels indexed by store id, {@code null} when there's no switch
+       */
+      private Label[] switchOnStoreId(
+          final MethodVisitor mv,
+          final BitSet injectedStoreIds,
+          final BitSet weakStoreIds,
+          final Label superStoreLabel) {
+        if (null == superStoreLabel && injectedStoreIds.cardinality() <= 1) {
+          return null;
+        }
+
+        BitSet storeIds = (BitSet) injectedStoreIds.clone();
+        storeIds.or(weakStoreIds);
+
+        Label[] storeLabels = new Label[storeIds.length()];
+        int[] keys = new int[storeIds.cardinality()];
+        Label[] labels = new Label[keys.length];
+
+        int i = 0;
+        int storeId = storeIds.nextSetBit(0);
+        while (storeId >= 0) {
+          storeLabels[storeId] = new Label();
+          keys[i] = storeId;
+          labels[i++] = storeLabels[storeId];
+          storeId = storeIds.nextSetBit(storeId + 1);
+        }
+
+        Label defaultLabel = superStoreLabel;
+        if (null == defaultLabel) {
+          defaultLabel = storeLabels[injectedStoreIds.length() - 1];
+        }
+
         mv.visitIntInsn(Opcodes.ILOAD, 1);
-        Label nextStoreLabel = new Label();
-        if (storeId == 0) {
-          mv.visitJumpInsn(Opcodes.IFNE, nextStoreLabel);
-        } else {
-          if (storeId >= 0 && storeId <= 5) {
-            mv.visitInsn(Opcodes.ICONST_0 + storeId);
-          } else {
-            mv.visitLdcInsn(storeId);
-          }
-          mv.visitJumpInsn(Opcodes.IF_ICMPNE, nextStoreLabel);
+        mv.visitLookupSwitchInsn(defaultLabel, keys, labels);
+        return storeLabels;
+      }
+
+      private void beginStore(
+          final MethodVisitor mv, final Label[] storeLabels, final int storeId) {
+        if (null != storeLabels) {
+          beginNextStore(mv, storeLabels[storeId]);
         }
-        return nextStoreLabel;
       }
 
       private void beginNextStore(final MethodVisitor mv, final Label nextStoreLabel) {
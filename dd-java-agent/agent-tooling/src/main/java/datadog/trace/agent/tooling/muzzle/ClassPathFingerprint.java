@@ -0,0 +1,128 @@
+package datadog.trace.agent.tooling.muzzle;
+
+import datadog.trace.agent.tooling.WeakMaps;
+import datadog.trace.bootstrap.WeakMap;
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * Fingerprint of the class-path a class-loader resolves classes from. Loaders exposing the same
+ * library jars produce equal fingerprints, which means they can share the result of a previous
+ * muzzle match.
+ *
+ * <p>Matching may consult any class visible from the loader, such as supertypes or helpers found in
+ * other jars, so the fingerprint covers the whole loader chain: the class and URLs of each {@link
+ * URLClassLoader}, up to the first loader which is not one. That loader is compared by identity.
+ *
+ * <ul>
+ *   <li>jars contribute their file name, size, and last-modified time
+ *   <li>directories contribute their location and last-modified time
+ *   <li>anything else contributes its full location
+ * </ul>
+ *
+ * Directory names are deliberately left out of jar checksums so identical copies of a library in
+ * different webapps (such as {@code WEB-INF/lib}) share the same fingerprint.
+ */
+final class ClassPathFingerprint {
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private static final WeakMap<ClassLoader, ClassPathFingerprint> FINGERPRINTS =
+      WeakMaps.newWeakMap();
+
+  // first loader of the chain which is not a URLClassLoader, null for the bootstrap class-loader
+  private final WeakReference<ClassLoader> parent;
+  private final long hash;
+
+  private ClassPathFingerprint(ClassLoader parent, long hash) {
+    this.parent = null != parent ? new WeakReference<>(parent) : null;
+    this.hash = hash;
+  }
+
+  /**
+   * Fingerprints the class-path of the class-loader, computed once per loader.
+   *
+   * @return {@code null} if the loader is not a {@link URLClassLoader}
+   */
+  static ClassPathFingerprint of(ClassLoader loader) {
+    if (!(loader instanceof URLClassLoader)) {
+      return null;
+    }
+    ClassPathFingerprint fingerprint = FINGERPRINTS.get(loader);
+    if (null == fingerprint) {
+      fingerprint = compute(loader);
+      FINGERPRINTS.put(loader, fingerprint);
+    }
+    return fingerprint;
+  }
+
+  private static ClassPathFingerprint compute(ClassLoader loader) {
+    long hash = FNV_OFFSET_BASIS;
+    while (loader instanceof URLClassLoader) {
+      // the loader class decides how classes are looked up, such as child-first delegation
+      hash = mix(hash, hashOf(loader.getClass().getName()));
+      for (URL url : ((URLClassLoader) loader).getURLs()) {
+        hash = mix(hash, checksum(url));
+      }
+      loader = loader.getParent();
+    }
+    return new ClassPathFingerprint(loader, hash);
+  }
+
+  private static long checksum(URL url) {
+    if ("file".equals(url.getProtocol())) {
+      File file = new File(url.getPath());
+      if (file.isFile()) {
+        return fileChecksum(file.getName(), file);
+      }
+      return fileChecksum(url.toString(), file);
+    }
+    return hashOf(url.toString());
+  }
+
+  private static long fileChecksum(String name, File file) {
+    return 31 * (31 * hashOf(name) + file.length()) + file.lastModified();
+  }
+
+  private static long mix(long hash, long value) {
+    for (int shift = 0; shift < 64; shift += 8) {
+      hash = (hash ^ ((value >>> shift) & 0xFF)) * FNV_PRIME;
+    }
+    return hash;
+  }
+
+  private static long hashOf(String value) {
+    long h = FNV_OFFSET_BASIS;
+    for (int i = 0, len = value.length(); i < len; i++) {
+      h = (h ^ value.charAt(i)) * FNV_PRIME;
+    }
+    return h;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof ClassPathFingerprint)) {
+      return false;
+    }
+    ClassPathFingerprint that = (ClassPathFingerprint) o;
+    if (hash != that.hash) {
+      return false;
+    }
+    if (null == parent || null == that.parent) {
+      return parent == that.parent;
+    }
+    ClassLoader parentLoader = parent.get();
+    // fingerprints of a collected parent never match again
+    return null != parentLoader && parentLoader == that.parent.get();
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(hash);
+  }
+}
@@ -1,8 +1,10 @@
 package datadog.trace.agent.tooling.muzzle;
 
 import datadog.trace.agent.tooling.Instrumenter;
+import datadog.trace.bootstrap.CallDepthThreadLocalMap;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -18,6 +20,7 @@ import net.bytebuddy.description.field.FieldList;
 import net.bytebuddy.description.method.MethodList;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.jar.asm.ClassReader;
 import net.bytebuddy.jar.asm.ClassVisitor;
 import net.bytebuddy.jar.asm.ClassWriter;
 import net.bytebuddy.jar.asm.MethodVisitor;
@@ -100,6 +103,28 @@ public class MuzzleGenerator implements AsmVisitorWrapper {
     return references.values().toArray(new Reference[0]);
   }
 
+  /** Does any advice class pass call-depth keys which could be rewritten to their ids? */
+  private static boolean usesCallDepth(Instrumenter.Default instrumenter) {
+    final Set<String> adviceClasses = new HashSet<>();
+    instrumenter.adviceTransformations((matcher, name) -> adviceClasses.add(name));
+    ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+    CallDepthDetector detector = new CallDepthDetector();
+    for (String adviceClass : adviceClasses) {
+      try (InputStream in =
+          contextClassLoader.getResourceAsStream(adviceClass.replace('.', '/') + ".class")) {
+        if (null != in) {
+          new ClassReader(in).accept(detector, ClassReader.SKIP_FRAMES);
+          if (detector.usesCallDepth) {
+            return true;
+          }
+        }
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+    return false;
+  }
+
   /** This code is generated in a separate side-class. */
   private static byte[] generateMuzzleClass(Instrumenter.Default instrumenter) {
 
@@ -163,6 +188,17 @@ public class MuzzleGenerator implements AsmVisitorWrapper {
     mv.visitMaxs(0, 0);
     mv.visitEnd();
 
+    mv =
+        cw.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "usesCallDepth", "()Z", null, null);
+
+    mv.visitCode();
+
+    mv.visitInsn(usesCallDepth(instrumenter) ? Opcodes.ICONST_1 : Opcodes.ICONST_0);
+    mv.visitInsn(Opcodes.IRETURN);
+
+    mv.visitMaxs(0, 0);
+    mv.visitEnd();
+
     return cw.toByteArray();
   }
 
@@ -277,4 +313,36 @@ public class MuzzleGenerator implements AsmVisitorWrapper {
       mv.visitInsn(Opcodes.AASTORE);
     }
   }
+
+  /** Looks for calls to {@link CallDepthThreadLocalMap} methods that take a class key. */
+  static final class CallDepthDetector extends ClassVisitor {
+    private static final String CALL_DEPTH_THREAD_LOCAL_MAP_CLASS =
+        Type.getInternalName(CallDepthThreadLocalMap.class);
+    private static final String CLASS_KEY_PREFIX = "(Ljava/lang/Class;)";
+
+    boolean usesCallDepth;
+
+    CallDepthDetector() {
+      super(Opcodes.ASM7);
+    }
+
+    @Override
+    public MethodVisitor visitMethod(
+        int access, String name, String descriptor, String signature, String[] exceptions) {
+      if (usesCallDepth) {
+        return null;
+      }
+      return new MethodVisitor(Opcodes.ASM7) {
+        @Override
+        public void visitMethodInsn(
+            int opcode, String owner, String name, String descriptor, boolean isInterface) {
+          if (Opcodes.INVOKESTATIC == opcode
+              && CALL_DEPTH_THREAD_LOCAL_MAP_CLASS.equals(owner)
+              && descriptor.startsWith(CLASS_KEY_PREFIX)) {
+            usesCallDepth = true;
+          }
+        }
+      };
+    }
+  }
 }
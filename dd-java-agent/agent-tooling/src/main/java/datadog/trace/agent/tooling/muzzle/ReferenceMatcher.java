@@ -2,6 +2,7 @@ package datadog.trace.agent.tooling.muzzle;
 
 import datadog.trace.agent.tooling.bytebuddy.SharedTypePools;
 import datadog.trace.agent.tooling.muzzle.Reference.Mismatch;
+import datadog.trace.api.InstrumenterConfig;
 import datadog.trace.api.Pair;
 import de.thetaphi.forbiddenapis.SuppressForbidden;
 import java.util.ArrayList;
@@ -10,6 +11,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import net.bytebuddy.description.field.FieldDescription;
 import net.bytebuddy.description.method.MethodDescription;
 import net.bytebuddy.description.type.TypeDescription;
@@ -19,8 +21,17 @@ import net.bytebuddy.pool.TypePool;
 public class ReferenceMatcher {
   public static final ReferenceMatcher NO_REFERENCES = new ReferenceMatcher();
 
+  private static final boolean VERDICT_CACHE_ENABLED =
+      InstrumenterConfig.get().isResolverMuzzleCacheEnabled();
+
+  // bounds the number of distinct class-paths remembered per matcher
+  private static final int MAX_CACHED_VERDICTS = 64;
+
   private final Reference[] references;
 
+  /** Previous match results, keyed by {@link ClassPathFingerprint}. */
+  private final Map<ClassPathFingerprint, Boolean> verdicts = new ConcurrentHashMap<>();
+
   private ReferenceProvider referenceProvider;
 
   public ReferenceMatcher(final Reference... references) {
@@ -45,6 +56,26 @@ public class ReferenceMatcher {
    * @return true if all references match the classpath of loader
    */
   public boolean matches(ClassLoader loader) {
+    // runtime references are computed per-loader, so they can't be covered by a fingerprint
+    if (!VERDICT_CACHE_ENABLED || null != referenceProvider || references.length == 0) {
+      return doMatch(loader);
+    }
+    ClassPathFingerprint fingerprint = ClassPathFingerprint.of(loader);
+    if (null == fingerprint) {
+      return doMatch(loader);
+    }
+    Boolean verdict = verdicts.get(fingerprint);
+    if (null != verdict) {
+      return verdict;
+    }
+    boolean matches = doMatch(loader);
+    if (verdicts.size() < MAX_CACHED_VERDICTS) {
+      verdicts.put(fingerprint, matches);
+    }
+    return matches;
+  }
+
+  private boolean doMatch(ClassLoader loader) {
     List<Mismatch> mismatches = new ArrayList<>();
     TypePool typePool = SharedTypePools.typePool(loader);
     for (Reference reference : references) {
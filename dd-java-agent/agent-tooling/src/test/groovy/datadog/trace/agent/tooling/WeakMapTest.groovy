@@ -35,6 +35,37 @@ class WeakMapTest extends DDSpecification {
     map2.get(key) == "value2"
   }
 
+  def "putIfAbsent returns the previous value"() {
+    setup:
+    def key = new Object()
+    def map = WeakMaps.newWeakMap()
+
+    expect:
+    map.putIfAbsent(key, "value1") == null
+    map.putIfAbsent(key, "value2") == "value1"
+    map.get(key) == "value1"
+  }
+
+  def "Keys spread over stripes are counted in size"() {
+    setup:
+    def map = new WeakIdentityMap(4)
+    def keys = (0..<100).collect { new Object() }
+
+    when:
+    keys.each { map.put(it, "value") }
+
+    then:
+    map.stripeCount() == 4
+    map.size() == 100
+    keys.every { map.get(it) == "value" }
+
+    when:
+    keys.each { map.remove(it) }
+
+    then:
+    map.size() == 0
+  }
+
   //@Flaky("awaitGC usage is flaky")
   def "Unreferenced map gets cleaned up"() {
     setup:
@@ -77,5 +108,6 @@ class WeakMapTest extends DDSpecification {
 
     then:
     map.size() == 0
+    map.expungedCount() == 1
   }
 }
@@ -0,0 +1,28 @@
+package datadog.trace.agent.tooling.muzzle
+
+import datadog.trace.test.util.DDSpecification
+import net.bytebuddy.jar.asm.ClassReader
+
+import static TestAdviceClasses.CallDepthAdvice
+import static TestAdviceClasses.LdcAdvice
+import static TestAdviceClasses.MethodBodyAdvice
+
+class CallDepthDetectorTest extends DDSpecification {
+
+  def "detects advice using call-depth keys"() {
+    setup:
+    def detector = new MuzzleGenerator.CallDepthDetector()
+
+    when:
+    new ClassReader(adviceClass.name).accept(detector, ClassReader.SKIP_FRAMES)
+
+    then:
+    detector.usesCallDepth == usesCallDepth
+
+    where:
+    adviceClass      | usesCallDepth
+    CallDepthAdvice  | true
+    LdcAdvice        | false
+    MethodBodyAdvice | false
+  }
+}
@@ -60,6 +60,45 @@ class ReferenceMatcherTest extends DDSpecification {
     getMismatchClassSet(refMatcher.getMismatchedReferenceSources(unsafeClasspath)) == new HashSet<>([MissingClass])
   }
 
+  def "loaders exposing the same library jars share muzzle verdicts"() {
+    setup:
+    Reference[] refs = ReferenceCreator.createReferencesFrom(MethodBodyAdvice.getName(), testClasspath).values().toArray(new Reference[0])
+    ReferenceMatcher refMatcher = new ReferenceMatcher(refs)
+    URL[] safeJars = ((URLClassLoader) safeClasspath).getURLs()
+    URL[] unsafeJars = ((URLClassLoader) unsafeClasspath).getURLs()
+
+    when:
+    boolean firstSafe = refMatcher.matches(new URLClassLoader(safeJars, (ClassLoader) null))
+    boolean secondSafe = refMatcher.matches(new URLClassLoader(safeJars, (ClassLoader) null))
+
+    then:
+    firstSafe
+    secondSafe
+    refMatcher.verdicts.size() == 1
+
+    when:
+    boolean firstUnsafe = refMatcher.matches(new URLClassLoader(unsafeJars, (ClassLoader) null))
+    boolean secondUnsafe = refMatcher.matches(new URLClassLoader(unsafeJars, (ClassLoader) null))
+
+    then:
+    !firstUnsafe
+    !secondUnsafe
+    refMatcher.verdicts.size() == 2
+  }
+
+  def "loaders exposing the same library jars with different parents do not share muzzle verdicts"() {
+    setup:
+    Reference[] refs = ReferenceCreator.createReferencesFrom(MethodBodyAdvice.getName(), testClasspath).values().toArray(new Reference[0])
+    ReferenceMatcher refMatcher = new ReferenceMatcher(refs)
+    URL[] unsafeJars = ((URLClassLoader) unsafeClasspath).getURLs()
+
+    expect:
+    !refMatcher.matches(new URLClassLoader(unsafeJars, (ClassLoader) null))
+    // classes missing from the unsafe jars are found in the parent
+    refMatcher.matches(new URLClassLoader(unsafeJars, safeClasspath))
+    refMatcher.verdicts.size() == 2
+  }
+
   def "matching does not hold a strong reference to classloaders"() {
     expect:
     MuzzleWeakReferenceTest.classLoaderRefIsGarbageCollected()
@@ -1,5 +1,6 @@
 package datadog.trace.agent.tooling.muzzle;
 
+import datadog.trace.bootstrap.CallDepthThreadLocalMap;
 import net.bytebuddy.asm.Advice;
 
 public class TestAdviceClasses {
@@ -93,6 +94,12 @@ public class TestAdviceClasses {
     }
   }
 
+  public static class CallDepthAdvice {
+    public static int callDepthMethod() {
+      return CallDepthThreadLocalMap.incrementCallDepth(CallDepthAdvice.class);
+    }
+  }
+
   // Can't test this until java 7 is dropped.
   public static class InDyAdvice {
     //    public static MethodBodyAdvice.HasMethod indyMethod(final MethodBodyAdvice.HasMethod a) {
@@ -8,6 +8,7 @@ import com.datadog.appsec.AppSecSystem;
 import datadog.communication.ddagent.DDAgentFeaturesDiscovery;
 import datadog.communication.ddagent.SharedCommunicationObjects;
 import datadog.communication.monitor.Monitoring;
+import datadog.trace.api.function.TriConsumer;
 import datadog.trace.api.gateway.BlockResponseFunction;
 import datadog.trace.api.gateway.CallbackProvider;
 import datadog.trace.api.gateway.Flow;
@@ -62,6 +63,33 @@ public class AppSecBenchmark {
   private String ip = "0.0.0.0";
   private int port = 5555;
 
+  private static final String[] BROWSER_HEADERS = {
+    "Host",
+    "localhost:8080",
+    "User-Agent",
+    "Mozilla/5.0 (X11; Linux x86_64; rv:109.0) Gecko/20100101 Firefox/115.0",
+    "Accept",
+    "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8",
+    "Accept-Language",
+    "en-US,en;q=0.5",
+    "Accept-Encoding",
+    "gzip, deflate, br",
+    "Connection",
+    "keep-alive",
+    "Cookie",
+    "session=4f3c2a1b; theme=dark; _ga=GA1.1.123456789.1690000000",
+    "Upgrade-Insecure-Requests",
+    "1",
+    "Sec-Fetch-Dest",
+    "document",
+    "Sec-Fetch-Mode",
+    "navigate",
+    "Sec-Fetch-Site",
+    "none",
+    "Sec-Fetch-User",
+    "?1",
+  };
+
   @Setup(Level.Trial)
   public void setUp() throws URISyntaxException {
     gw = new InstrumentationGateway();
@@ -122,6 +150,21 @@ public class AppSecBenchmark {
     normalRequest();
   }
 
+  /** A request with the headers a browser usually sends, most of them not used by any rule. */
+  @Benchmark
+  public void browserRequest() {
+    RequestContext context =
+        new Context(cbp.getCallback(EVENTS.requestStarted()).get().getResult());
+    cbp.getCallback(EVENTS.requestMethodUriRaw()).apply(context, method, uri);
+    cbp.getCallback(EVENTS.requestClientSocketAddress()).apply(context, ip, port);
+    TriConsumer<RequestContext, String, String> header = cbp.getCallback(EVENTS.requestHeader());
+    for (int i = 0; i < BROWSER_HEADERS.length; i += 2) {
+      header.accept(context, BROWSER_HEADERS[i], BROWSER_HEADERS[i + 1]);
+    }
+    cbp.getCallback(EVENTS.requestHeaderDone()).apply(context);
+    cbp.getCallback(EVENTS.requestEnded()).apply(context, null);
+  }
+
   static class StubOkHttpClient extends OkHttpClient {
     @Override
     public Call newCall(final Request request) {
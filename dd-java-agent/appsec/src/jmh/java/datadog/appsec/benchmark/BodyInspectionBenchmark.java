@@ -0,0 +1,74 @@
+package datadog.appsec.benchmark;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.datadog.appsec.event.data.ObjectIntrospection;
+import datadog.trace.api.http.StoredByteBody;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of getting request bodies of different sizes ready for the WAF, both as the raw body stored
+ * while the application reads it and as the body object converted after the framework parsed it.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 4, time = 1, timeUnit = SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = SECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Fork(value = 2)
+public class BodyInspectionBenchmark {
+
+  private static final int CHUNK_SIZE = 8192;
+
+  @Param({"1024", "102400", "10485760"})
+  int bodySize;
+
+  byte[] rawBody;
+  Map<String, Object> parsedBody;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    char[] chars = new char[bodySize];
+    Arrays.fill(chars, 'a');
+    String value = new String(chars);
+    rawBody = value.getBytes(StandardCharsets.UTF_8);
+
+    // a form with a single large field next to a few small ones
+    parsedBody = new HashMap<>();
+    parsedBody.put("name", "foo");
+    parsedBody.put("email", "foo@example.com");
+    parsedBody.put("comment", value);
+  }
+
+  @Benchmark
+  public CharSequence storeRawBody() {
+    StoredByteBody body =
+        new StoredByteBody(
+            null, (ctx, supplier) -> null, (ctx, supplier) -> null, StandardCharsets.UTF_8, 0);
+    for (int i = 0; i < rawBody.length; i += CHUNK_SIZE) {
+      body.appendData(rawBody, i, Math.min(i + CHUNK_SIZE, rawBody.length));
+    }
+    return body.get();
+  }
+
+  @Benchmark
+  public Object convertParsedBody() {
+    return ObjectIntrospection.convert(parsedBody);
+  }
+}
@@ -6,6 +6,7 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 import com.datadog.appsec.event.ChangeableFlow;
 import com.datadog.appsec.event.DataListener;
 import com.datadog.appsec.event.EventDispatcher;
+import com.datadog.appsec.event.EventProducerService;
 import com.datadog.appsec.event.OrderedCallback;
 import com.datadog.appsec.event.data.Address;
 import com.datadog.appsec.event.data.DataBundle;
@@ -51,6 +52,20 @@ public class EventDispatcherBenchmark {
 
     Address<?> unusedAddress = KnownAddresses.HEADERS_NO_COOKIES;
 
+    // what GatewayBridge asks for when the request headers are done
+    Address<?>[] requestAddresses =
+        new Address<?>[] {
+          KnownAddresses.HEADERS_NO_COOKIES,
+          KnownAddresses.REQUEST_COOKIES,
+          KnownAddresses.REQUEST_SCHEME,
+          KnownAddresses.REQUEST_METHOD,
+          KnownAddresses.REQUEST_URI_RAW,
+          KnownAddresses.REQUEST_QUERY,
+          KnownAddresses.REQUEST_CLIENT_IP,
+          KnownAddresses.REQUEST_CLIENT_PORT,
+          KnownAddresses.REQUEST_INFERRED_CLIENT_IP
+        };
+
     EventDispatcher dispatcher = new EventDispatcher();
 
     @Setup
@@ -105,4 +120,16 @@ public class EventDispatcherBenchmark {
   public void getDataSubscribers(DispatcherState state) {
     state.run();
   }
+
+  @Benchmark
+  public EventProducerService.DataSubscriberInfo getDataSubscribersSingleAddress(
+      DispatcherState state) {
+    return state.dispatcher.getDataSubscribers(state.usedAddresses[0]);
+  }
+
+  @Benchmark
+  public EventProducerService.DataSubscriberInfo getDataSubscribersAddressSet(
+      DispatcherState state) {
+    return state.dispatcher.getDataSubscribers(state.requestAddresses);
+  }
 }
@@ -46,6 +46,8 @@ public class PowerwafBenchmark {
 
   PowerwafContext ctx;
   Map<String, Object> wafData = new HashMap<>();
+  // wafData plus addresses no rule reads, as they used to be handed to the WAF
+  Map<String, Object> wafDataWithUnusedAddresses = new HashMap<>();
   Powerwaf.Limits limits = new Powerwaf.Limits(50, 500, 1000, 5000000, 5000000);
 
   @Benchmark
@@ -69,6 +71,16 @@ public class PowerwafBenchmark {
     }
   }
 
+  @Benchmark
+  public void withUnusedAddresses() throws Exception {
+    Additive add = ctx.openAdditive();
+    try {
+      add.run(wafDataWithUnusedAddresses, limits, null);
+    } finally {
+      add.close();
+    }
+  }
+
   @Setup(Level.Trial)
   public void setUp() throws AbstractPowerwafException, IOException {
     InputStream stream = getClass().getClassLoader().getResourceAsStream("test_multi_config.json");
@@ -108,6 +120,15 @@ public class PowerwafBenchmark {
             "=%7B%22color_mode%22%3A%22light%22%2C%22light_theme%22%3A%7B%22name%22%3A%22light%22%2C%22color_mode%22%3A%22light%22%7D%2C%22dark_theme%22%3A%7B%22name%22%3A%22dark%22%2C%22color_mode%22%3A%22dark%22%7D%7D"));
     cookies.put("tz", Collections.singletonList("Europe/Lisbon"));
     wafData.put(KnownAddresses.REQUEST_COOKIES.getKey(), cookies);
+
+    wafDataWithUnusedAddresses.putAll(wafData);
+    wafDataWithUnusedAddresses.put(KnownAddresses.REQUEST_SCHEME.getKey(), Collections.emptyMap());
+    wafDataWithUnusedAddresses.put(
+        KnownAddresses.REQUEST_CLIENT_PORT.getKey(), Collections.emptyMap());
+    wafDataWithUnusedAddresses.put(
+        KnownAddresses.REQUEST_TRANSPORT.getKey(), Collections.emptyMap());
+    wafDataWithUnusedAddresses.put(
+        KnownAddresses.RESPONSE_STATUS.getKey(), Collections.emptyMap());
   }
 
   @TearDown(Level.Trial)
@@ -0,0 +1,49 @@
+package datadog.appsec.benchmark;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.datadog.appsec.gateway.RateLimiter;
+import datadog.trace.api.time.SystemTimeSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Many request threads reporting AppSec events at the same time, as happens under an attack. With
+ * the low limit most calls are throttled, with the high one most are let through.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 4, time = 1, timeUnit = SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = SECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Fork(value = 2)
+@Threads(8)
+public class RateLimiterBenchmark {
+
+  @Param({"100", "1000000"})
+  int limitPerSec;
+
+  RateLimiter rateLimiter;
+
+  @Setup
+  public void setUp() {
+    rateLimiter =
+        new RateLimiter(limitPerSec, SystemTimeSource.INSTANCE, RateLimiter.ThrottledCallback.NOOP);
+  }
+
+  @Benchmark
+  public boolean isThrottled() {
+    return rateLimiter.isThrottled();
+  }
+}
@@ -31,6 +31,8 @@ public class EventDispatcher implements EventProducerService {
   private List<DataListener> dataListenersIdx;
   // index: address.serial; values: ordered array of listener idx
   private List<char[]> dataListenerSubs;
+  // index: address.serial; the subscribers of each address on its own
+  private DataSubscriberInfoImpl[] singleAddressSubscribers;
   private Set<Address<?>> allSubscribedAddresses;
 
   public EventDispatcher() {
@@ -43,9 +45,13 @@ public class EventDispatcher implements EventProducerService {
     }
 
     final int addressCount = Address.instanceCount();
+    dataListenersIdx = Collections.emptyList();
     dataListenerSubs = new ArrayList<>(addressCount);
+    singleAddressSubscribers = new DataSubscriberInfoImpl[addressCount];
+    DataSubscriberInfoImpl noSubscribers = new DataSubscriberInfoImpl(EMPTY_CHAR_ARRAY);
     for (int i = 0; i < addressCount; i++) {
       dataListenerSubs.add(EMPTY_CHAR_ARRAY);
+      singleAddressSubscribers[i] = noSubscribers;
     }
   }
 
@@ -114,6 +120,7 @@ public class EventDispatcher implements EventProducerService {
 
     int addressCount = Address.instanceCount();
     ArrayList<char[]> newDataListenerSubs = new ArrayList<>(addressCount);
+    DataSubscriberInfoImpl[] newSingleAddressSubscribers = new DataSubscriberInfoImpl[addressCount];
 
     for (int addrSerial = 0; addrSerial < addressCount; addrSerial++) {
       List<DataListener> listenersList = subSet.addrSubs.get(addrSerial);
@@ -127,10 +134,12 @@ public class EventDispatcher implements EventProducerService {
       }
 
       newDataListenerSubs.add(newArray);
+      newSingleAddressSubscribers[addrSerial] = new DataSubscriberInfoImpl(newArray);
     }
 
     dataListenersIdx = newDataListenersIdx;
     dataListenerSubs = newDataListenerSubs;
+    singleAddressSubscribers = newSingleAddressSubscribers;
     allSubscribedAddresses = subSet.allAddresses;
   }
 
@@ -150,11 +159,9 @@ public class EventDispatcher implements EventProducerService {
   public DataSubscriberInfo getDataSubscribers(Address<?>... newAddresses) {
     if (newAddresses.length == 1) {
       // fast path
-      Address<?> addr = newAddresses[0];
-      char[] ids = dataListenerSubs.get(addr.getSerial());
-      return new DataSubscriberInfoImpl(ids);
+      return singleAddressSubscribers[newAddresses[0].getSerial()];
     } else {
-      // calculate union of listeners
+      // calculate union of listeners; not cached, GatewayBridge keeps the result of address sets
       int numDataListeners = dataListenersIdx.size();
       BitSet bitSet = new BitSet(numDataListeners);
       for (Address<?> addr : newAddresses) {
@@ -12,6 +12,8 @@ import org.slf4j.LoggerFactory;
 public final class ObjectIntrospection {
   private static final int MAX_DEPTH = 20;
   private static final int MAX_ELEMENTS = 256;
+  // the WAF truncates longer strings anyway, see PowerWAFModule
+  private static final int MAX_STRING_LENGTH = 4096;
   private static final Logger log = LoggerFactory.getLogger(ObjectIntrospection.class);
 
   private static final Method trySetAccessible;
@@ -63,14 +65,21 @@ public final class ObjectIntrospection {
     }
 
     // char sequences / numbers
-    if (obj instanceof CharSequence || obj instanceof Number) {
+    if (obj instanceof CharSequence) {
+      return truncate((CharSequence) obj);
+    }
+    if (obj instanceof Number) {
       return obj.toString();
     }
 
     // maps
     if (obj instanceof Map) {
-      Map<Object, Object> newMap = new HashMap<>((int) Math.ceil(((Map) obj).size() / .75));
+      int size = Math.min(((Map<?, ?>) obj).size(), elemsLeft[0]);
+      Map<Object, Object> newMap = new HashMap<>((int) Math.ceil(size / .75));
       for (Map.Entry<?, ?> e : ((Map<?, ?>) obj).entrySet()) {
+        if (elemsLeft[0] <= 0) {
+          break;
+        }
         Object key = e.getKey();
         Object newKey = guardedConversion(e.getKey(), depth + 1, elemsLeft);
         if (newKey == null && key != null) {
@@ -86,7 +95,7 @@ public final class ObjectIntrospection {
     if (obj instanceof Iterable) {
       List<Object> newList;
       if (obj instanceof List) {
-        newList = new ArrayList<>(((List<?>) obj).size());
+        newList = new ArrayList<>(Math.min(((List<?>) obj).size(), elemsLeft[0]));
       } else {
         newList = new ArrayList<>();
       }
@@ -103,7 +112,7 @@ public final class ObjectIntrospection {
     Class<?> clazz = obj.getClass();
     if (clazz.isArray()) {
       int length = Array.getLength(obj);
-      List<Object> newList = new ArrayList<>(length);
+      List<Object> newList = new ArrayList<>(Math.min(length, elemsLeft[0]));
       for (int i = 0; i < length && elemsLeft[0] > 0; i++) {
         newList.add(guardedConversion(Array.get(obj, i), depth + 1, elemsLeft));
       }
@@ -153,6 +162,19 @@ public final class ObjectIntrospection {
     return newMap;
   }
 
+  /** Copies at most {@link #MAX_STRING_LENGTH} chars, without splitting a surrogate pair. */
+  private static String truncate(CharSequence cs) {
+    int length = cs.length();
+    if (length <= MAX_STRING_LENGTH) {
+      return cs.toString();
+    }
+    int end = MAX_STRING_LENGTH;
+    if (Character.isHighSurrogate(cs.charAt(end - 1))) {
+      end--;
+    }
+    return cs.subSequence(0, end).toString();
+  }
+
   /**
    * Try to make field accessible
    *
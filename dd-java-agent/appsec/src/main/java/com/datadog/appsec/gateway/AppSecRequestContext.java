@@ -54,9 +54,9 @@ public class AppSecRequestContext implements DataBundle, Closeable {
   private String scheme;
   private String method;
   private String savedRawURI;
-  private final Map<String, List<String>> requestHeaders = new LinkedHashMap<>();
-  private final Map<String, List<String>> responseHeaders = new LinkedHashMap<>();
-  private Map<String, List<String>> collectedCookies;
+  private final CollectedHeaders requestHeaders = new CollectedHeaders();
+  private final CollectedHeaders responseHeaders = new CollectedHeaders();
+  private CollectedCookies collectedCookies;
   private boolean finishedRequestHeaders;
   private boolean finishedResponseHeaders;
   private String peerAddress;
@@ -200,9 +200,7 @@ public class AppSecRequestContext implements DataBundle, Closeable {
       return;
     }
 
-    List<String> strings =
-        requestHeaders.computeIfAbsent(name.toLowerCase(), h -> new ArrayList<>(1));
-    strings.add(value);
+    requestHeaders.add(name, value);
   }
 
   void finishRequestHeaders() {
@@ -226,9 +224,7 @@ public class AppSecRequestContext implements DataBundle, Closeable {
       return;
     }
 
-    List<String> strings =
-        responseHeaders.computeIfAbsent(name.toLowerCase(), h -> new ArrayList<>(1));
-    strings.add(value);
+    responseHeaders.add(name, value);
   }
 
   public void finishResponseHeaders() {
@@ -248,10 +244,23 @@ public class AppSecRequestContext implements DataBundle, Closeable {
       throw new IllegalStateException("Request headers were said to be finished before");
     }
     if (collectedCookies == null) {
-      collectedCookies = cookies;
-    } else {
-      collectedCookies.putAll(cookies);
+      collectedCookies = new CollectedCookies();
+    }
+    collectedCookies.addAll(cookies);
+  }
+
+  /** Keeps a raw {@code Cookie} header, which is only parsed if the cookies are read. */
+  void addCookieHeader(String cookieHeader) {
+    if (finishedRequestHeaders) {
+      throw new IllegalStateException("Request headers were said to be finished before");
+    }
+    if (cookieHeader == null) {
+      return;
+    }
+    if (collectedCookies == null) {
+      collectedCookies = new CollectedCookies();
     }
+    collectedCookies.addHeader(cookieHeader);
   }
 
   Map<String, ? extends Collection<String>> getCookies() {
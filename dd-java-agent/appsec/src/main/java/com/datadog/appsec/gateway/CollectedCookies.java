@@ -0,0 +1,73 @@
+package com.datadog.appsec.gateway;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cookies collected for a request.
+ *
+ * <p>Raw {@code Cookie} header values are kept as they arrive and only parsed with {@link
+ * CookieCutter} the first time the cookies are read.
+ *
+ * <p>Not thread-safe, cookies are assumed to be written and read by the same thread.
+ */
+final class CollectedCookies extends AbstractMap<String, List<String>> {
+  private static final String[] EMPTY = new String[0];
+
+  private String[] headers = EMPTY;
+  private int count;
+
+  private Map<String, List<String>> map;
+
+  void addHeader(String cookieHeader) {
+    if (map != null) {
+      CookieCutter.parseCookieHeader(map, cookieHeader);
+      return;
+    }
+    if (count == headers.length) {
+      headers = Arrays.copyOf(headers, Math.max(2, count << 1));
+    }
+    headers[count++] = cookieHeader;
+  }
+
+  void addAll(Map<String, List<String>> cookies) {
+    map().putAll(cookies);
+  }
+
+  private Map<String, List<String>> map() {
+    Map<String, List<String>> result = map;
+    if (result == null) {
+      result = new HashMap<>(4);
+      for (int i = 0; i < count; i++) {
+        CookieCutter.parseCookieHeader(result, headers[i]);
+      }
+      map = result;
+      headers = null;
+    }
+    return result;
+  }
+
+  @Override
+  public Set<Entry<String, List<String>>> entrySet() {
+    return map().entrySet();
+  }
+
+  @Override
+  public List<String> get(Object key) {
+    return map().get(key);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return map().containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return map().size();
+  }
+}
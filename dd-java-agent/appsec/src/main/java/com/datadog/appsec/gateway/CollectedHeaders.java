@@ -0,0 +1,87 @@
+package com.datadog.appsec.gateway;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Headers collected for a request or response.
+ *
+ * <p>Names and values are appended to parallel arrays as they arrive, and only turned into a map of
+ * lowercase names to values the first time the map is read. Headers published to an address
+ * nobody subscribes to are never materialized.
+ *
+ * <p>Not thread-safe, headers are assumed to be written and read by the same thread.
+ */
+final class CollectedHeaders extends AbstractMap<String, List<String>> {
+  private static final String[] EMPTY = new String[0];
+
+  private String[] names = EMPTY;
+  private String[] values = EMPTY;
+  private int count;
+
+  private Map<String, List<String>> map;
+
+  void add(String name, String value) {
+    if (map != null) {
+      addToMap(map, name, value);
+      return;
+    }
+    if (count == names.length) {
+      int newLength = Math.max(8, count << 1);
+      names = Arrays.copyOf(names, newLength);
+      values = Arrays.copyOf(values, newLength);
+    }
+    names[count] = name;
+    values[count] = value;
+    count++;
+  }
+
+  private Map<String, List<String>> map() {
+    Map<String, List<String>> result = map;
+    if (result == null) {
+      result = new LinkedHashMap<>();
+      for (int i = 0; i < count; i++) {
+        addToMap(result, names[i], values[i]);
+      }
+      map = result;
+      names = null;
+      values = null;
+    }
+    return result;
+  }
+
+  private static void addToMap(Map<String, List<String>> map, String name, String value) {
+    map.computeIfAbsent(name.toLowerCase(Locale.ROOT), h -> new ArrayList<>(1)).add(value);
+  }
+
+  @Override
+  public Set<Entry<String, List<String>>> entrySet() {
+    return map().entrySet();
+  }
+
+  @Override
+  public List<String> get(Object key) {
+    return map().get(key);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return map().containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return map().size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return map == null ? count == 0 : map.isEmpty();
+  }
+}
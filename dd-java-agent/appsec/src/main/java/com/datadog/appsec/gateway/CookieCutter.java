@@ -42,6 +42,18 @@ public class CookieCutter {
     return pairs;
   }
 
+  // should not throw
+  static void parseCookieHeader(Map<String, List<String>> cookies, String f) {
+    if (f == null) {
+      return;
+    }
+    f = f.trim();
+    if (f.length() == 0) {
+      return;
+    }
+    parseHeaderValue(cookies, f);
+  }
+
   private static void parseHeaderValue(Map<String, List<String>> cookies, String hdr) {
     // Parse the header
     String name = null;
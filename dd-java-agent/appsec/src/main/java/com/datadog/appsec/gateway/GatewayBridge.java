@@ -421,8 +421,7 @@ public class GatewayBridge {
       }
 
       if (name.equalsIgnoreCase("cookie")) {
-        Map<String, List<String>> cookies = CookieCutter.parseCookieHeader(value);
-        ctx.addCookies(cookies);
+        ctx.addCookieHeader(value);
       } else {
         ctx.addRequestHeader(name, value);
       }
@@ -2,6 +2,7 @@ package com.datadog.appsec.gateway;
 
 import datadog.trace.api.time.TimeSource;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Rate limiter that applies a limit of operations per second. It stores the count for the current
@@ -20,6 +21,12 @@ import java.util.concurrent.atomic.AtomicLong;
  * an attacker to force throttling by performing their attacks in a 1-second span every 194 days.
  * However, for this to work, the server would have to get no other events by other users in this
  * same time span.
+ *
+ * <p>With limits high enough, permits are taken from the shared state in batches and handed out
+ * from per-thread-stripe leases, so that threads reporting events at the same time don't all
+ * contend on the shared state. A lease is only good for the second it was taken in. Permits left
+ * in a lease when the second ends are lost, which the batch size keeps to a small fraction of the
+ * limit. With low limits, every permit is taken from the shared state directly.
  */
 public class RateLimiter {
   private static final long MASK_COUNT_CUR_SEC = 0xFFFFFL;
@@ -28,6 +35,12 @@ public class RateLimiter {
   private static final int SHIFT_CUR_SEC = 40;
   private static final int MAX_LIMIT = 0xFFFFF; // 2^20 -1
   private static final int TIME_RING_MASK = 0xFFFFFF; // 24 bits
+  private static final int MAX_STRIPES = 64;
+  // at most 1/LEASES_PER_STRIPE of the limit can be held by leases at a time
+  private static final int LEASES_PER_STRIPE = 16;
+  // one lease per 64-byte cache line
+  private static final int LEASE_STRIDE = 8;
+  private static final int SHIFT_LEASE_SEC = 32;
 
   private final TimeSource timeSource;
   private final ThrottledCallback throttledCb;
@@ -41,16 +54,62 @@ public class RateLimiter {
   private final int limitPerSec;
   private final AtomicLong state = new AtomicLong();
 
+  private final int batchSize;
+  private final int stripeMask;
+  // per stripe, the second a lease was taken in (most significant 32 bits)
+  // and the permits left in it (least significant 32 bits)
+  private final AtomicLongArray leases;
+
   public RateLimiter(int limitPerSec, TimeSource timeSource, ThrottledCallback cb) {
+    this(limitPerSec, timeSource, cb, Runtime.getRuntime().availableProcessors());
+  }
+
+  RateLimiter(int limitPerSec, TimeSource timeSource, ThrottledCallback cb, int concurrency) {
     this.limitPerSec = Math.min(Math.max(limitPerSec, 0), MAX_LIMIT);
     this.timeSource = timeSource;
     this.throttledCb = cb;
+
+    int stripes = Integer.highestOneBit(Math.min(Math.max(concurrency, 1), MAX_STRIPES) * 2 - 1);
+    this.batchSize = Math.max(1, this.limitPerSec / (stripes * LEASES_PER_STRIPE));
+    this.stripeMask = stripes - 1;
+    this.leases = this.batchSize > 1 ? new AtomicLongArray(stripes * LEASE_STRIDE) : null;
   }
 
   public final boolean isThrottled() {
     long curSec = this.timeSource.getNanoTicks();
+    if (leases == null) {
+      return isThrottled(acquire(1, curSec));
+    }
+
+    int leaseIdx = ((int) Thread.currentThread().getId() & stripeMask) * LEASE_STRIDE;
+    long leaseSec = curSecond24bit(curSec);
+    long lease;
+    while ((lease = leases.get(leaseIdx)) >>> SHIFT_LEASE_SEC == leaseSec && (int) lease > 0) {
+      if (leases.compareAndSet(leaseIdx, lease, lease - 1)) {
+        return false;
+      }
+    }
+
+    int granted = acquire(batchSize, curSec);
+    if (granted > 1) {
+      leases.set(leaseIdx, (leaseSec << SHIFT_LEASE_SEC) | (granted - 1));
+    }
+    return isThrottled(granted);
+  }
+
+  private boolean isThrottled(int granted) {
+    if (granted == 0) {
+      this.throttledCb.onThrottled();
+      return true;
+    }
+    return false;
+  }
+
+  /** @return the number of permits taken from the shared state, up to {@code permits} */
+  private int acquire(int permits, long curSec) {
     long storedState;
     long newState;
+    int granted;
 
     do {
       storedState = this.state.get();
@@ -70,10 +129,10 @@ public class RateLimiter {
                           (storedPrevCount
                               * (1.0f - (float) (curSec % 1000000000L) / 1000000000.0f));
               if (count >= limitPerSec) {
-                this.throttledCb.onThrottled();
-                return true;
+                return 0;
               }
-              newState = storedState + 1;
+              granted = Math.min(permits, limitPerSec - count);
+              newState = storedState + granted;
               break;
             }
           case 1:
@@ -83,13 +142,13 @@ public class RateLimiter {
               if (count >= limitPerSec) {
                 // this is very unlikely to happen because the 2nd factor above must be 1
                 // (we effectively round down when we cast to int)
-                this.throttledCb.onThrottled();
-                return true;
+                return 0;
               }
+              granted = Math.min(permits, limitPerSec - count);
               newState =
                   ((long) curSec24 << SHIFT_CUR_SEC)
                       | (((long) storedCurCount) << SHIFT_COUNT_PREV_SEC)
-                      | 1L;
+                      | granted;
               break;
             }
           case 0xFFFFFF:
@@ -105,12 +164,13 @@ public class RateLimiter {
               // in that case, fall to default case
             }
           default:
-            newState = ((long) curSec24 << SHIFT_CUR_SEC) | 1L;
+            granted = Math.max(1, Math.min(permits, limitPerSec));
+            newState = ((long) curSec24 << SHIFT_CUR_SEC) | granted;
         }
         break; // while (true)
       }
     } while (!state.compareAndSet(storedState, newState));
-    return false;
+    return granted;
   }
 
   private static int curSecond24bit(long nanoTime) {
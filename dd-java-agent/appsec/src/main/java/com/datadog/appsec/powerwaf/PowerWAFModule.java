@@ -37,12 +37,8 @@ import io.sqreen.powerwaf.RuleSetInfo;
 import io.sqreen.powerwaf.exception.AbstractPowerwafException;
 import io.sqreen.powerwaf.exception.InvalidRuleSetException;
 import java.io.IOException;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
 import java.lang.reflect.UndeclaredThrowableException;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -71,9 +67,6 @@ public class PowerWAFModule implements AppSecModule {
   private static final int MAX_ELEMENTS = 150;
   private static final int MAX_STRING_SIZE = 4096;
   private static volatile Powerwaf.Limits LIMITS;
-  private static final Class<?> PROXY_CLASS =
-      Proxy.getProxyClass(PowerWAFModule.class.getClassLoader(), Set.class);
-  private static final Constructor<?> PROXY_CLASS_CONSTRUCTOR;
   private static final Set<EventType> EVENTS_OF_INTEREST;
 
   private static final JsonAdapter<List<PowerWAFResultData>> RES_JSON_ADAPTER;
@@ -110,6 +103,8 @@ public class PowerWAFModule implements AppSecModule {
 
   private static class CtxAndAddresses {
     final Collection<Address<?>> addressesOfInterest;
+    // membership of addressesOfInterest, indexed by address serial
+    final boolean[] interestingSerials;
     final PowerwafContext ctx;
     final Map<String, RuleInfo> rulesInfoMap;
     final Map<String /* id */, ActionInfo> actionInfoMap;
@@ -120,6 +115,7 @@ public class PowerWAFModule implements AppSecModule {
         Map<String, RuleInfo> rulesInfoMap,
         Map<String, ActionInfo> actionInfoMap) {
       this.addressesOfInterest = addressesOfInterest;
+      this.interestingSerials = interestingSerials(addressesOfInterest);
       this.ctx = ctx;
       this.rulesInfoMap = rulesInfoMap;
       this.actionInfoMap = actionInfoMap;
@@ -132,12 +128,6 @@ public class PowerWAFModule implements AppSecModule {
   }
 
   static {
-    try {
-      PROXY_CLASS_CONSTRUCTOR = PROXY_CLASS.getConstructor(InvocationHandler.class);
-    } catch (NoSuchMethodException e) {
-      throw new UndeclaredThrowableException(e);
-    }
-
     EVENTS_OF_INTEREST = new HashSet<>();
     EVENTS_OF_INTEREST.add(EventType.REQUEST_START);
     EVENTS_OF_INTEREST.add(EventType.REQUEST_END);
@@ -544,7 +534,7 @@ public class PowerWAFModule implements AppSecModule {
         Additive additive, PowerwafMetrics metrics, DataBundle newData, CtxAndAddresses ctxAndAddr)
         throws AbstractPowerwafException {
       return additive.run(
-          new DataBundleMapWrapper(ctxAndAddr.addressesOfInterest, newData), LIMITS, metrics);
+          new DataBundleMapWrapper(ctxAndAddr.interestingSerials, newData), LIMITS, metrics);
     }
   }
 
@@ -552,7 +542,7 @@ public class PowerWAFModule implements AppSecModule {
       PowerwafMetrics metrics, DataBundle bundle, CtxAndAddresses ctxAndAddr)
       throws AbstractPowerwafException {
     return ctxAndAddr.ctx.runRules(
-        new DataBundleMapWrapper(ctxAndAddr.addressesOfInterest, bundle), LIMITS, metrics);
+        new DataBundleMapWrapper(ctxAndAddr.interestingSerials, bundle), LIMITS, metrics);
   }
 
   private Collection<AppSecEvent100> buildEvents(
@@ -623,36 +613,44 @@ public class PowerWAFModule implements AppSecModule {
         .build();
   }
 
+  static boolean[] interestingSerials(Collection<Address<?>> addressesOfInterest) {
+    boolean[] serials = new boolean[Address.instanceCount()];
+    for (Address<?> address : addressesOfInterest) {
+      if (address.getSerial() < serials.length) {
+        serials[address.getSerial()] = true;
+      }
+    }
+    return serials;
+  }
+
+  /**
+   * Exposes the addresses of interest in a {@link DataBundle} to powerwaf without copying.
+   * Addresses no rule reads are left out instead of being encoded as empty maps.
+   */
   private static final class DataBundleMapWrapper implements Map<String, Object> {
-    private final Collection<Address<?>> addressesOfInterest;
+    private final boolean[] interestingSerials;
     private final DataBundle dataBundle;
 
-    private DataBundleMapWrapper(
-        Collection<Address<?>> addressesOfInterest, DataBundle dataBundle) {
-      this.addressesOfInterest = addressesOfInterest;
+    private DataBundleMapWrapper(boolean[] interestingSerials, DataBundle dataBundle) {
+      this.interestingSerials = interestingSerials;
       this.dataBundle = dataBundle;
     }
 
+    private boolean isOfInterest(Address<?> address) {
+      int serial = address.getSerial();
+      return serial < interestingSerials.length && interestingSerials[serial];
+    }
+
     // powerwaf only calls entrySet().iterator() and size()
     @Nonnull
     @Override
     public Set<Entry<String, Object>> entrySet() {
-      try {
-        return (Set<Entry<String, Object>>)
-            PROXY_CLASS_CONSTRUCTOR.newInstance(new SetIteratorInvocationHandler());
-      } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-        throw new UndeclaredThrowableException(e);
-      }
+      return new EntrySet();
     }
 
-    private class SetIteratorInvocationHandler implements InvocationHandler {
+    private final class EntrySet extends AbstractSet<Entry<String, Object>> {
       @Override
-      public Object invoke(Object proxy, Method method, Object[] args) {
-        if (!method.getName().equals("iterator")) {
-          throw new UnsupportedOperationException(
-              "Only supported method is 'iterator'; got " + method.getName());
-        }
-
+      public Iterator<Entry<String, Object>> iterator() {
         final Iterator<Address<?>> addrIterator = dataBundle.getAllAddresses().iterator();
         final MutableEntry entry = new MutableEntry();
 
@@ -660,7 +658,13 @@ public class PowerWAFModule implements AppSecModule {
           private Address<?> next = computeNextAddress();
 
           private Address<?> computeNextAddress() {
-            return addrIterator.hasNext() ? addrIterator.next() : null;
+            while (addrIterator.hasNext()) {
+              Address<?> address = addrIterator.next();
+              if (isOfInterest(address)) {
+                return address;
+              }
+            }
+            return null;
           }
 
           @Override
@@ -675,18 +679,28 @@ public class PowerWAFModule implements AppSecModule {
             }
             // the usage pattern in powerwaf allows object recycling here
             entry.key = next.getKey();
-            entry.value =
-                addressesOfInterest.contains(next) ? dataBundle.get(next) : Collections.emptyMap();
+            entry.value = dataBundle.get(next);
             next = computeNextAddress();
             return entry;
           }
         };
       }
+
+      @Override
+      public int size() {
+        return DataBundleMapWrapper.this.size();
+      }
     }
 
     @Override
     public int size() {
-      return dataBundle.size();
+      int size = 0;
+      for (Address<?> address : dataBundle.getAllAddresses()) {
+        if (isOfInterest(address)) {
+          size++;
+        }
+      }
+      return size;
     }
 
     /* unimplemented map methods */
@@ -105,6 +105,41 @@ class EventDispatcherSpecification extends DDSpecification {
     1 * listener.onDataAvailable(_ as Flow, ctx, db, true)
   }
 
+  void 'subscribers of an address set are kept in priority order'() {
+    given:
+    DataListener listener1 = Mock()
+    DataListener listener2 = Mock()
+    listener1.priority >> OrderedCallback.Priority.DEFAULT
+    listener2.priority >> OrderedCallback.Priority.HIGH
+
+    def set = new EventDispatcher.DataSubscriptionSet()
+    set.addSubscription([KnownAddresses.REQUEST_CLIENT_IP], listener1)
+    set.addSubscription([KnownAddresses.REQUEST_METHOD], listener2)
+    dispatcher.subscribeDataAvailable(set)
+    DataBundle db = MapDataBundle.of(KnownAddresses.REQUEST_CLIENT_IP, '::1')
+
+    when:
+    def subscribers = dispatcher.getDataSubscribers(KnownAddresses.REQUEST_METHOD, KnownAddresses.REQUEST_CLIENT_IP)
+    dispatcher.publishDataEvent(subscribers, ctx, db, true)
+
+    then:
+    1 * listener2.onDataAvailable(_ as Flow, ctx, db, true)
+
+    then:
+    1 * listener1.onDataAvailable(_ as Flow, ctx, db, true)
+
+    when:
+    def resubscribed = new EventDispatcher.DataSubscriptionSet()
+    resubscribed.addSubscription([KnownAddresses.REQUEST_CLIENT_IP], listener1)
+    dispatcher.subscribeDataAvailable(resubscribed)
+    dispatcher.publishDataEvent(
+      dispatcher.getDataSubscribers(KnownAddresses.REQUEST_CLIENT_IP, KnownAddresses.REQUEST_METHOD), ctx, db, true)
+
+    then:
+    1 * listener1.onDataAvailable(_ as Flow, ctx, db, true)
+    0 * listener2.onDataAvailable(*_)
+  }
+
   void 'blocking interrupts data listener calls'() {
     given:
     DataListener dataListener1 = Mock()
@@ -19,6 +19,17 @@ class ObjectIntrospectionSpecification extends Specification {
     convert(charBuffer) == 'hello'
   }
 
+  void 'long char sequences are truncated'() {
+    setup:
+    def longString = 'a' * 5000
+    def surrogateAtLimit = 'a' * 4095 + '\uD83D\uDE00'
+
+    expect:
+    convert(longString) == 'a' * 4096
+    convert(new StringBuilder(longString)) == 'a' * 4096
+    convert(surrogateAtLimit) == 'a' * 4095
+  }
+
   void 'numbers are converted to strings'() {
     expect:
     convert(5L) == '5'
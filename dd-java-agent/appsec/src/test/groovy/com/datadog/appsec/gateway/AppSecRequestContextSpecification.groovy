@@ -88,6 +88,39 @@ class AppSecRequestContextSpecification extends DDSpecification {
     ctx.cookies == [a: ['c']]
   }
 
+  void 'raw cookie headers are parsed when cookies are read'() {
+    when:
+    ctx.addCookieHeader('a=b; c=d')
+    ctx.addCookieHeader('e=f')
+    ctx.addCookieHeader(null)
+
+    then:
+    ctx.cookies == [a: ['b'], c: ['d'], e: ['f']]
+  }
+
+  void 'adding raw cookie headers after headers are finished is forbidden'() {
+    when:
+    ctx.finishRequestHeaders()
+    ctx.addCookieHeader('a=b')
+
+    then:
+    thrown(IllegalStateException)
+  }
+
+  void 'headers added after they were read are collected'() {
+    when:
+    ctx.addRequestHeader('Accept', 'application/json')
+
+    then:
+    ctx.requestHeaders == ['accept': ['application/json']]
+
+    when:
+    ctx.addRequestHeader('ACCEPT', 'application/xml')
+
+    then:
+    ctx.requestHeaders == ['accept': ['application/json', 'application/xml']]
+  }
+
   void 'can save the URI'() {
     when:
     ctx.savedRawURI = '/a'
@@ -163,4 +163,39 @@ class RateLimiterSpecification extends Specification {
     2 * mock.nanoTicks >> initialTime - 1_000_000_000L
     count == 11
   }
+
+
+  void 'limit is respected when permits are leased in batches'() {
+    setup:
+    def limiter = new RateLimiter(1000, mock, { throttledCounter++ } as RateLimiter.ThrottledCallback, 4)
+    mock.nanoTicks >> 5_000_000_000L
+    def count = 0
+
+    when:
+    1500.times {limiter.throttled || count++ }
+
+    then:
+    count == 1000
+    throttledCounter == 500
+  }
+
+  void 'leased permits expire with their second'() {
+    setup:
+    def limiter = new RateLimiter(1000, mock, { throttledCounter++ } as RateLimiter.ThrottledCallback, 4)
+    def count = 0
+
+    when:
+    limiter.throttled
+
+    then:
+    1 * mock.nanoTicks >> 0L
+
+    when:
+    1500.times {limiter.throttled || count++ }
+
+    then:
+    1500 * mock.nanoTicks >> 1_500_000_000L
+    // the whole batch of 15 leased in the previous period counts, half of it is considered
+    count == 1000 - 7
+  }
 }
@@ -12,12 +12,12 @@ class DataBundleMapWrapperSpecification extends DDSpecification {
     (KnownAddresses.REQUEST_CLIENT_IP): '::1'])
   Map<String, Object> mapWrapper =
   new PowerWAFModule.DataBundleMapWrapper(
-  [KnownAddresses.REQUEST_URI_RAW], // REQUEST_CLIENT_IP will be filtered into an empty map
+  PowerWAFModule.interestingSerials([KnownAddresses.REQUEST_URI_RAW]), // REQUEST_CLIENT_IP will be skipped
   dataBundle)
 
   void size() {
     expect:
-    mapWrapper.size() == 2
+    mapWrapper.size() == 1
   }
 
   void entrySet() {
@@ -40,12 +40,6 @@ class DataBundleMapWrapperSpecification extends DDSpecification {
     then:
     thrown(UnsupportedOperationException)
 
-    when:
-    elem = iter.next()
-
-    then:
-    elem.key == KnownAddresses.REQUEST_CLIENT_IP.key
-    elem.value == [:]
     iter.hasNext() == false
 
     when:
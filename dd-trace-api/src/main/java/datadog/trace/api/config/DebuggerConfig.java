@@ -10,6 +10,10 @@ public final class DebuggerConfig {
       "dynamic.instrumentation.upload.flush.interval";
   public static final String DEBUGGER_UPLOAD_BATCH_SIZE =
       "dynamic.instrumentation.upload.batch.size";
+  public static final String DEBUGGER_UPLOAD_MAX_INFLIGHT =
+      "dynamic.instrumentation.upload.max.inflight";
+  public static final String DEBUGGER_UPLOAD_COMPRESSION =
+      "dynamic.instrumentation.upload.compression";
   public static final String DEBUGGER_MAX_PAYLOAD_SIZE = "dynamic.instrumentation.max.payload.size";
   public static final String DEBUGGER_METRICS_ENABLED = "dynamic.instrumentation.metrics.enabled";
   public static final String DEBUGGER_CLASSFILE_DUMP_ENABLED =
@@ -21,6 +25,7 @@ public final class DebuggerConfig {
   public static final String DEBUGGER_INSTRUMENT_THE_WORLD =
       "dynamic.instrumentation.instrument.the.world";
   public static final String DEBUGGER_EXCLUDE_FILE = "dynamic.instrumentation.exclude.file";
+  public static final String DEBUGGER_TIME_BUDGET = "dynamic.instrumentation.time.budget";
 
   private DebuggerConfig() {}
 }
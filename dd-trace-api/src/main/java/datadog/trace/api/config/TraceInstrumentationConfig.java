@@ -12,6 +12,7 @@ public final class TraceInstrumentationConfig {
   public static final String TRACE_ENABLED = "trace.enabled";
   public static final String INTEGRATIONS_ENABLED = "integrations.enabled";
   public static final String LEGACY_INSTALLER_ENABLED = "legacy.installer.enabled";
+  public static final String LAZY_MATCHERS_ENABLED = "lazy.matchers.enabled";
 
   public static final String INTEGRATION_SYNAPSE_LEGACY_OPERATION_NAME =
       "integration.synapse.legacy-operation-name";
@@ -97,6 +98,7 @@ public final class TraceInstrumentationConfig {
   public static final String RESOLVER_CACHE_CONFIG = "resolver.cache.config";
   public static final String RESOLVER_USE_LOADCLASS = "resolver.use.loadclass";
   public static final String RESOLVER_RESET_INTERVAL = "resolver.reset.interval";
+  public static final String RESOLVER_MUZZLE_CACHE_ENABLED = "resolver.muzzle.cache.enabled";
 
   private TraceInstrumentationConfig() {}
 }
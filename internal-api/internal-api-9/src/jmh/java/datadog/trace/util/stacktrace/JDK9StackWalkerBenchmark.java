@@ -3,7 +3,10 @@ package datadog.trace.util.stacktrace;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 import external.util.stacktrace.RecursiveRunner;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -33,6 +36,8 @@ public class JDK9StackWalkerBenchmark {
 
   private DefaultStackWalker defaultStackWalker;
 
+  private final ConcurrentMap<StackTraceElement, String> internedFrames = new ConcurrentHashMap<>();
+
   @Param({"1", "3", "10"})
   int limit;
 
@@ -55,6 +60,44 @@ public class JDK9StackWalkerBenchmark {
     generateStack(defaultStackWalker);
   }
 
+  /** Debugger snapshot capture of the whole stack, building a new frame for each element */
+  @Benchmark
+  public void threadGetStackTraceSnapshotCapture() {
+    new RecursiveRunner(
+            deep,
+            () -> {
+              List<String> stack = new ArrayList<>();
+              for (StackTraceElement element : Thread.currentThread().getStackTrace()) {
+                stack.add(toFrame(element));
+              }
+            })
+        .run();
+  }
+
+  /** Debugger snapshot capture limited in depth, reusing the frames already built */
+  @Benchmark
+  public void JDK9StackWalkerSnapshotCapture() {
+    new RecursiveRunner(
+            deep,
+            () -> {
+              List<String> stack = new ArrayList<>();
+              jdk9StackWalker.walkFromFirstNonAgentFrame(
+                  frames -> {
+                    frames.limit(limit).map(this::internFrame).forEach(stack::add);
+                    return null;
+                  });
+            })
+        .run();
+  }
+
+  private String internFrame(final StackTraceElement element) {
+    return internedFrames.computeIfAbsent(element, JDK9StackWalkerBenchmark::toFrame);
+  }
+
+  private static String toFrame(final StackTraceElement element) {
+    return element.getClassName() + "." + element.getMethodName() + ":" + element.getLineNumber();
+  }
+
   private List<StackTraceElement> toLimitedList(final Stream<StackTraceElement> stack) {
     return stack.limit(limit).collect(Collectors.toList());
   }
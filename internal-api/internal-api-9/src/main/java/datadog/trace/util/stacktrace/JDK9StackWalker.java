@@ -21,11 +21,35 @@ public class JDK9StackWalker extends AbstractStackWalker {
     return walker != null && mapper != null;
   }
 
+  /**
+   * Filters frames on their class name before mapping them, so that a {@link StackTraceElement} is
+   * only created for the frames actually consumed, e.g. up to a {@link Stream#limit(long)}
+   */
+  @Override
+  public <T> T walk(final Function<Stream<StackTraceElement>, T> consumer) {
+    return walker.walk(
+        stack -> consumer.apply(stack.filter(JDK9StackWalker::isNotDatadogTraceFrame).map(mapper)));
+  }
+
+  @Override
+  public <T> T walkFromFirstNonAgentFrame(final Function<Stream<StackTraceElement>, T> consumer) {
+    return walker.walk(
+        stack ->
+            consumer.apply(
+                stack
+                    .filter(new LeadingElementsFilter<>(JDK9StackWalker::isNotDatadogTraceFrame))
+                    .map(mapper)));
+  }
+
   @Override
   <T> T doGetStack(final Function<Stream<StackTraceElement>, T> consumer) {
     return walker.walk(stack -> consumer.apply(stack.map(mapper)));
   }
 
+  private static boolean isNotDatadogTraceFrame(final java.lang.StackWalker.StackFrame frame) {
+    return isNotDatadogTraceClass(frame.getClassName());
+  }
+
   /**
    * IBM J9 v.0.26.0-release was segfaulting when calling StackFrame::toStackTraceElement(), newer
    * versions are OK
@@ -1,5 +1,6 @@
 package datadog.trace.util.stacktrace
 
+import datadog.trace.test.util.AnyStackRunner
 import datadog.trace.test.util.DDSpecification
 
 import java.util.stream.Collectors
@@ -33,6 +34,18 @@ class JDK9StackWalkerTest extends DDSpecification {
     stream.findAll { it.className.startsWith('datadog') } == []
   }
 
+  def 'walk from first non datadog frame keeps deeper datadog stack elements'() {
+    when:
+    final List<StackTraceElement> stack = []
+    AnyStackRunner.callWithinStack('external.test.SynthTestClass') {
+      stack.addAll(walker.walkFromFirstNonAgentFrame { it.collect(Collectors.toList()) })
+    }
+
+    then:
+    !stack[0].className.startsWith('datadog')
+    stack.any { it.className == JDK9StackWalkerTest.name }
+  }
+
   List<StackTraceElement> getStackTrace() {
     walker.walk { it.collect(Collectors.toList()) }
   }
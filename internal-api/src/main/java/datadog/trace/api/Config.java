@@ -18,6 +18,7 @@ import static datadog.trace.api.ConfigDefaults.DEFAULT_DATA_STREAMS_ENABLED;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_DB_CLIENT_HOST_SPLIT_BY_INSTANCE;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_DB_CLIENT_HOST_SPLIT_BY_INSTANCE_TYPE_SUFFIX;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_DEBUGGER_CLASSFILE_DUMP_ENABLED;
+import static datadog.trace.api.ConfigDefaults.DEFAULT_DEBUGGER_TIME_BUDGET;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_DEBUGGER_DIAGNOSTICS_INTERVAL;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_DEBUGGER_ENABLED;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_DEBUGGER_INSTRUMENT_THE_WORLD;
@@ -25,7 +26,9 @@ import static datadog.trace.api.ConfigDefaults.DEFAULT_DEBUGGER_MAX_PAYLOAD_SIZE
 import static datadog.trace.api.ConfigDefaults.DEFAULT_DEBUGGER_METRICS_ENABLED;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_DEBUGGER_POLL_INTERVAL;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_DEBUGGER_UPLOAD_BATCH_SIZE;
+import static datadog.trace.api.ConfigDefaults.DEFAULT_DEBUGGER_UPLOAD_COMPRESSION;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_DEBUGGER_UPLOAD_FLUSH_INTERVAL;
+import static datadog.trace.api.ConfigDefaults.DEFAULT_DEBUGGER_UPLOAD_MAX_INFLIGHT;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_DEBUGGER_UPLOAD_TIMEOUT;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_DEBUGGER_VERIFY_BYTECODE;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_DOGSTATSD_START_DELAY;
@@ -102,6 +105,7 @@ import static datadog.trace.api.config.CrashTrackingConfig.CRASH_TRACKING_TAGS;
 import static datadog.trace.api.config.CwsConfig.CWS_ENABLED;
 import static datadog.trace.api.config.CwsConfig.CWS_TLS_REFRESH;
 import static datadog.trace.api.config.DebuggerConfig.DEBUGGER_CLASSFILE_DUMP_ENABLED;
+import static datadog.trace.api.config.DebuggerConfig.DEBUGGER_TIME_BUDGET;
 import static datadog.trace.api.config.DebuggerConfig.DEBUGGER_DIAGNOSTICS_INTERVAL;
 import static datadog.trace.api.config.DebuggerConfig.DEBUGGER_ENABLED;
 import static datadog.trace.api.config.DebuggerConfig.DEBUGGER_EXCLUDE_FILE;
@@ -111,7 +115,9 @@ import static datadog.trace.api.config.DebuggerConfig.DEBUGGER_METRICS_ENABLED;
 import static datadog.trace.api.config.DebuggerConfig.DEBUGGER_POLL_INTERVAL;
 import static datadog.trace.api.config.DebuggerConfig.DEBUGGER_PROBE_FILE_LOCATION;
 import static datadog.trace.api.config.DebuggerConfig.DEBUGGER_UPLOAD_BATCH_SIZE;
+import static datadog.trace.api.config.DebuggerConfig.DEBUGGER_UPLOAD_COMPRESSION;
 import static datadog.trace.api.config.DebuggerConfig.DEBUGGER_UPLOAD_FLUSH_INTERVAL;
+import static datadog.trace.api.config.DebuggerConfig.DEBUGGER_UPLOAD_MAX_INFLIGHT;
 import static datadog.trace.api.config.DebuggerConfig.DEBUGGER_UPLOAD_TIMEOUT;
 import static datadog.trace.api.config.DebuggerConfig.DEBUGGER_VERIFY_BYTECODE;
 import static datadog.trace.api.config.GeneralConfig.API_KEY;
@@ -528,6 +534,7 @@ public class Config {
   private final int iastMaxConcurrentRequests;
   private final int iastVulnerabilitiesPerRequest;
   private final float iastRequestSampling;
+  private final float iastOverheadBudget;
   private final boolean iastDebugEnabled;
   private final Verbosity iastTelemetryVerbosity;
 
@@ -553,10 +560,13 @@ public class Config {
   private final boolean debuggerMetricEnabled;
   private final String debuggerProbeFileLocation;
   private final int debuggerUploadBatchSize;
+  private final int debuggerUploadMaxInflight;
+  private final String debuggerUploadCompression;
   private final long debuggerMaxPayloadSize;
   private final boolean debuggerVerifyByteCode;
   private final boolean debuggerInstrumentTheWorld;
   private final String debuggerExcludeFile;
+  private final int debuggerTimeBudget;
 
   private final boolean awsPropagationEnabled;
   private final boolean sqsPropagationEnabled;
@@ -1210,6 +1220,7 @@ public class Config {
     iastVulnerabilitiesPerRequest =
         iastDetectionMode.getIastVulnerabilitiesPerRequest(configProvider);
     iastRequestSampling = iastDetectionMode.getIastRequestSampling(configProvider);
+    iastOverheadBudget = iastDetectionMode.getIastOverheadBudget(configProvider);
     iastDeduplicationEnabled = iastDetectionMode.isIastDeduplicationEnabled(configProvider);
     iastWeakHashAlgorithms =
         tryMakeImmutableSet(
@@ -1285,6 +1296,11 @@ public class Config {
     debuggerProbeFileLocation = configProvider.getString(DEBUGGER_PROBE_FILE_LOCATION);
     debuggerUploadBatchSize =
         configProvider.getInteger(DEBUGGER_UPLOAD_BATCH_SIZE, DEFAULT_DEBUGGER_UPLOAD_BATCH_SIZE);
+    debuggerUploadMaxInflight =
+        configProvider.getInteger(
+            DEBUGGER_UPLOAD_MAX_INFLIGHT, DEFAULT_DEBUGGER_UPLOAD_MAX_INFLIGHT);
+    debuggerUploadCompression =
+        configProvider.getString(DEBUGGER_UPLOAD_COMPRESSION, DEFAULT_DEBUGGER_UPLOAD_COMPRESSION);
     debuggerMaxPayloadSize =
         configProvider.getInteger(DEBUGGER_MAX_PAYLOAD_SIZE, DEFAULT_DEBUGGER_MAX_PAYLOAD_SIZE)
             * 1024;
@@ -1294,6 +1310,8 @@ public class Config {
         configProvider.getBoolean(
             DEBUGGER_INSTRUMENT_THE_WORLD, DEFAULT_DEBUGGER_INSTRUMENT_THE_WORLD);
     debuggerExcludeFile = configProvider.getString(DEBUGGER_EXCLUDE_FILE);
+    debuggerTimeBudget =
+        configProvider.getInteger(DEBUGGER_TIME_BUDGET, DEFAULT_DEBUGGER_TIME_BUDGET);
 
     awsPropagationEnabled = isPropagationEnabled(true, "aws", "aws-sdk");
     sqsPropagationEnabled = isPropagationEnabled(true, "sqs");
@@ -1947,6 +1965,10 @@ public class Config {
     return iastRequestSampling;
   }
 
+  public float getIastOverheadBudget() {
+    return iastOverheadBudget;
+  }
+
   public Verbosity getIastTelemetryVerbosity() {
     return iastTelemetryVerbosity;
   }
@@ -2031,6 +2053,15 @@ public class Config {
     return debuggerUploadBatchSize;
   }
 
+  public int getDebuggerUploadMaxInflight() {
+    return debuggerUploadMaxInflight;
+  }
+
+  /** @return compression of uploaded batches: "off" or "gzip" */
+  public String getDebuggerUploadCompression() {
+    return debuggerUploadCompression;
+  }
+
   public long getDebuggerMaxPayloadSize() {
     return debuggerMaxPayloadSize;
   }
@@ -2047,6 +2078,13 @@ public class Config {
     return debuggerExcludeFile;
   }
 
+  /**
+   * @return wall-clock time, in milliseconds per second, probes may spend capturing (0 = unlimited)
+   */
+  public int getDebuggerTimeBudget() {
+    return debuggerTimeBudget;
+  }
+
   public String getFinalDebuggerProbeUrl() {
     // by default poll from datadog agent
     return "http://" + agentHost + ":" + agentPort;
@@ -3131,6 +3169,10 @@ public class Config {
         + debuggerProbeFileLocation
         + ", debuggerUploadBatchSize="
         + debuggerUploadBatchSize
+        + ", debuggerUploadMaxInflight="
+        + debuggerUploadMaxInflight
+        + ", debuggerUploadCompression="
+        + debuggerUploadCompression
         + ", debuggerMaxPayloadSize="
         + debuggerMaxPayloadSize
         + ", debuggerVerifyByteCode="
@@ -3139,6 +3181,8 @@ public class Config {
         + debuggerInstrumentTheWorld
         + ", debuggerExcludeFile="
         + debuggerExcludeFile
+        + ", debuggerTimeBudget="
+        + debuggerTimeBudget
         + ", awsPropagationEnabled="
         + awsPropagationEnabled
         + ", sqsPropagationEnabled="
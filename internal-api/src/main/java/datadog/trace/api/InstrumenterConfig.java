@@ -25,10 +25,12 @@ import static datadog.trace.api.config.ProfilingConfig.PROFILING_ENABLED_DEFAULT
 import static datadog.trace.api.config.TraceInstrumentationConfig.INTEGRATIONS_ENABLED;
 import static datadog.trace.api.config.TraceInstrumentationConfig.JDBC_CONNECTION_CLASS_NAME;
 import static datadog.trace.api.config.TraceInstrumentationConfig.JDBC_PREPARED_STATEMENT_CLASS_NAME;
+import static datadog.trace.api.config.TraceInstrumentationConfig.LAZY_MATCHERS_ENABLED;
 import static datadog.trace.api.config.TraceInstrumentationConfig.LEGACY_INSTALLER_ENABLED;
 import static datadog.trace.api.config.TraceInstrumentationConfig.LOGS_INJECTION_ENABLED;
 import static datadog.trace.api.config.TraceInstrumentationConfig.LOGS_MDC_TAGS_INJECTION_ENABLED;
 import static datadog.trace.api.config.TraceInstrumentationConfig.RESOLVER_CACHE_CONFIG;
+import static datadog.trace.api.config.TraceInstrumentationConfig.RESOLVER_MUZZLE_CACHE_ENABLED;
 import static datadog.trace.api.config.TraceInstrumentationConfig.RESOLVER_RESET_INTERVAL;
 import static datadog.trace.api.config.TraceInstrumentationConfig.RESOLVER_USE_LOADCLASS;
 import static datadog.trace.api.config.TraceInstrumentationConfig.RUNTIME_CONTEXT_FIELD_INJECTION;
@@ -84,6 +86,7 @@ public class InstrumenterConfig {
   private final ResolverCacheConfig resolverCacheConfig;
   private final boolean resolverUseLoadClass;
   private final int resolverResetInterval;
+  private final boolean resolverMuzzleCacheEnabled;
 
   private final boolean runtimeContextFieldInjection;
   private final boolean serialVersionUIDFieldInjection;
@@ -94,6 +97,7 @@ public class InstrumenterConfig {
   private final boolean internalExitOnFailure;
 
   private final boolean legacyInstallerEnabled;
+  private final boolean lazyMatchersEnabled;
 
   private InstrumenterConfig() {
     this(ConfigProvider.createDefault());
@@ -163,6 +167,7 @@ public class InstrumenterConfig {
         Platform.isNativeImageBuilder()
             ? 0
             : configProvider.getInteger(RESOLVER_RESET_INTERVAL, DEFAULT_RESOLVER_RESET_INTERVAL);
+    resolverMuzzleCacheEnabled = configProvider.getBoolean(RESOLVER_MUZZLE_CACHE_ENABLED, true);
 
     runtimeContextFieldInjection =
         configProvider.getBoolean(
@@ -177,6 +182,7 @@ public class InstrumenterConfig {
     internalExitOnFailure = configProvider.getBoolean(INTERNAL_EXIT_ON_FAILURE, false);
 
     legacyInstallerEnabled = configProvider.getBoolean(LEGACY_INSTALLER_ENABLED, false);
+    lazyMatchersEnabled = configProvider.getBoolean(LAZY_MATCHERS_ENABLED, false);
   }
 
   public boolean isIntegrationsEnabled() {
@@ -286,6 +292,10 @@ public class InstrumenterConfig {
     return resolverResetInterval;
   }
 
+  public boolean isResolverMuzzleCacheEnabled() {
+    return resolverMuzzleCacheEnabled;
+  }
+
   public boolean isRuntimeContextFieldInjection() {
     return runtimeContextFieldInjection;
   }
@@ -310,6 +320,10 @@ public class InstrumenterConfig {
     return legacyInstallerEnabled;
   }
 
+  public boolean isLazyMatchersEnabled() {
+    return lazyMatchersEnabled;
+  }
+
   public boolean isLegacyInstrumentationEnabled(
       final boolean defaultEnabled, final String... integrationNames) {
     return configProvider.isEnabled(
@@ -373,6 +387,8 @@ public class InstrumenterConfig {
         + resolverUseLoadClass
         + ", resolverResetInterval="
         + resolverResetInterval
+        + ", resolverMuzzleCacheEnabled="
+        + resolverMuzzleCacheEnabled
         + ", runtimeContextFieldInjection="
         + runtimeContextFieldInjection
         + ", serialVersionUIDFieldInjection="
@@ -387,6 +403,8 @@ public class InstrumenterConfig {
         + internalExitOnFailure
         + ", legacyInstallerEnabled="
         + legacyInstallerEnabled
+        + ", lazyMatchersEnabled="
+        + lazyMatchersEnabled
         + '}';
   }
 }
@@ -47,6 +47,10 @@ public class StoredByteBody implements StoredBodySupplier {
     for (int i = start; i < end; ) {
       if (!undecodedData.hasRemaining()) {
         commit(false);
+        if (storedCharBody.isLimitReached()) {
+          // no need to decode the rest of the chunk
+          break;
+        }
       }
       int write = Math.min(end - i, undecodedData.remaining());
       undecodedData.put(bytes, i, write);
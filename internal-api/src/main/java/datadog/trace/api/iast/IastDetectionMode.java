@@ -2,10 +2,12 @@ package datadog.trace.api.iast;
 
 import static datadog.trace.api.ConfigDefaults.DEFAULT_IAST_DEDUPLICATION_ENABLED;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_IAST_MAX_CONCURRENT_REQUESTS;
+import static datadog.trace.api.ConfigDefaults.DEFAULT_IAST_OVERHEAD_BUDGET;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_IAST_REQUEST_SAMPLING;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_IAST_VULNERABILITIES_PER_REQUEST;
 import static datadog.trace.api.config.IastConfig.IAST_DEDUPLICATION_ENABLED;
 import static datadog.trace.api.config.IastConfig.IAST_MAX_CONCURRENT_REQUESTS;
+import static datadog.trace.api.config.IastConfig.IAST_OVERHEAD_BUDGET;
 import static datadog.trace.api.config.IastConfig.IAST_REQUEST_SAMPLING;
 import static datadog.trace.api.config.IastConfig.IAST_VULNERABILITIES_PER_REQUEST;
 
@@ -29,6 +31,11 @@ public enum IastDetectionMode {
       return 100;
     }
 
+    @Override
+    public float getIastOverheadBudget(@Nonnull final ConfigProvider config) {
+      return 0;
+    }
+
     @Override
     public boolean isIastDeduplicationEnabled(@Nonnull final ConfigProvider config) {
       return false;
@@ -52,6 +59,11 @@ public enum IastDetectionMode {
       return config.getFloat(IAST_REQUEST_SAMPLING, DEFAULT_IAST_REQUEST_SAMPLING);
     }
 
+    @Override
+    public float getIastOverheadBudget(@Nonnull final ConfigProvider config) {
+      return config.getFloat(IAST_OVERHEAD_BUDGET, DEFAULT_IAST_OVERHEAD_BUDGET);
+    }
+
     @Override
     public boolean isIastDeduplicationEnabled(@Nonnull final ConfigProvider config) {
       return config.getBoolean(IAST_DEDUPLICATION_ENABLED, DEFAULT_IAST_DEDUPLICATION_ENABLED);
@@ -66,5 +78,8 @@ public enum IastDetectionMode {
 
   public abstract float getIastRequestSampling(@Nonnull ConfigProvider config);
 
+  /** Percentage of request latency IAST may add before sampling is adjusted, 0 to disable. */
+  public abstract float getIastOverheadBudget(@Nonnull ConfigProvider config);
+
   public abstract boolean isIastDeduplicationEnabled(@Nonnull ConfigProvider config);
 }
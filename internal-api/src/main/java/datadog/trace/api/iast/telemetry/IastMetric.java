@@ -18,7 +18,8 @@ public enum IastMetric {
   EXECUTED_SINK("executed.sink", true, REQUEST, INFORMATION, VULNERABILITY_TYPE),
   EXECUTED_TAINTED("executed.tainted", true, REQUEST, DEBUG),
   REQUEST_TAINTED("request.tainted", true, REQUEST, INFORMATION),
-  TAINTED_FLAT_MODE("tainted.flat.mode", false, REQUEST, INFORMATION);
+  TAINTED_FLAT_MODE("tainted.flat.mode", false, REQUEST, INFORMATION),
+  REQUEST_OVERHEAD_BUDGET("request.overhead.budget", false, REQUEST, INFORMATION);
 
   private final String name;
   private final boolean common;
@@ -60,6 +60,7 @@ public interface IastTelemetryCollector {
       switch (metric) {
         case TAINTED_FLAT_MODE:
         case REQUEST_TAINTED:
+        case REQUEST_OVERHEAD_BUDGET:
           return aggregated(metric);
         default:
           return conflated(metric);
@@ -1,6 +1,7 @@
 package datadog.trace.util.stacktrace;
 
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 public abstract class AbstractStackWalker implements StackWalker {
@@ -10,14 +11,46 @@ public abstract class AbstractStackWalker implements StackWalker {
     return doGetStack(input -> consumer.apply(doFilterStack(input)));
   }
 
+  @Override
+  public <T> T walkFromFirstNonAgentFrame(Function<Stream<StackTraceElement>, T> consumer) {
+    return doGetStack(input -> consumer.apply(doFilterLeadingStack(input)));
+  }
+
   final Stream<StackTraceElement> doFilterStack(Stream<StackTraceElement> stream) {
     return stream.filter(AbstractStackWalker::isNotDatadogTraceStackElement);
   }
 
+  final Stream<StackTraceElement> doFilterLeadingStack(Stream<StackTraceElement> stream) {
+    return stream.filter(
+        new LeadingElementsFilter<>(AbstractStackWalker::isNotDatadogTraceStackElement));
+  }
+
   abstract <T> T doGetStack(Function<Stream<StackTraceElement>, T> consumer);
 
   static boolean isNotDatadogTraceStackElement(final StackTraceElement el) {
-    final String clazz = el.getClassName();
+    return isNotDatadogTraceClass(el.getClassName());
+  }
+
+  static boolean isNotDatadogTraceClass(final String clazz) {
     return !clazz.startsWith("datadog.trace.") && !clazz.startsWith("com.datadog.iast.");
   }
+
+  /** Filters out elements until the first one accepted, every element after it is kept */
+  static final class LeadingElementsFilter<T> implements Predicate<T> {
+
+    private final Predicate<T> delegate;
+    private boolean accepted;
+
+    LeadingElementsFilter(final Predicate<T> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public boolean test(final T item) {
+      if (!accepted) {
+        accepted = delegate.test(item);
+      }
+      return accepted;
+    }
+  }
 }
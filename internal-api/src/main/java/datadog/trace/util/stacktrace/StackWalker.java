@@ -9,4 +9,10 @@ public interface StackWalker {
 
   /** StackTrace should be returned without any element from the dd-trace-java-agent itself. */
   <T> T walk(Function<Stream<StackTraceElement>, T> consumer);
+
+  /**
+   * StackTrace should be returned from the first element not from the dd-trace-java-agent itself,
+   * elements of the agent called deeper in the stack are kept.
+   */
+  <T> T walkFromFirstNonAgentFrame(Function<Stream<StackTraceElement>, T> consumer);
 }
@@ -56,6 +56,26 @@ class StoredByteBodyTest extends Specification {
     storedByteBody.get() as String == 'a' * (128 * 1024)
   }
 
+  void 'store limit reached in the middle of a multi-byte sequence'() {
+    storedByteBody = new StoredByteBody(requestContext, startCb, endCb, null, 0)
+    // the first 'á' straddles two 64 byte chunks and is the last char to fit
+    def data = ('a' * (128 * 1024 - 1) + 'á' * 4).getBytes(Charset.forName('UTF-8'))
+
+    when:
+    storedByteBody.appendData(data, 0, data.length)
+
+    then:
+    1 * startCb.apply(requestContext, storedByteBody)
+    storedByteBody.get() as String == 'a' * (128 * 1024 - 1) + 'á'
+
+    when:
+    storedByteBody.appendData(('b' * 64).getBytes('ISO-8859-1'), 0, 64)
+    storedByteBody.maybeNotify()
+
+    then:
+    storedByteBody.get() as String == 'a' * (128 * 1024 - 1) + 'á'
+  }
+
   void 'ignores invalid integers given to appendData'() {
     storedByteBody = new StoredByteBody(requestContext, startCb, endCb, null, 0)
 
@@ -44,4 +44,17 @@ public class DefaultStackWalkerTest {
     assertFalse(stack.isEmpty());
     assertNotEquals(DD_IAST_CLASS_NAME, stack.get(0).getClassName());
   }
+
+  @Test
+  public void walk_from_first_non_datadog_frame() {
+    // When
+    final List<StackTraceElement> stack =
+        getStackWalkFromFirstNonAgentFrame(stackWalker, NOT_DD_CLASS_NAME);
+    // Then
+    assertEquals(NOT_DD_CLASS_NAME, stack.get(0).getClassName());
+    // datadog frames deeper in the stack, such as the test itself, are kept
+    assertTrue(
+        stack.stream()
+            .anyMatch(e -> e.getClassName().equals(DefaultStackWalkerTest.class.getName())));
+  }
 }
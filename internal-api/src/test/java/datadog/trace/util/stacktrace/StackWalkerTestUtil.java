@@ -37,4 +37,15 @@ public class StackWalkerTestUtil {
         });
     return result.get();
   }
+
+  public static List<StackTraceElement> getStackWalkFromFirstNonAgentFrame(
+      final StackWalker walker, final String clazz) {
+    final AtomicReference<List<StackTraceElement>> result = new AtomicReference<>();
+    AnyStackRunner.callWithinStack(
+        clazz,
+        () -> {
+          result.set(walker.walkFromFirstNonAgentFrame(s -> s.collect(Collectors.toList())));
+        });
+    return result.get();
+  }
 }